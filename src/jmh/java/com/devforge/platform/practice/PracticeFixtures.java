@@ -0,0 +1,104 @@
+package com.devforge.platform.practice;
+
+import com.devforge.platform.common.DemoProblem;
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.domain.TestCase;
+import com.devforge.platform.practice.runner.TestDataCodec;
+
+import java.util.List;
+
+/**
+ * The practice problems of {@link DemoProblem}, as {@code DemoDataSeeder} saves them, with a passing
+ * solution for each, for benchmarks that do not start the application.
+ */
+public enum PracticeFixtures {
+
+    SUM(DemoProblem.SUM, """
+            public class Solution {
+                public int sum(int a, int b) {
+                    return a + b;
+                }
+            }
+            """),
+    MAX(DemoProblem.MAX, """
+            public class Solution {
+                public int max(int a, int b) {
+                    return a >= b ? a : b;
+                }
+            }
+            """),
+    GREET(DemoProblem.GREET, """
+            public class Solution {
+                public String greet(String name) {
+                    return "Hello, " + name + "!";
+                }
+            }
+            """);
+
+    public static final String CLASS_NAME = DemoProblem.CLASS_NAME;
+
+    private final DemoProblem definition;
+    private final String solution;
+
+    PracticeFixtures(DemoProblem definition, String solution) {
+        this.definition = definition;
+        this.solution = solution;
+    }
+
+    public String methodName() {
+        return definition.methodName();
+    }
+
+    public String methodSignature() {
+        return definition.methodSignature();
+    }
+
+    public List<DemoProblem.Test> tests() {
+        return definition.tests();
+    }
+
+    /**
+     * Input of the first test, for benchmarks of a single call.
+     */
+    public String input() {
+        return tests().getFirst().input();
+    }
+
+    /**
+     * Expected output of the first test.
+     */
+    public String expectedOutput() {
+        return tests().getFirst().expectedOutput();
+    }
+
+    public String solution() {
+        return solution;
+    }
+
+    /**
+     * The fixture of a seeded problem.
+     *
+     * @throws IllegalArgumentException if the seeder has no problem with this method.
+     */
+    public static PracticeFixtures forMethod(String methodName) {
+        for (PracticeFixtures fixture : values()) {
+            if (fixture.methodName().equals(methodName)) {
+                return fixture;
+            }
+        }
+        throw new IllegalArgumentException("No fixture for method " + methodName);
+    }
+
+    /**
+     * An unsaved problem with all tests the seeder defines, their inputs encoded as on save.
+     */
+    public Problem problem(long id) {
+        Problem problem = definition.toProblem(null);
+        problem.setId(id);
+        List<TestDataCodec.Type> types = TestDataCodec.parseSignature(methodSignature());
+        for (TestCase test : problem.getTestCases()) {
+            test.setEncodedInput(TestDataCodec.encode(types, test.getInputData()));
+        }
+        return problem;
+    }
+}
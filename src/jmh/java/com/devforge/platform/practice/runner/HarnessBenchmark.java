@@ -0,0 +1,126 @@
+package com.devforge.platform.practice.runner;
+
+import com.devforge.platform.practice.PracticeFixtures;
+import com.devforge.platform.practice.service.execution.ExecutionEngine;
+import com.devforge.platform.practice.service.execution.HelperLibrary;
+import com.devforge.platform.practice.service.execution.InMemoryCompiler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-test work of the harness, on an already loaded solution:
+ * <ul>
+ *   <li>{@code parseSignature}, {@code parseInput}: what the teacher's save pays per test</li>
+ *   <li>{@code decodeInput}: stored arguments to fresh objects, before every call</li>
+ *   <li>{@code invoke}: one test call through the bound method handles, result compared</li>
+ *   <li>{@code captureOutput}: a student printing 100 lines into a {@link LogCapture}</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class HarnessBenchmark {
+
+    private static final int PRINTED_LINES = 100;
+
+    @Param({"SUM", "GREET"})
+    public PracticeFixtures fixture;
+
+    private final ExecutionLimits limits = new ExecutionLimits(5000, 2000, 10000, 1 << 20, 16384, 16384);
+
+    private List<TestDataCodec.Type> types;
+    private byte[] encoded;
+    private BytecodeClassLoader loader;
+    private ProblemHarness.Invoker invoker;
+    private Object instance;
+    private PrintStream console;
+
+    @Setup
+    public void setUp() throws Exception {
+        types = TestDataCodec.parseSignature(fixture.methodSignature());
+        encoded = TestDataCodec.encode(types, fixture.input());
+
+        ExecutionEngine engine = new ExecutionEngine(1, 1, 1, 1, 1, new SimpleMeterRegistry());
+        InMemoryCompiler compiler = new InMemoryCompiler(engine, 1, 2000);
+        Map<String, byte[]> classes;
+        try {
+            classes = compiler.compile(PracticeFixtures.CLASS_NAME, fixture.solution(), HelperLibrary.NONE);
+        } finally {
+            compiler.close();
+            engine.shutdown();
+        }
+        loader = new BytecodeClassLoader(classes, ClassLoader.getSystemClassLoader());
+
+        ProblemHarness harness = ProblemHarness.build(fixture.methodName(), fixture.methodSignature(),
+                List.of(new TestInput(fixture.input(), fixture.expectedOutput(), encoded, null)));
+        invoker = harness.bind(loader.loadClass(PracticeFixtures.CLASS_NAME));
+        instance = invoker.newInstance();
+        if (invoker.call(instance, 0) != ProblemHarness.MATCH) {
+            throw new IllegalStateException("The solution of " + fixture + " fails its test");
+        }
+
+        // As installed by ConsoleCapture: threads without a capture write through to the console
+        console = System.out;
+        System.setOut(OutputRouter.stream(console));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(console);
+        loader.close();
+    }
+
+    @Benchmark
+    public List<TestDataCodec.Type> parseSignature() {
+        return TestDataCodec.parseSignature(fixture.methodSignature());
+    }
+
+    @Benchmark
+    public byte[] parseInput() {
+        return TestDataCodec.encode(types, fixture.input());
+    }
+
+    @Benchmark
+    public Object[] decodeInput() {
+        return TestDataCodec.decode(types, encoded);
+    }
+
+    @Benchmark
+    public Object invoke() throws InvocationTargetException {
+        return invoker.call(instance, 0);
+    }
+
+    @Benchmark
+    public String captureOutput() {
+        LogCapture capture = new LogCapture(limits);
+        OutputRouter.redirect(capture.student());
+        try {
+            for (int i = 0; i < PRINTED_LINES; i++) {
+                System.out.println("step " + i);
+            }
+        } finally {
+            OutputRouter.redirect(null);
+        }
+        return capture.contents();
+    }
+}
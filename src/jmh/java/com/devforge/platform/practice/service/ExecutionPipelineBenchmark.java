@@ -0,0 +1,103 @@
+package com.devforge.platform.practice.service;
+
+import com.devforge.platform.PlatformApplication;
+import com.devforge.platform.practice.PracticeFixtures;
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.repository.ProblemRepository;
+import com.devforge.platform.practice.service.execution.ExecutionPriority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link CodeExecutionService#executeWithLogs} on the problems seeded by
+ * {@code DemoDataSeeder}, in the application started on an in-memory H2 database.
+ * <ul>
+ *   <li>{@code executeUncached}: a source never seen before, so compile, load and run the tests</li>
+ *   <li>{@code executeCached}: the same source again, answered from the verdict cache</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ExecutionPipelineBenchmark {
+
+    @Param({"sum", "greet"})
+    public String method;
+
+    @Param({"in-process", "forked"})
+    public String runnerMode;
+
+    private ConfigurableApplicationContext context;
+    private CodeExecutionService codeExecutionService;
+    private Problem problem;
+    private String solution;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        // Arguments, so that they take precedence over application.yml
+        context = new SpringApplicationBuilder(PlatformApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--gemini.api-key=unused",
+                // The demo problems have no large test data; nothing needs to outlive the benchmark
+                "--practice.test-data.dir=" + System.getProperty("java.io.tmpdir") + "/devforge-benchmark-test-data",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--practice.runner.mode=" + runnerMode);
+        codeExecutionService = context.getBean(CodeExecutionService.class);
+
+        ProblemRepository problems = context.getBean(ProblemRepository.class);
+        problem = context.getBean(TransactionTemplate.class).execute(status -> {
+            Problem seeded = problems.findAll().stream()
+                    .filter(candidate -> candidate.getMethodName().equals(method))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("DemoDataSeeder has no problem with method " + method));
+            seeded.getTestCases().size();
+            return seeded;
+        });
+        solution = PracticeFixtures.forMethod(method).solution();
+
+        CodeExecutionService.ExecutionResult result = codeExecutionService.executeWithLogs(solution, problem, ExecutionPriority.INTERACTIVE);
+        if (!result.success()) {
+            throw new IllegalStateException("The solution of " + method + " fails: " + result.logs());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CodeExecutionService.ExecutionResult executeUncached() {
+        // A new comment defeats the compile and verdict caches
+        return codeExecutionService.executeWithLogs(solution + "// " + sequence++, problem, ExecutionPriority.INTERACTIVE);
+    }
+
+    @Benchmark
+    public CodeExecutionService.ExecutionResult executeCached() {
+        return codeExecutionService.executeWithLogs(solution, problem, ExecutionPriority.INTERACTIVE);
+    }
+}
@@ -0,0 +1,108 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.PracticeFixtures;
+import com.devforge.platform.practice.runner.BytecodeClassLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compiling student code and loading the bytecode.
+ * <ul>
+ *   <li>{@code compileFirstInJvm}: the first compilation of a fresh JVM, javac classes not even loaded</li>
+ *   <li>{@code compileNewContext}: a fresh file manager, in a JVM that has compiled before</li>
+ *   <li>{@code compileWarm}: a pooled, warmed-up compiler context, as Runs use it</li>
+ *   <li>{@code loadClass}: defining and initializing the classes in a fresh loader, as every Run does</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompilerBenchmark {
+
+    /**
+     * A compiler with one context. Nothing is compiled before the benchmark.
+     */
+    @State(Scope.Benchmark)
+    public static class Compilers {
+
+        @Param({"SUM", "GREET"})
+        public PracticeFixtures fixture;
+
+        ExecutionEngine engine;
+        InMemoryCompiler compiler;
+
+        @Setup
+        public void setUp() {
+            engine = new ExecutionEngine(1, 1, 1, 1, 1, new SimpleMeterRegistry());
+            compiler = new InMemoryCompiler(engine, 1, 2000);
+        }
+
+        @TearDown
+        public void tearDown() {
+            compiler.close();
+            engine.shutdown();
+        }
+    }
+
+    /**
+     * The bytecode of the fixture's solution.
+     */
+    @State(Scope.Benchmark)
+    public static class Compiled {
+
+        Map<String, byte[]> classes;
+
+        @Setup
+        public void setUp(Compilers compilers) {
+            classes = compilers.compiler.compile(PracticeFixtures.CLASS_NAME, compilers.fixture.solution(), HelperLibrary.NONE);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(5)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public Map<String, byte[]> compileFirstInJvm(Compilers compilers) {
+        return compilers.compiler.compile(PracticeFixtures.CLASS_NAME, compilers.fixture.solution(), HelperLibrary.NONE);
+    }
+
+    @Benchmark
+    public Map<String, byte[]> compileNewContext(Compilers compilers) {
+        InMemoryCompiler fresh = new InMemoryCompiler(compilers.engine, 1, 2000);
+        try {
+            return fresh.compile(PracticeFixtures.CLASS_NAME, compilers.fixture.solution(), HelperLibrary.NONE);
+        } finally {
+            fresh.close();
+        }
+    }
+
+    @Benchmark
+    public Map<String, byte[]> compileWarm(Compilers compilers) {
+        return compilers.compiler.compile(PracticeFixtures.CLASS_NAME, compilers.fixture.solution(), HelperLibrary.NONE);
+    }
+
+    @Benchmark
+    public Class<?> loadClass(Compiled compiled) throws ClassNotFoundException {
+        try (BytecodeClassLoader loader = new BytecodeClassLoader(compiled.classes, ClassLoader.getSystemClassLoader())) {
+            return Class.forName(PracticeFixtures.CLASS_NAME, true, loader);
+        }
+    }
+}
@@ -4,7 +4,6 @@ import com.devforge.platform.course.domain.*;
 import com.devforge.platform.course.repository.CourseRepository;
 import com.devforge.platform.course.repository.LessonRepository;
 import com.devforge.platform.practice.domain.Problem;
-import com.devforge.platform.practice.domain.TestCase;
 import com.devforge.platform.practice.repository.ProblemRepository;
 import com.devforge.platform.quiz.domain.QuizOption;
 import com.devforge.platform.quiz.domain.QuizQuestion;
@@ -138,25 +137,7 @@ public class DemoDataSeeder implements CommandLineRunner {
                 .build();
         lessonRepository.save(l3);
 
-        Problem p1 = Problem.builder()
-                .lesson(l3)
-                .className("Solution")
-                .methodName("sum")
-                .methodSignature("int, int")
-                .starterCode("""
-                        public class Solution {
-                            public int sum(int a, int b) {
-                                // TODO: return the sum of a and b
-                                return 0;
-                            }
-                        }
-                        """)
-                .build();
-        p1.setTestCases(List.of(
-                TestCase.builder().problem(p1).inputData("5, 10").expectedOutput("15").build(),
-                TestCase.builder().problem(p1).inputData("-5, 5").expectedOutput("0").build(),
-                TestCase.builder().problem(p1).inputData("100, 200").expectedOutput("300").build()
-        ));
+        Problem p1 = DemoProblem.SUM.toProblem(l3);
         problemRepository.save(p1);
 
         // ==========================================
@@ -206,25 +187,7 @@ public class DemoDataSeeder implements CommandLineRunner {
                 .build();
         lessonRepository.save(l5);
 
-        Problem p2 = Problem.builder()
-                .lesson(l5)
-                .className("Solution")
-                .methodName("max")
-                .methodSignature("int, int")
-                .starterCode("""
-                        public class Solution {
-                            public int max(int a, int b) {
-                                // TODO: return the larger number
-                                return 0;
-                            }
-                        }
-                        """)
-                .build();
-        p2.setTestCases(List.of(
-                TestCase.builder().problem(p2).inputData("10, 20").expectedOutput("20").build(),
-                TestCase.builder().problem(p2).inputData("50, 10").expectedOutput("50").build(),
-                TestCase.builder().problem(p2).inputData("7, 7").expectedOutput("7").build()
-        ));
+        Problem p2 = DemoProblem.MAX.toProblem(l5);
         problemRepository.save(p2);
 
         // ==========================================
@@ -247,25 +210,7 @@ public class DemoDataSeeder implements CommandLineRunner {
                 .build();
         lessonRepository.save(l6);
 
-        Problem p3 = Problem.builder()
-                .lesson(l6)
-                .className("Solution")
-                .methodName("greet")
-                .methodSignature("String")
-                .starterCode("""
-                        public class Solution {
-                            public String greet(String name) {
-                                // Hint: Use + to concatenate strings
-                                return "";
-                            }
-                        }
-                        """)
-                .build();
-        p3.setTestCases(List.of(
-                TestCase.builder().problem(p3).inputData("Alice").expectedOutput("Hello, Alice!").build(),
-                TestCase.builder().problem(p3).inputData("Bob").expectedOutput("Hello, Bob!").build(),
-                TestCase.builder().problem(p3).inputData("Java").expectedOutput("Hello, Java!").build()
-        ));
+        Problem p3 = DemoProblem.GREET.toProblem(l6);
         problemRepository.save(p3);
 
         System.out.println("✅ FULL DEMO COURSE LOADED");
@@ -0,0 +1,102 @@
+package com.devforge.platform.common;
+
+import com.devforge.platform.course.domain.Lesson;
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.domain.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The practice problems of the demo course. {@link DemoDataSeeder} saves them, and the benchmarks
+ * run them without starting the application.
+ */
+public enum DemoProblem {
+
+    SUM("sum", "int, int", """
+            public class Solution {
+                public int sum(int a, int b) {
+                    // TODO: return the sum of a and b
+                    return 0;
+                }
+            }
+            """,
+            new Test("5, 10", "15"),
+            new Test("-5, 5", "0"),
+            new Test("100, 200", "300")),
+    MAX("max", "int, int", """
+            public class Solution {
+                public int max(int a, int b) {
+                    // TODO: return the larger number
+                    return 0;
+                }
+            }
+            """,
+            new Test("10, 20", "20"),
+            new Test("50, 10", "50"),
+            new Test("7, 7", "7")),
+    GREET("greet", "String", """
+            public class Solution {
+                public String greet(String name) {
+                    // Hint: Use + to concatenate strings
+                    return "";
+                }
+            }
+            """,
+            new Test("Alice", "Hello, Alice!"),
+            new Test("Bob", "Hello, Bob!"),
+            new Test("Java", "Hello, Java!"));
+
+    public static final String CLASS_NAME = "Solution";
+
+    /**
+     * One hand-written test of a demo problem.
+     */
+    public record Test(String input, String expectedOutput) {
+    }
+
+    private final String methodName;
+    private final String methodSignature;
+    private final String starterCode;
+    private final List<Test> tests;
+
+    DemoProblem(String methodName, String methodSignature, String starterCode, Test... tests) {
+        this.methodName = methodName;
+        this.methodSignature = methodSignature;
+        this.starterCode = starterCode;
+        this.tests = List.of(tests);
+    }
+
+    public String methodName() {
+        return methodName;
+    }
+
+    public String methodSignature() {
+        return methodSignature;
+    }
+
+    public List<Test> tests() {
+        return tests;
+    }
+
+    /**
+     * An unsaved problem with all tests of the definition.
+     *
+     * @param lesson The practice lesson it belongs to, or null outside the application.
+     */
+    public Problem toProblem(Lesson lesson) {
+        Problem problem = Problem.builder()
+                .lesson(lesson)
+                .className(CLASS_NAME)
+                .methodName(methodName)
+                .methodSignature(methodSignature)
+                .starterCode(starterCode)
+                .build();
+        List<TestCase> testCases = new ArrayList<>();
+        for (Test test : tests) {
+            testCases.add(TestCase.builder().problem(problem).inputData(test.input()).expectedOutput(test.expectedOutput()).build());
+        }
+        problem.setTestCases(testCases);
+        return problem;
+    }
+}
@@ -14,7 +14,11 @@ import java.util.List;
  * A course is created by a TEACHER and consists of multiple modules (future impl).
  */
 @Entity
-@Table(name = "course")
+@Table(name = "course", indexes = {
+    @Index(name = "idx_course_status_id", columnList = "status, id"),
+    @Index(name = "idx_course_status_level_id", columnList = "status, level, id"),
+    @Index(name = "idx_course_updated_at", columnList = "updated_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -79,4 +83,11 @@ public class Course {
     protected void onUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
+
+    /**
+     * Marks the course as changed when only its lessons are, so that other nodes reindex it for search.
+     */
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
 }
\ No newline at end of file
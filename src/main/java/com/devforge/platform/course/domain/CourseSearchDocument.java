@@ -0,0 +1,23 @@
+package com.devforge.platform.course.domain;
+
+import java.util.List;
+
+/**
+ * The searchable text of a course, as indexed for the catalog search.
+ *
+ * @param lessonTitles Titles of the course's lessons, in order.
+ */
+public record CourseSearchDocument(Long id, String title, String description, CourseLevel level,
+                                   CourseStatus status, List<String> lessonTitles) {
+
+    /**
+     * Row of the projection query; the lesson titles are loaded separately.
+     */
+    public CourseSearchDocument(Long id, String title, String description, CourseLevel level, CourseStatus status) {
+        this(id, title, description, level, status, List.of());
+    }
+
+    public CourseSearchDocument withLessonTitles(List<String> titles) {
+        return new CourseSearchDocument(id, title, description, level, status, List.copyOf(titles));
+    }
+}
@@ -1,11 +1,20 @@
 package com.devforge.platform.course.repository;
 
 import com.devforge.platform.course.domain.Course;
+import com.devforge.platform.course.domain.CourseLevel;
+import com.devforge.platform.course.domain.CourseSearchDocument;
 import com.devforge.platform.course.domain.CourseStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Data Access Layer for Course entity.
@@ -25,10 +34,41 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
      */
     List<Course> findAllByAuthorId(Long authorId);
 
-    @org.springframework.data.jpa.repository.Query("SELECT c FROM Course c WHERE c.status = 'PUBLISHED' " +
-            "AND (:keyword IS NULL OR LOWER(c.title) LIKE LOWER(CONCAT('%', CAST(:keyword AS String), '%')) " +
-            "OR LOWER(c.description) LIKE LOWER(CONCAT('%', CAST(:keyword AS String), '%'))) " +
-            "AND (:level IS NULL OR c.level = :level)")
-    List<Course> searchCourses(@org.springframework.data.repository.query.Param("keyword") String keyword, 
-                               @org.springframework.data.repository.query.Param("level") com.devforge.platform.course.domain.CourseLevel level);
+    /**
+     * Courses with a status, newest first, one page at a time: pass the smallest id of the
+     * previous page (or {@code Long.MAX_VALUE}). Used for the catalog without a search keyword.
+     */
+    @EntityGraph(attributePaths = "author")
+    List<Course> findByStatusAndIdLessThanOrderByIdDesc(CourseStatus status, Long beforeId, Limit limit);
+
+    /**
+     * As {@link #findByStatusAndIdLessThanOrderByIdDesc}, for one level.
+     */
+    @EntityGraph(attributePaths = "author")
+    List<Course> findByStatusAndLevelAndIdLessThanOrderByIdDesc(CourseStatus status, CourseLevel level, Long beforeId, Limit limit);
+
+    /**
+     * Courses by id, with their authors. Used to load a page of search results.
+     */
+    @EntityGraph(attributePaths = "author")
+    List<Course> findAllByIdIn(Collection<Long> ids);
+
+    /**
+     * Searchable text of the courses with a status, without loading cover images.
+     * Used to build the search index.
+     */
+    @Query("SELECT new com.devforge.platform.course.domain.CourseSearchDocument(c.id, c.title, c.description, c.level, c.status) " +
+            "FROM Course c WHERE c.status = :status")
+    List<CourseSearchDocument> findSearchDocumentsByStatus(@Param("status") CourseStatus status);
+
+    /**
+     * Searchable text of the courses changed since a point in time, whatever their status.
+     */
+    @Query("SELECT new com.devforge.platform.course.domain.CourseSearchDocument(c.id, c.title, c.description, c.level, c.status) " +
+            "FROM Course c WHERE c.updatedAt >= :since")
+    List<CourseSearchDocument> findSearchDocumentsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT new com.devforge.platform.course.domain.CourseSearchDocument(c.id, c.title, c.description, c.level, c.status) " +
+            "FROM Course c WHERE c.id = :id")
+    Optional<CourseSearchDocument> findSearchDocumentById(@Param("id") Long id);
 }
\ No newline at end of file
@@ -2,8 +2,11 @@ package com.devforge.platform.course.repository;
 
 import com.devforge.platform.course.domain.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -24,4 +27,11 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
      * @return long integer of total lessons in course.
      */
     long countByCourseId(long courseId);
+
+    /**
+     * Lesson titles of several courses, as (course id, title) pairs in lesson order.
+     * Used to build the course search index.
+     */
+    @Query("SELECT l.course.id, l.title FROM Lesson l WHERE l.course.id IN :courseIds ORDER BY l.orderIndex ASC")
+    List<Object[]> findTitlesByCourseIds(@Param("courseIds") Collection<Long> courseIds);
 }
\ No newline at end of file
@@ -0,0 +1,313 @@
+package com.devforge.platform.course.service;
+
+import com.devforge.platform.course.domain.CourseLevel;
+import com.devforge.platform.course.domain.CourseSearchDocument;
+import com.devforge.platform.course.domain.CourseStatus;
+import com.devforge.platform.course.repository.CourseRepository;
+import com.devforge.platform.course.repository.LessonRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Full-text index of the published courses, over their title, description and lesson titles.
+ * <p>
+ * An in-memory Lucene index: English stemming and stop words, BM25 ranking with title matches
+ * weighted above lesson titles and descriptions, and prefix matching of the last word typed.
+ * Built from the database at startup; a course is reindexed after the transaction that changes
+ * it commits, and a background thread picks up the courses other nodes changed, by
+ * {@code updatedAt} (which changes to a course's lessons also bump, see {@link com.devforge.platform.course.domain.Course#touch()}).
+ */
+@Component
+@Slf4j
+public class CourseSearchIndex {
+
+    private static final String ID = "id";
+    private static final String LEVEL = "level";
+    private static final String TITLE = "title";
+    private static final String LESSONS = "lessons";
+    private static final String DESCRIPTION = "description";
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(TITLE, 3f, LESSONS, 1.5f, DESCRIPTION, 1f);
+    private static final float PREFIX_BOOST = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int ID_BATCH_SIZE = 500;
+    private static final String ID_ORDER = "idOrder";
+    private static final Sort RANKING = new Sort(SortField.FIELD_SCORE, new SortField(ID_ORDER, SortField.Type.LONG, true));
+
+    private final CourseRepository courseRepository;
+    private final LessonRepository lessonRepository;
+    private final long refreshIntervalMs;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Thread refresher;
+    private volatile LocalDateTime lastRefresh;
+
+    public CourseSearchIndex(CourseRepository courseRepository,
+                             LessonRepository lessonRepository,
+                             @Value("${course.search.refresh-interval-ms:10000}") long refreshIntervalMs) throws IOException {
+        this.courseRepository = courseRepository;
+        this.lessonRepository = lessonRepository;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+        this.refresher = new Thread(this::refreshLoop, "course-search-refresher");
+        this.refresher.setDaemon(true);
+    }
+
+    /**
+     * Indexes every published course, then starts following changes made by other nodes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        lastRefresh = LocalDateTime.now();
+        List<CourseSearchDocument> courses = courseRepository.findSearchDocumentsByStatus(CourseStatus.PUBLISHED);
+        index(courses);
+        log.info("Indexed {} published courses for search in {} ms", courses.size(), (System.nanoTime() - start) / 1_000_000);
+        if (refreshIntervalMs > 0) {
+            refresher.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        refresher.interrupt();
+        searcherManager.close();
+        writer.close();
+    }
+
+    /**
+     * Reindexes the course once the current transaction commits (or now, outside of one):
+     * published courses are added or replaced, others removed.
+     */
+    public void reindex(Long courseId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reindexNow(courseId);
+                }
+            });
+        } else {
+            reindexNow(courseId);
+        }
+    }
+
+    /**
+     * The published courses matching every word of the keyword, best match first, then newest
+     * first among equal scores. One page at a time: pass the last hit of the previous page.
+     *
+     * @param level Only courses of this level, if not null
+     * @param after Last hit of the previous page, or null for the first page
+     */
+    public List<Hit> search(String keyword, CourseLevel level, Hit after, int limit) {
+        Query query = parse(keyword, level);
+        if (query == null) {
+            return List.of();
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                // Ids are unique, so (score, id) is a total order and a page starts right after its cursor;
+                // the doc only breaks ties of equal (score, id), and the last one skips them all
+                FieldDoc afterDoc = after == null ? null
+                        : new FieldDoc(searcher.getIndexReader().maxDoc() - 1, after.score(), new Object[] {after.score(), after.id()});
+                List<Hit> hits = new ArrayList<>();
+                for (ScoreDoc hit : searcher.searchAfter(afterDoc, query, limit, RANKING, true).scoreDocs) {
+                    hits.add(new Hit((Long) ((FieldDoc) hit).fields[1], hit.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Each word must match in some field; the last one may also be the start of a word.
+     * Null if the keyword has nothing to search for.
+     */
+    private Query parse(String keyword, CourseLevel level) {
+        String[] words = keyword.trim().toLowerCase(Locale.ROOT).split("\\s+");
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        boolean empty = true;
+        for (int i = 0; i < words.length; i++) {
+            String raw = words[i];
+            BooleanQuery.Builder word = new BooleanQuery.Builder();
+            List<String> terms = analyze(raw);
+            for (String term : terms) {
+                FIELD_BOOSTS.forEach((field, boost) ->
+                        word.add(new BoostQuery(new TermQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD));
+            }
+            boolean last = i == words.length - 1;
+            boolean prefix = last && raw.length() >= MIN_PREFIX_LENGTH;
+            if (prefix) {
+                FIELD_BOOSTS.forEach((field, boost) ->
+                        word.add(new BoostQuery(new PrefixQuery(new Term(field, raw)), boost * PREFIX_BOOST), BooleanClause.Occur.SHOULD));
+            }
+            // Stop words alone ("the", "of") are dropped rather than matching nothing
+            if (!terms.isEmpty() || prefix) {
+                query.add(word.build(), BooleanClause.Occur.MUST);
+                empty = false;
+            }
+        }
+        if (empty) {
+            return null;
+        }
+        if (level != null) {
+            query.add(new TermQuery(new Term(LEVEL, level.name())), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private void reindexNow(Long courseId) {
+        try {
+            courseRepository.findSearchDocumentById(courseId)
+                    .ifPresentOrElse(course -> index(List.of(course)), () -> remove(courseId));
+        } catch (RuntimeException e) {
+            // The refresher catches up with the course on its next pass
+            log.warn("Reindexing course id={} failed", courseId, e);
+        }
+    }
+
+    private void refreshLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Thread.sleep(refreshIntervalMs);
+                // Overlaps the previous pass, for transactions that committed late and clock skew between nodes
+                LocalDateTime since = lastRefresh.minusNanos(refreshIntervalMs * 1_000_000);
+                lastRefresh = LocalDateTime.now();
+                index(courseRepository.findSearchDocumentsUpdatedSince(since));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.warn("Refreshing the course search index failed", e);
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces the published courses and removes the others.
+     */
+    private void index(List<CourseSearchDocument> courses) {
+        if (courses.isEmpty()) {
+            return;
+        }
+        try {
+            for (int from = 0; from < courses.size(); from += ID_BATCH_SIZE) {
+                List<CourseSearchDocument> batch = courses.subList(from, Math.min(courses.size(), from + ID_BATCH_SIZE));
+                Map<Long, List<String>> lessonTitles = lessonTitles(batch.stream()
+                        .filter(course -> course.status() == CourseStatus.PUBLISHED)
+                        .map(CourseSearchDocument::id)
+                        .toList());
+                for (CourseSearchDocument course : batch) {
+                    Term id = new Term(ID, course.id().toString());
+                    if (course.status() == CourseStatus.PUBLISHED) {
+                        writer.updateDocument(id, toDocument(course.withLessonTitles(lessonTitles.getOrDefault(course.id(), List.of()))));
+                    } else {
+                        writer.deleteDocuments(id);
+                    }
+                }
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void remove(Long courseId) {
+        try {
+            writer.deleteDocuments(new Term(ID, courseId.toString()));
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Map<Long, List<String>> lessonTitles(Collection<Long> courseIds) {
+        Map<Long, List<String>> titles = new HashMap<>();
+        if (!courseIds.isEmpty()) {
+            for (Object[] row : lessonRepository.findTitlesByCourseIds(courseIds)) {
+                titles.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        return titles;
+    }
+
+    private static Document toDocument(CourseSearchDocument course) {
+        Document document = new Document();
+        document.add(new StringField(ID, course.id().toString(), Field.Store.NO));
+        document.add(new NumericDocValuesField(ID_ORDER, course.id()));
+        document.add(new StringField(LEVEL, course.level().name(), Field.Store.NO));
+        document.add(new TextField(TITLE, course.title(), Field.Store.NO));
+        if (course.description() != null) {
+            document.add(new TextField(DESCRIPTION, course.description(), Field.Store.NO));
+        }
+        document.add(new TextField(LESSONS, String.join("\n", course.lessonTitles()), Field.Store.NO));
+        return document;
+    }
+
+    /**
+     * A matching course and its relevance score.
+     */
+    public record Hit(long id, float score) {
+    }
+}
@@ -53,5 +53,19 @@ public interface CourseService {
      */
     void updateCourseInfo(Long courseId, CreateCourseRequest request, org.springframework.web.multipart.MultipartFile file, User actor);
 
-    List<Course> searchCourses(String keyword, com.devforge.platform.course.domain.CourseLevel level);
+    /**
+     * One page of the published courses: newest first, or best match first when there is a keyword.
+     *
+     * @param after Cursor of the page, as returned in {@link CoursePage#nextCursor()}; null for the first page
+     * @param size Courses per page; null for the default, capped at the configured maximum
+     */
+    CoursePage searchCourses(String keyword, com.devforge.platform.course.domain.CourseLevel level, String after, Integer size);
+
+    /**
+     * A page of the catalog.
+     *
+     * @param nextCursor Cursor of the next page, or null on the last page
+     */
+    record CoursePage(List<Course> courses, String nextCursor, int size) {
+    }
 }
\ No newline at end of file
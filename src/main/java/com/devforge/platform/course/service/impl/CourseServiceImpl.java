@@ -4,24 +4,42 @@ import com.devforge.platform.course.domain.Course;
 import com.devforge.platform.course.domain.CourseLevel;
 import com.devforge.platform.course.domain.CourseStatus;
 import com.devforge.platform.course.repository.CourseRepository;
+import com.devforge.platform.course.service.CourseSearchIndex;
 import com.devforge.platform.course.service.CourseService;
 import com.devforge.platform.course.web.dto.CreateCourseRequest;
 import com.devforge.platform.user.domain.User;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CourseServiceImpl implements CourseService {
 
     private final CourseRepository courseRepository;
+    private final CourseSearchIndex courseSearchIndex;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public CourseServiceImpl(CourseRepository courseRepository,
+                             CourseSearchIndex courseSearchIndex,
+                             @Value("${course.catalog.page-size:12}") int defaultPageSize,
+                             @Value("${course.catalog.max-page-size:48}") int maxPageSize) {
+        this.courseRepository = courseRepository;
+        this.courseSearchIndex = courseSearchIndex;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
 
     @Override
     @Transactional
@@ -62,6 +80,7 @@ public class CourseServiceImpl implements CourseService {
 
         course.setStatus(status);
         courseRepository.save(course);
+        courseSearchIndex.reindex(courseId);
         log.info("Course id={} status updated to {} by user {}", courseId, status, actor.getEmail());
     }
 
@@ -109,11 +128,70 @@ public class CourseServiceImpl implements CourseService {
         }
 
         courseRepository.save(course);
+        courseSearchIndex.reindex(courseId);
     }
 
     @Override
-    public List<Course> searchCourses(String keyword, CourseLevel level) {
-        String searchTerm = (keyword != null && !keyword.isBlank()) ? keyword : null;
-        return courseRepository.searchCourses(searchTerm, level);
+    public CoursePage searchCourses(String keyword, CourseLevel level, String after, Integer size) {
+        int pageSize = Math.clamp(size == null ? defaultPageSize : size, 1, maxPageSize);
+        // One more than the page, to know whether there is a next one
+        Limit limit = Limit.of(pageSize + 1);
+
+        if (keyword == null || keyword.isBlank()) {
+            long beforeId = parseIdCursor(after);
+            List<Course> courses = level == null
+                    ? courseRepository.findByStatusAndIdLessThanOrderByIdDesc(CourseStatus.PUBLISHED, beforeId, limit)
+                    : courseRepository.findByStatusAndLevelAndIdLessThanOrderByIdDesc(CourseStatus.PUBLISHED, level, beforeId, limit);
+            if (courses.size() <= pageSize) {
+                return new CoursePage(courses, null, pageSize);
+            }
+            List<Course> page = courses.subList(0, pageSize);
+            return new CoursePage(page, String.valueOf(page.getLast().getId()), pageSize);
+        }
+
+        // Ranked hits from the index; loaded in one query, then put back in rank order
+        List<CourseSearchIndex.Hit> hits = courseSearchIndex.search(keyword, level, parseHitCursor(after), limit.max());
+        List<CourseSearchIndex.Hit> pageHits = hits.subList(0, Math.min(pageSize, hits.size()));
+        Map<Long, Course> courses = courseRepository.findAllByIdIn(pageHits.stream().map(CourseSearchIndex.Hit::id).toList()).stream()
+                .filter(course -> course.getStatus() == CourseStatus.PUBLISHED)
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        List<Course> page = pageHits.stream()
+                .map(hit -> courses.get(hit.id()))
+                .filter(Objects::nonNull)
+                .toList();
+        String next = hits.size() > pageSize ? hitCursor(pageHits.getLast()) : null;
+        return new CoursePage(page, next, pageSize);
+    }
+
+    /**
+     * Catalog cursors are the id of the last course shown. A malformed one restarts at the first page.
+     */
+    private static long parseIdCursor(String cursor) {
+        try {
+            return cursor == null || cursor.isBlank() ? Long.MAX_VALUE : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Search cursors are "score:id" of the last hit shown. A malformed one restarts at the first page.
+     */
+    private static CourseSearchIndex.Hit parseHitCursor(String cursor) {
+        int separator = cursor == null ? -1 : cursor.indexOf(':');
+        if (separator < 0) {
+            return null;
+        }
+        try {
+            return new CourseSearchIndex.Hit(Long.parseLong(cursor.substring(separator + 1)),
+                    Float.parseFloat(cursor.substring(0, separator)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String hitCursor(CourseSearchIndex.Hit hit) {
+        // Float.toString round-trips exactly, so the next page starts right after this hit
+        return hit.score() + ":" + hit.id();
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.devforge.platform.course.domain.Course;
 import com.devforge.platform.course.domain.Lesson;
 import com.devforge.platform.course.repository.CourseRepository;
 import com.devforge.platform.course.repository.LessonRepository;
+import com.devforge.platform.course.service.CourseSearchIndex;
 import com.devforge.platform.course.service.LessonService;
 import com.devforge.platform.course.web.dto.CreateLessonRequest;
 import com.devforge.platform.user.domain.User;
@@ -22,6 +23,7 @@ public class LessonServiceImpl implements LessonService {
 
     private final LessonRepository lessonRepository;
     private final CourseRepository courseRepository;
+    private final CourseSearchIndex courseSearchIndex;
 
     @Override
     @Transactional
@@ -43,7 +45,10 @@ public class LessonServiceImpl implements LessonService {
                 .build();
 
         log.info("Adding lesson '{}' to course id={}", request.title(), courseId);
-        return lessonRepository.save(lesson);
+        Lesson saved = lessonRepository.save(lesson);
+        course.touch();
+        courseSearchIndex.reindex(courseId);
+        return saved;
     }
 
     @Override
@@ -75,5 +80,7 @@ public class LessonServiceImpl implements LessonService {
         lesson.setOrderIndex(request.orderIndex());
         
         lessonRepository.save(lesson);
+        lesson.getCourse().touch();
+        courseSearchIndex.reindex(lesson.getCourse().getId());
     }
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import com.devforge.platform.course.service.LessonService;
 import com.devforge.platform.course.web.dto.CreateLessonRequest;
 import com.devforge.platform.practice.domain.Problem;
 import com.devforge.platform.practice.service.PracticeManagementService;
+import com.devforge.platform.practice.service.execution.TestDataStore;
 import com.devforge.platform.practice.web.dto.CreateProblemRequest;
 import com.devforge.platform.quiz.service.QuizManagementService;
 import com.devforge.platform.quiz.web.dto.CreateQuizRequest;
@@ -52,6 +53,7 @@ public class CourseController {
     private final ProblemRepository problemRepository;
     private final QuizQuestionRepository quizQuestionRepository;
     private final ReviewService reviewService;
+    private final TestDataStore testDataStore;
     
 
     // CONSTANTS for views
@@ -61,16 +63,22 @@ public class CourseController {
     private static final String CREATE_LESSON_VIEW = "course/create-lesson";
 
     /**
-     * Lists all published courses (Public catalog).
+     * Lists published courses (Public catalog), one page at a time.
+     * Pages are addressed by a cursor ({@code after}) rather than an offset.
      * Calculates which courses the current user is already enrolled in.
      */
     @GetMapping
     public String listCourses(@RequestParam(required = false) String keyword,
                               @RequestParam(required = false) com.devforge.platform.course.domain.CourseLevel level,
+                              @RequestParam(required = false) String after,
+                              @RequestParam(required = false) Integer size,
                               Model model, 
                               Principal principal) {
-        var courses = courseService.searchCourses(keyword, level);
-        model.addAttribute("courses", courses);
+        var page = courseService.searchCourses(keyword, level, after, size);
+        model.addAttribute("courses", page.courses());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("pageSize", page.size());
+        model.addAttribute("firstPage", after == null || after.isBlank());
         model.addAttribute("selectedKeyword", keyword);
         model.addAttribute("selectedLevel", level);
 
@@ -210,10 +218,18 @@ public class CourseController {
     @PreAuthorize("hasRole('TEACHER')")
     public String createPracticeProcess(@PathVariable Long courseId,
                                         @ModelAttribute("problem") CreateProblemRequest request,
-                                        Principal principal) {
+                                        Principal principal,
+                                        Model model) {
         
         User teacher = userService.getByEmail(principal.getName());
-        practiceManagementService.createPracticeLesson(courseId, request, teacher);
+        try {
+            practiceManagementService.createPracticeLesson(courseId, request, teacher);
+        } catch (IllegalArgumentException e) {
+            // Invalid signature or test data: show the form again with the message
+            model.addAttribute("error", e.getMessage());
+            model.addAttribute("courseId", courseId);
+            return "course/create-practice";
+        }
         
         return "redirect:/courses/my?practiceCreated";
     }
@@ -374,13 +390,24 @@ public class CourseController {
                 dto.setClassName(problem.getClassName());
                 dto.setMethodName(problem.getMethodName());
                 dto.setMethodSignature(problem.getMethodSignature());
+                dto.setHelperCode(problem.getHelperCode());
+                dto.setParallelTests(problem.isParallelTests());
+                dto.setPerformanceGraded(problem.isPerformanceGraded());
+                dto.setReferenceSolution(problem.getReferenceSolution());
+                dto.setMaxSlowdown(problem.getMaxSlowdown());
                 dto.setStarterCode(problem.getStarterCode());
                 
                 // Map tests
                 var testDtos = problem.getTestCases().stream()
-                    .map(t -> new com.devforge.platform.practice.web.dto.CreateTestCaseRequest(t.getInputData(), t.getExpectedOutput()))
+                    .filter(t -> t.getGenerator() == null)
+                    .map(t -> new com.devforge.platform.practice.web.dto.CreateTestCaseRequest(
+                            testDataStore.inputText(t), testDataStore.expectedText(t)))
                     .collect(java.util.stream.Collectors.toList());
                 dto.setTestCases(testDtos);
+                dto.setGenerators(problem.getTestCases().stream()
+                    .map(com.devforge.platform.practice.domain.TestCase::getGenerator)
+                    .filter(java.util.Objects::nonNull)
+                    .collect(Collectors.joining("\n")));
 
                 model.addAttribute("problem", dto);
                 return "course/create-practice";
@@ -425,9 +452,18 @@ public class CourseController {
     @PreAuthorize("hasRole('TEACHER')")
     public String updatePractice(@PathVariable Long courseId, @PathVariable Long lessonId,
                                  @ModelAttribute("problem") CreateProblemRequest request,
-                                 Principal principal) {
+                                 Principal principal,
+                                 Model model) {
         User user = userService.getByEmail(principal.getName());
-        practiceManagementService.updatePractice(lessonId, request, user);
+        try {
+            practiceManagementService.updatePractice(lessonId, request, user);
+        } catch (IllegalArgumentException e) {
+            model.addAttribute("error", e.getMessage());
+            model.addAttribute("courseId", courseId);
+            model.addAttribute("lessonId", lessonId);
+            model.addAttribute("isEdit", true);
+            return "course/create-practice";
+        }
         return "redirect:/courses/" + courseId + "?updated";
     }
 
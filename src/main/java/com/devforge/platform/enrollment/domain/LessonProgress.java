@@ -33,6 +33,23 @@ public class LessonProgress {
 
     private LocalDateTime completedAt;
 
+    // XP is awarded on the first completion only, not again when a revoked completion is earned back
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean xpAwarded = false;
+
+    // Practice lessons: the code that completed the lesson, kept to regrade it when the tests change
+    @Column(columnDefinition = "TEXT")
+    private String acceptedSource;
+
+    // Problem.testsVersion the accepted code last passed
+    private Integer acceptedTestsVersion;
+
+    // Regrades of the accepted code that gave no conclusive verdict since it was last stamped with a version
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int regradeAttempts = 0;
+
     @PrePersist
     protected void onComplete() {
         if (this.isCompleted && this.completedAt == null) {
@@ -1,7 +1,10 @@
 package com.devforge.platform.enrollment.repository;
 
 import com.devforge.platform.enrollment.domain.LessonProgress;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +18,17 @@ public interface LessonProgressRepository extends JpaRepository<LessonProgress,
     List<LessonProgress> findAllByEnrollmentId(Long enrollmentId);
     
     long countByEnrollmentIdAndIsCompletedTrue(Long enrollmentId);
+
+    /**
+     * Completions of the lesson whose accepted code has not been checked against the given tests version,
+     * in id order, starting after {@code afterId}.
+     */
+    @Query("SELECT lp.id FROM LessonProgress lp WHERE lp.lesson.id = :lessonId AND lp.isCompleted = true " +
+           "AND lp.acceptedSource IS NOT NULL AND lp.acceptedTestsVersion < :testsVersion AND lp.id > :afterId ORDER BY lp.id")
+    List<Long> findIdsToRegrade(@Param("lessonId") Long lessonId, @Param("testsVersion") int testsVersion,
+                                @Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT COUNT(lp) FROM LessonProgress lp WHERE lp.lesson.id = :lessonId AND lp.isCompleted = true " +
+           "AND lp.acceptedSource IS NOT NULL AND lp.acceptedTestsVersion < :testsVersion")
+    long countToRegrade(@Param("lessonId") Long lessonId, @Param("testsVersion") int testsVersion);
 }
\ No newline at end of file
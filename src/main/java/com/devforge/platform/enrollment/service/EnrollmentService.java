@@ -22,6 +22,18 @@ public interface EnrollmentService {
      */
     void markLessonAsComplete(User student, Long courseId, Long lessonId);
 
+    /**
+     * Marks a practice lesson as complete and keeps the code that passed, so it can be
+     * regraded when the tests change. A later accepted solution replaces it.
+     */
+    void markLessonAsComplete(User student, Long courseId, Long lessonId, String acceptedSource, int testsVersion);
+
+    /**
+     * Undoes a completion whose accepted code no longer passes, and recomputes the course progress.
+     * Earned XP is kept.
+     */
+    void revokeLessonCompletion(Long progressId);
+
     /**
      * Returns a list of lessons that students already complete.
      */
@@ -60,6 +60,12 @@ public class EnrollmentServiceImpl implements EnrollmentService {
     @Override
     @Transactional
     public void markLessonAsComplete(User student, Long courseId, Long lessonId) {
+        markLessonAsComplete(student, courseId, lessonId, null, 0);
+    }
+
+    @Override
+    @Transactional
+    public void markLessonAsComplete(User student, Long courseId, Long lessonId, String acceptedSource, int testsVersion) {
         Enrollment enrollment = enrollmentRepository.findAllByUserId(student.getId()).stream()
                 .filter(e -> e.getCourse().getId().equals(courseId))
                 .findFirst()
@@ -72,6 +78,11 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                 .findByEnrollmentIdAndLessonId(enrollment.getId(), lessonId);
 
         if (existingProgress.isPresent() && existingProgress.get().isCompleted()) {
+            if (acceptedSource != null) {
+                existingProgress.get().setAcceptedSource(acceptedSource);
+                existingProgress.get().setAcceptedTestsVersion(testsVersion);
+                lessonProgressRepository.save(existingProgress.get());
+            }
             return;
         }
         
@@ -86,10 +97,40 @@ public class EnrollmentServiceImpl implements EnrollmentService {
 
         progress.setCompleted(true);
         progress.setCompletedAt(LocalDateTime.now());
+        progress.setAcceptedSource(acceptedSource);
+        progress.setAcceptedTestsVersion(acceptedSource != null ? testsVersion : null);
+        boolean firstCompletion = !progress.isXpAwarded();
+        progress.setXpAwarded(true);
         lessonProgressRepository.save(progress);
 
-        gamificationService.awardXp(student, lesson.getType());
-        
+        if (firstCompletion) {
+            gamificationService.awardXp(student, lesson.getType());
+        }
+
+        updateProgress(enrollment, courseId);
+    }
+
+    @Override
+    @Transactional
+    public void revokeLessonCompletion(Long progressId) {
+        LessonProgress progress = lessonProgressRepository.findById(progressId)
+                .orElseThrow(() -> new IllegalArgumentException("Lesson progress not found"));
+        if (!progress.isCompleted()) {
+            return;
+        }
+
+        progress.setCompleted(false);
+        progress.setCompletedAt(null);
+        // The XP stays with the student, so completing the lesson again must not award it twice
+        progress.setXpAwarded(true);
+        lessonProgressRepository.save(progress);
+
+        Enrollment enrollment = progress.getEnrollment();
+        updateProgress(enrollment, enrollment.getCourse().getId());
+        log.info("Revoked completion of lesson {} for enrollment {}", progress.getLesson().getId(), enrollment.getId());
+    }
+
+    private void updateProgress(Enrollment enrollment, Long courseId) {
         long totalLessons = lessonRepository.countByCourseId(courseId); // Надо добавить этот метод в LessonRepository!
         long completedLessons = lessonProgressRepository.countByEnrollmentIdAndIsCompletedTrue(enrollment.getId());
 
@@ -99,6 +140,9 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         if (percent == 100) {
             enrollment.setStatus(EnrollmentStatus.COMPLETED);
             enrollment.setCompletedAt(LocalDateTime.now());
+        } else if (enrollment.getStatus() == EnrollmentStatus.COMPLETED) {
+            enrollment.setStatus(EnrollmentStatus.ACTIVE);
+            enrollment.setCompletedAt(null);
         }
         enrollmentRepository.save(enrollment);
     }
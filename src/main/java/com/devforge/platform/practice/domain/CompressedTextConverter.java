@@ -0,0 +1,93 @@
+package com.devforge.platform.practice.domain;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores text as deflated UTF-8. The first byte tells whether the rest is deflated:
+ * short texts that would not shrink are stored as they are.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    private static final byte PLAIN = 0;
+    private static final byte DEFLATED = 1;
+    private static final int MIN_DEFLATE_BYTES = 64;
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        if (text == null) {
+            return null;
+        }
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length >= MIN_DEFLATE_BYTES) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                return withHeader(DEFLATED, deflated);
+            }
+        }
+        return withHeader(PLAIN, raw);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] column) {
+        if (column == null || column.length == 0) {
+            return null;
+        }
+        if (column[0] == PLAIN) {
+            return new String(column, 1, column.length - 1, StandardCharsets.UTF_8);
+        }
+        return inflate(column);
+    }
+
+    private static byte[] withHeader(byte header, byte[] body) {
+        byte[] column = new byte[body.length + 1];
+        column[0] = header;
+        System.arraycopy(body, 0, column, 1, body.length);
+        return column;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        // Favour speed: rows are written at a much higher rate than they are read
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] column) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(column, 1, column.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(column.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated compressed text");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
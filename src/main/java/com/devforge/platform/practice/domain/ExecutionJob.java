@@ -0,0 +1,95 @@
+package com.devforge.platform.practice.domain;
+
+import com.devforge.platform.practice.runner.TestReport;
+import com.devforge.platform.practice.service.execution.ExecutionPriority;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Run waiting for, or running on, a runner node ({@code practice.queue.mode: database}).
+ * <p>
+ * Web nodes insert jobs; runner nodes claim them with {@code FOR UPDATE SKIP LOCKED}, so concurrent
+ * runners never claim the same job and never wait for each other. A claim is a lease: the runner
+ * extends it while the job runs, and a job whose lease expired (its runner crashed) is claimed again.
+ * Test reports are written as they arrive, so any web node can stream the progress.
+ */
+@Entity
+@Table(name = "execution_job", indexes = {
+    @Index(name = "idx_execution_job_claim", columnList = "status, priority, created_at"),
+    @Index(name = "idx_execution_job_finished", columnList = "finished_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExecutionJob {
+
+    public enum Status { QUEUED, RUNNING, FINISHED }
+
+    // The submission id shown to the client
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long problemId;
+
+    // Resolved when the job is queued, so the runner does not walk lazy associations
+    @Column(nullable = false)
+    private Long courseId;
+
+    @Column(nullable = false)
+    private Long lessonId;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(columnDefinition = "bytea", nullable = false)
+    private String sourceCode;
+
+    // Ordinal, so that ordering by priority puts the highest lane first
+    @Enumerated(EnumType.ORDINAL)
+    @Column(columnDefinition = "smallint", nullable = false)
+    private ExecutionPriority priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // Claims so far; a job that keeps killing its runner is given up
+    private int attempts;
+
+    // Runner node holding the lease
+    @Column(length = 100)
+    private String lockedBy;
+
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Convert(converter = TestReportsConverter.class)
+    @Column(columnDefinition = "bytea")
+    @Builder.Default
+    private List<TestReport> tests = new ArrayList<>();
+
+    // The response shown to the student, once finished
+    private Boolean resultSuccess;
+
+    @Column(length = 500)
+    private String resultMessage;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(columnDefinition = "bytea")
+    private String resultLogs;
+}
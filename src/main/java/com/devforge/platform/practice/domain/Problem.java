@@ -32,6 +32,10 @@ public class Problem {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String starterCode;
 
+    // Helper types (ListNode, TreeNode, ...) that solutions may use; compiled once, not with every Run
+    @Column(columnDefinition = "TEXT")
+    private String helperCode;
+
     // The name of method that we will call in test
     @Column(nullable = false)
     private String methodName;
@@ -40,6 +44,30 @@ public class Problem {
     @Column(nullable = false)
     private String methodSignature;
 
+    // Test cases are independent: run them concurrently, each on a fresh instance
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean parallelTests = false;
+
+    // Passing solutions must also be about as fast as the reference solution
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean performanceGraded = false;
+
+    // Teacher's solution with the same class name, the baseline of the performance check
+    @Column(columnDefinition = "TEXT")
+    private String referenceSolution;
+
+    // How many times slower than the reference a solution may be
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "double precision default 2.0")
+    private double maxSlowdown = 2.0;
+
+    // Bumped whenever the tests or the method definition change
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int testsVersion = 0;
+
     @OneToMany(mappedBy = "problem", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<TestCase> testCases;
 }
\ No newline at end of file
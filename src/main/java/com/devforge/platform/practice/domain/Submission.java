@@ -0,0 +1,71 @@
+package com.devforge.platform.practice.domain;
+
+import com.devforge.platform.practice.runner.Verdict;
+import com.devforge.platform.user.domain.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One Run of a student's code, kept for history and analysis.
+ * <p>
+ * Written in batches by {@code SubmissionRecorder}. Ids come from a sequence (not IDENTITY),
+ * so Hibernate can batch the inserts. Source and logs are stored deflated. The indexes serve
+ * "latest attempt of a student on a problem" and "all attempts on a problem, newest first";
+ * ids grow with time, so ordering by id is ordering by submission time.
+ */
+@Entity
+@Table(name = "submission", indexes = {
+    @Index(name = "idx_submission_problem_user", columnList = "problem_id, user_id, id"),
+    @Index(name = "idx_submission_problem", columnList = "problem_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Submission {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "submission_seq")
+    @SequenceGenerator(name = "submission_seq", sequenceName = "submission_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "problem_id", nullable = false)
+    private Problem problem;
+
+    // Problem.testsVersion the code was judged against
+    @Column(nullable = false)
+    private int testsVersion;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Verdict verdict;
+
+    // Tests run before the suite stopped, and how many of them passed
+    private int testsRun;
+
+    private int testsPassed;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(columnDefinition = "bytea", nullable = false)
+    private String sourceCode;
+
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(columnDefinition = "bytea")
+    private String logs;
+
+    @Convert(converter = TestTimingsConverter.class)
+    @Column(columnDefinition = "bytea")
+    private List<TestTiming> testTimings;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
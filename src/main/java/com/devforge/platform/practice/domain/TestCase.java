@@ -20,11 +20,29 @@ public class TestCase {
     @JoinColumn(name = "problem_id", nullable = false)
     private Problem problem;
 
-    // INPUT
+    // INPUT (a preview when inputHash is set)
     @Column(columnDefinition = "TEXT")
     private String inputData;
 
-    // OUTPUT
+    // INPUT, parsed and encoded by TestDataCodec when the problem is saved
+    @Column(columnDefinition = "bytea")
+    private byte[] encodedInput;
+
+    // Large data lives in the TestDataStore under these hashes instead of in the columns above and below
+    @Column(length = 64)
+    private String inputHash;
+
+    @Column(length = 64)
+    private String encodedInputHash;
+
+    @Column(length = 64)
+    private String expectedOutputHash;
+
+    // INPUT of a generated test: an InputGenerator line, expanded when the test runs (inputData is then null)
+    @Column(length = 500)
+    private String generator;
+
+    // OUTPUT (of the reference solution, for generated tests; a preview when expectedOutputHash is set)
     @Column(columnDefinition = "TEXT", nullable = false)
     private String expectedOutput;
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.devforge.platform.practice.domain;
+
+import com.devforge.platform.practice.runner.TestReport;
+import com.devforge.platform.practice.runner.Verdict;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs the test reports of a running job into one column. Strings are length-prefixed UTF-8
+ * (-1 for null), so they are not limited to 64 KB like {@code writeUTF}.
+ */
+@Converter
+public class TestReportsConverter implements AttributeConverter<List<TestReport>, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(List<TestReport> reports) {
+        if (reports == null) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * reports.size() + 4);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(reports.size());
+            for (TestReport report : reports) {
+                out.writeInt(report.index());
+                writeString(out, report.input());
+                out.writeByte(report.verdict().ordinal());
+                writeString(out, report.actual());
+                writeString(out, report.expected());
+                out.writeLong(report.wallMillis());
+                out.writeLong(report.cpuMillis());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public List<TestReport> convertToEntityAttribute(byte[] column) {
+        if (column == null || column.length == 0) {
+            return new ArrayList<>();
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(column))) {
+            int count = in.readInt();
+            List<TestReport> reports = new ArrayList<>(count);
+            Verdict[] verdicts = Verdict.values();
+            for (int i = 0; i < count; i++) {
+                int index = in.readInt();
+                String input = readString(in);
+                Verdict verdict = verdicts[in.readByte()];
+                String actual = readString(in);
+                String expected = readString(in);
+                reports.add(new TestReport(index, input, verdict, actual, expected, in.readLong(), in.readLong()));
+            }
+            return reports;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        return length < 0 ? null : new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+}
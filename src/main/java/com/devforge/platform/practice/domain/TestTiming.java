@@ -0,0 +1,11 @@
+package com.devforge.platform.practice.domain;
+
+import com.devforge.platform.practice.runner.Verdict;
+
+/**
+ * Outcome and timings of one test of a {@link Submission}, in test order.
+ *
+ * @param cpuMillis -1 if the JVM could not measure it.
+ */
+public record TestTiming(Verdict verdict, long wallMillis, long cpuMillis) {
+}
@@ -0,0 +1,51 @@
+package com.devforge.platform.practice.domain;
+
+import com.devforge.platform.practice.runner.Verdict;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs per-test timings into 9 bytes per test (verdict ordinal, wall ms, cpu ms),
+ * instead of a row per test.
+ */
+@Converter
+public class TestTimingsConverter implements AttributeConverter<List<TestTiming>, byte[]> {
+
+    private static final int BYTES_PER_TEST = 1 + 4 + 4;
+
+    @Override
+    public byte[] convertToDatabaseColumn(List<TestTiming> timings) {
+        if (timings == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(timings.size() * BYTES_PER_TEST);
+        for (TestTiming timing : timings) {
+            buffer.put((byte) timing.verdict().ordinal());
+            buffer.putInt(clamp(timing.wallMillis()));
+            buffer.putInt(clamp(timing.cpuMillis()));
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public List<TestTiming> convertToEntityAttribute(byte[] column) {
+        if (column == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(column);
+        List<TestTiming> timings = new ArrayList<>(column.length / BYTES_PER_TEST);
+        Verdict[] verdicts = Verdict.values();
+        while (buffer.remaining() >= BYTES_PER_TEST) {
+            timings.add(new TestTiming(verdicts[buffer.get()], buffer.getInt(), buffer.getInt()));
+        }
+        return timings;
+    }
+
+    private static int clamp(long millis) {
+        return (int) Math.max(-1, Math.min(Integer.MAX_VALUE, millis));
+    }
+}
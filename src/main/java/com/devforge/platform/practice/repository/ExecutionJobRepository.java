@@ -0,0 +1,61 @@
+package com.devforge.platform.practice.repository;
+
+import com.devforge.platform.practice.domain.ExecutionJob;
+import com.devforge.platform.practice.runner.TestReport;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ExecutionJobRepository extends JpaRepository<ExecutionJob, String> {
+
+    /**
+     * Locks up to {@code limit} jobs to claim: queued ones, and running ones whose runner stopped
+     * renewing the lease. Rows locked by another runner's claim are skipped, not waited for
+     * (Postgres and H2 both support {@code SKIP LOCKED}). Must run in a transaction.
+     */
+    @Query(value = "SELECT * FROM execution_job WHERE status = 'QUEUED' OR (status = 'RUNNING' AND lease_expires_at < :now) " +
+                   "ORDER BY priority, created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ExecutionJob> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * The job, locked until the transaction ends, so that finishing it cannot race with a new claim.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM ExecutionJob j WHERE j.id = :id")
+    Optional<ExecutionJob> findForUpdate(@Param("id") String id);
+
+    long countByStatus(ExecutionJob.Status status);
+
+    /**
+     * Renews the leases a runner still holds.
+     */
+    @Modifying
+    @Query("UPDATE ExecutionJob j SET j.leaseExpiresAt = :lease " +
+           "WHERE j.id IN :ids AND j.lockedBy = :node AND j.status = :status")
+    int extendLeases(@Param("ids") Collection<String> ids, @Param("node") String node,
+                     @Param("lease") LocalDateTime lease, @Param("status") ExecutionJob.Status status);
+
+    /**
+     * Stores the test reports of a job still running under the runner's lease. Sets only that
+     * column, so a late write cannot undo the job being finished or taken over.
+     */
+    @Modifying
+    @Query("UPDATE ExecutionJob j SET j.tests = :tests " +
+           "WHERE j.id = :id AND j.lockedBy = :node AND j.status = :status")
+    int updateTests(@Param("id") String id, @Param("node") String node, @Param("tests") List<TestReport> tests,
+                    @Param("status") ExecutionJob.Status status);
+
+    @Modifying
+    @Query("DELETE FROM ExecutionJob j WHERE j.status = :status AND j.finishedAt < :before")
+    int deleteFinishedBefore(@Param("status") ExecutionJob.Status status, @Param("before") LocalDateTime before);
+}
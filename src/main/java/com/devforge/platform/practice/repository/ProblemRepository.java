@@ -2,8 +2,10 @@ package com.devforge.platform.practice.repository;
 
 import com.devforge.platform.practice.domain.Problem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +14,11 @@ public interface ProblemRepository extends JpaRepository<Problem, Long> {
      * Finds the coding problem associated with a specific lesson.
      */
     Optional<Problem> findByLessonId(Long lessonId);
+
+    /**
+     * Problems with completions whose accepted code has not been checked against the current tests.
+     */
+    @Query("SELECT DISTINCT p.id FROM Problem p, LessonProgress lp WHERE lp.lesson = p.lesson AND lp.isCompleted = true " +
+           "AND lp.acceptedSource IS NOT NULL AND lp.acceptedTestsVersion < p.testsVersion")
+    List<Long> findIdsWithPendingRegrades();
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.devforge.platform.practice.repository;
+
+import com.devforge.platform.practice.domain.Submission;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SubmissionRepository extends JpaRepository<Submission, Long> {
+
+    /**
+     * The student's latest attempt on the problem (idx_submission_problem_user).
+     */
+    Optional<Submission> findFirstByProblemIdAndUserIdOrderByIdDesc(Long problemId, Long userId);
+
+    /**
+     * Attempts on a problem, newest first, one page at a time: pass the smallest id of the
+     * previous page (or {@code Long.MAX_VALUE}). Unlike OFFSET, stays fast on deep pages.
+     */
+    List<Submission> findByProblemIdAndIdLessThanOrderByIdDesc(Long problemId, Long beforeId, Limit limit);
+
+    /**
+     * The latest attempt of every student on the problem.
+     */
+    @Query("SELECT s FROM Submission s JOIN FETCH s.user WHERE s.problem.id = :problemId AND s.id = " +
+           "(SELECT MAX(s2.id) FROM Submission s2 WHERE s2.problem.id = :problemId AND s2.user.id = s.user.id)")
+    List<Submission> findLatestPerStudent(@Param("problemId") Long problemId);
+}
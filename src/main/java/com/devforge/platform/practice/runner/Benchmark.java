@@ -0,0 +1,252 @@
+package com.devforge.platform.practice.runner;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the speed of a passing submission with the teacher's reference solution.
+ * <p>
+ * Works like a small JMH run: both classes go through the same warm-up iterations, so that the
+ * JIT has compiled them, and then through measured iterations. One iteration calls the method
+ * once for every test; arguments are decoded before the clock starts. Iterations of the two
+ * classes alternate, the first of each pair switching sides, so that a change of load, GC or JIT
+ * state during the check affects both alike. The median time per iteration is compared, which is
+ * robust against a GC pause or a busy neighbour in one of them. The reference is measured anew
+ * with every check rather than cached, since a time measured under another load is no baseline.
+ * Bytes allocated per iteration are reported too, measured with {@code getCurrentThreadAllocatedBytes}.
+ * Output printed during the benchmark is discarded.
+ */
+public final class Benchmark {
+
+    // Below this, differences are timer noise rather than a worse algorithm
+    private static final long MIN_MEASURABLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    // Results of benchmarked calls end up here, so that the JIT cannot drop the calls
+    private static volatile long sink;
+
+    private Benchmark() {
+    }
+
+    /**
+     * Median time and allocation of one iteration.
+     */
+    private record Measurement(long medianNanos, long allocatedBytes) {
+    }
+
+    /**
+     * Tells why a class could not be measured.
+     */
+    private static final class Unmeasurable extends Exception {
+
+        Unmeasurable(String reason) {
+            super(reason, null, false, false);
+        }
+    }
+
+    /**
+     * One of the two classes being compared: its bound instance and the samples taken so far.
+     */
+    private static final class Subject {
+
+        private final ProblemHarness.Invoker invoker;
+        private final Object instance;
+        private final long[] nanos;
+        private final long[] allocated;
+
+        private Subject(ProblemHarness.Invoker invoker, Object instance, int measuredIterations) {
+            this.invoker = invoker;
+            this.instance = instance;
+            this.nanos = new long[measuredIterations];
+            this.allocated = new long[measuredIterations];
+        }
+
+        /**
+         * Binds the class and creates the instance that every iteration calls.
+         */
+        static Subject create(Class<?> type, ProblemHarness harness, BenchmarkSpec spec, Watchdog watchdog)
+                throws Unmeasurable {
+            ProblemHarness.Invoker invoker;
+            try {
+                invoker = harness.bind(type);
+            } catch (Exception e) {
+                throw new Unmeasurable(String.valueOf(e));
+            }
+            Watchdog.Outcome created = watchdog.call(invoker::newInstance);
+            if (created.timedOut() || created.error() != null) {
+                throw new Unmeasurable(created.timedOut() ? "time limit exceeded" : String.valueOf(created.error().getCause()));
+            }
+            return new Subject(invoker, created.value(), spec.measuredIterations());
+        }
+
+        /**
+         * Runs one iteration and records it if it is measured, i.e. {@code measured} is not negative.
+         */
+        void iterate(ProblemHarness harness, Watchdog watchdog, int measured) throws Unmeasurable {
+            Object[][] arguments = new Object[harness.size()][];
+            for (int index = 0; index < arguments.length; index++) {
+                arguments[index] = harness.arguments(index);
+            }
+            Watchdog.Outcome outcome = watchdog.call(() -> Benchmark.iterate(invoker, instance, arguments));
+            if (outcome.timedOut()) {
+                throw new Unmeasurable("time limit exceeded after " + outcome.wallMillis() + " ms");
+            }
+            if (outcome.error() != null) {
+                throw new Unmeasurable(String.valueOf(outcome.error().getCause()));
+            }
+            if (measured >= 0) {
+                long[] sample = (long[]) outcome.value();
+                nanos[measured] = sample[0];
+                allocated[measured] = sample[1];
+            }
+        }
+
+        Measurement result() {
+            return new Measurement(median(nanos), median(allocated));
+        }
+    }
+
+    /**
+     * Benchmarks both classes against the tests of the harness.
+     *
+     * @param solutionClass  The student's class, which already passed all tests.
+     * @param referenceClass The teacher's reference solution.
+     * @param harness        The prepared tests of the problem.
+     * @param spec           Iteration counts and the allowed slowdown.
+     * @param limits         Per-iteration limits; the whole comparison gets one submission budget.
+     * @param log            Capture for harness messages.
+     * @return {@link Verdict#PASSED}, or {@link Verdict#TOO_SLOW}. A reference solution that cannot be
+     * measured is reported in the log and does not fail the submission.
+     */
+    public static Verdict compare(Class<?> solutionClass, Class<?> referenceClass, ProblemHarness harness,
+                                  BenchmarkSpec spec, ExecutionLimits limits, LogCapture log) {
+        PrintStream out = log.harness();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limits.submissionWallMillis());
+
+        out.println("⚡ Performance check: median of " + spec.measuredIterations() + " runs over all tests, after "
+                + spec.warmupIterations() + " warm-up runs.");
+        OutputStream previous = OutputRouter.redirect(OutputStream.nullOutputStream());
+        Measurement reference;
+        Measurement solution;
+        try (Watchdog watchdog = new Watchdog(limits, deadline)) {
+            Subject referenceRuns;
+            try {
+                referenceRuns = Subject.create(referenceClass, harness, spec, watchdog);
+            } catch (Unmeasurable e) {
+                return referenceUnmeasured(e.getMessage(), out);
+            }
+            Subject solutionRuns;
+            try {
+                solutionRuns = Subject.create(solutionClass, harness, spec, watchdog);
+            } catch (Unmeasurable e) {
+                return tooSlow(e.getMessage(), out);
+            }
+
+            int iterations = spec.warmupIterations() + spec.measuredIterations();
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                int measured = iteration - spec.warmupIterations();
+                boolean referenceFirst = iteration % 2 == 0;
+                Subject first = referenceFirst ? referenceRuns : solutionRuns;
+                Subject second = referenceFirst ? solutionRuns : referenceRuns;
+                for (Subject subject : new Subject[]{first, second}) {
+                    try {
+                        subject.iterate(harness, watchdog, measured);
+                    } catch (Unmeasurable e) {
+                        return subject == referenceRuns ? referenceUnmeasured(e.getMessage(), out) : tooSlow(e.getMessage(), out);
+                    }
+                }
+            }
+            reference = referenceRuns.result();
+            solution = solutionRuns.result();
+        } finally {
+            OutputRouter.redirect(previous);
+        }
+
+        out.println("   Reference:     " + describe(reference));
+        out.println("   Your solution: " + describe(solution));
+
+        long allowed = Math.max((long) (reference.medianNanos() * spec.maxSlowdown()), MIN_MEASURABLE_NANOS);
+        double ratio = (double) solution.medianNanos() / Math.max(1, reference.medianNanos());
+        if (solution.medianNanos() > allowed) {
+            out.println(String.format(Locale.ROOT, "\n🐢 TOO SLOW: %.1fx the time of the reference solution (at most %.1fx allowed).",
+                    ratio, spec.maxSlowdown()));
+            return Verdict.TOO_SLOW;
+        }
+        out.println(String.format(Locale.ROOT, "✅ Fast enough: %.1fx the time of the reference solution.", ratio));
+        out.println();
+        return Verdict.PASSED;
+    }
+
+    private static Verdict referenceUnmeasured(String failure, PrintStream out) {
+        out.println("⚠ The reference solution could not be measured (" + failure
+                + "), so the performance check was skipped.");
+        return Verdict.PASSED;
+    }
+
+    private static Verdict tooSlow(String failure, PrintStream out) {
+        out.println("   Your solution: " + failure);
+        out.println("\n🐢 TOO SLOW: the benchmark did not finish within the limits.");
+        return Verdict.TOO_SLOW;
+    }
+
+    /**
+     * One iteration, on the watchdog's worker thread.
+     *
+     * @return Elapsed nanoseconds and allocated bytes (-1 if not measurable).
+     */
+    private static long[] iterate(ProblemHarness.Invoker invoker, Object instance, Object[][] arguments) throws Exception {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long consumed = 0;
+        for (Object[] args : arguments) {
+            consumed += invoker.invoke(instance, args);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+        sink = consumed;
+        return new long[]{elapsed, allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore};
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+
+    private static String describe(Measurement measurement) {
+        String time = String.format(Locale.ROOT, "%.3f ms", measurement.medianNanos() / 1_000_000.0);
+        if (measurement.allocatedBytes() < 0) {
+            return time;
+        }
+        return time + ", " + formatBytes(measurement.allocatedBytes()) + " allocated";
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024));
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            return threads;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,20 @@
+package com.devforge.platform.practice.runner;
+
+/**
+ * How a performance-graded problem compares a passing submission with the reference solution.
+ *
+ * @param warmupIterations   Unmeasured runs over all tests, so that both classes are JIT-compiled first.
+ * @param measuredIterations Runs whose median time is compared.
+ * @param maxSlowdown        How many times slower than the reference the submission may be.
+ */
+public record BenchmarkSpec(int warmupIterations, int measuredIterations, double maxSlowdown) {
+
+    public BenchmarkSpec {
+        warmupIterations = Math.max(0, warmupIterations);
+        measuredIterations = Math.max(1, measuredIterations);
+    }
+
+    public BenchmarkSpec withMaxSlowdown(double maxSlowdown) {
+        return new BenchmarkSpec(warmupIterations, measuredIterations, maxSlowdown);
+    }
+}
@@ -0,0 +1,39 @@
+package com.devforge.platform.practice.runner;
+
+import java.util.Map;
+
+/**
+ * Defines classes from in-memory bytecode. One loader is created per execution,
+ * so student classes (and their static state) can be unloaded once it finishes.
+ * <p>
+ * The loader is closed when its execution ends: it drops its bytecode and defines no more classes.
+ * The classes it already defined are unloaded at the next GC that finds the loader unreachable,
+ * which a thread left behind by the submission can prevent.
+ */
+public class BytecodeClassLoader extends ClassLoader implements AutoCloseable {
+
+    private volatile Map<String, byte[]> classes;
+
+    public BytecodeClassLoader(Map<String, byte[]> classes, ClassLoader parent) {
+        super(parent);
+        this.classes = classes;
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        Map<String, byte[]> current = classes;
+        if (current == null) throw new ClassNotFoundException(name + " (class loader closed)");
+        byte[] bytes = current.get(name);
+        if (bytes == null) return super.findClass(name);
+        return defineClass(name, bytes, 0, bytes.length);
+    }
+
+    public boolean isClosed() {
+        return classes == null;
+    }
+
+    @Override
+    public void close() {
+        classes = null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.devforge.platform.practice.runner;
+
+/**
+ * Time and output budget for running student code.
+ *
+ * @param testWallMillis       Wall-clock limit for a single test (and for the constructor).
+ * @param testCpuMillis        CPU-time limit for a single test.
+ * @param submissionWallMillis Wall-clock limit for the whole suite.
+ * @param maxOutputBytes       Bytes student code may print per submission.
+ * @param logHeadBytes         Bytes kept from the start of the log.
+ * @param logTailBytes         Bytes kept from the end of the log.
+ */
+public record ExecutionLimits(long testWallMillis, long testCpuMillis, long submissionWallMillis,
+                              long maxOutputBytes, int logHeadBytes, int logTailBytes) {}
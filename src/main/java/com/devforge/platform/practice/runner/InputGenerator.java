@@ -0,0 +1,213 @@
+package com.devforge.platform.practice.runner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded random test inputs, for tests too large to write by hand.
+ * <p>
+ * A generator is one line of {@code key=value} pairs, e.g. {@code seed=7 size=100000 min=-1000 max=1000}.
+ * Every parameter of the signature is filled according to its type:
+ * <ul>
+ *   <li>numbers: uniform in [{@code min}, {@code max}]; booleans: random</li>
+ *   <li>arrays and lists: {@code size} numbers</li>
+ *   <li>{@code String}: {@code length} characters from {@code alphabet} ({@code length} defaults to {@code size})</li>
+ *   <li>{@code String[]}: {@code size} strings of {@code length} characters (default 8)</li>
+ *   <li>{@code int[][]}: {@code size} rows of {@code cols} numbers ({@code cols} defaults to {@code size})</li>
+ * </ul>
+ * The same generator always produces the same input: {@link SplittableRandom} with the seed, and
+ * arguments filled in signature order. The input is written straight in {@link TestDataCodec} form.
+ */
+public final class InputGenerator {
+
+    // Keeps one generated input within a few tens of megabytes
+    private static final long MAX_VALUES = 5_000_000;
+    private static final String DEFAULT_ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+    /**
+     * A parsed generator line.
+     */
+    public record Spec(long seed, int size, int cols, int length, long min, long max, String alphabet) {}
+
+    private InputGenerator() {
+    }
+
+    /**
+     * Parses a generator and checks it against the signature.
+     *
+     * @throws IllegalArgumentException describing the first problem found.
+     */
+    public static Spec parse(List<TestDataCodec.Type> types, String text) {
+        long seed = 1;
+        long size = 10;
+        Long cols = null;
+        Long length = null;
+        long min = 0;
+        long max = 1000;
+        String alphabet = DEFAULT_ALPHABET;
+
+        for (String pair : text.trim().split("\\s+")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int eq = pair.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("expected key=value, got '" + pair + "'");
+            }
+            String key = pair.substring(0, eq).toLowerCase(Locale.ROOT);
+            String value = pair.substring(eq + 1);
+            switch (key) {
+                case "seed" -> seed = number(key, value);
+                case "size" -> size = number(key, value);
+                case "cols" -> cols = number(key, value);
+                case "length" -> length = number(key, value);
+                case "min" -> min = number(key, value);
+                case "max" -> max = number(key, value);
+                case "alphabet" -> alphabet = value;
+                default -> throw new IllegalArgumentException("unknown key '" + key
+                        + "'. Supported: seed, size, cols, length, min, max, alphabet");
+            }
+        }
+
+        // A length of -1 means "not set": the default depends on the type
+        Spec spec = new Spec(seed, count("size", size), count("cols", cols != null ? cols : size),
+                length != null ? count("length", length) : -1, min, max, alphabet);
+        check(types, spec);
+        return spec;
+    }
+
+    /**
+     * Produces the encoded arguments of a generator line.
+     *
+     * @throws IllegalArgumentException if the generator is invalid for the signature.
+     */
+    public static byte[] generate(List<TestDataCodec.Type> types, String text) {
+        Spec spec = parse(types, text);
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, 16 + 8L * valueCount(types, spec)));
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(TestDataCodec.FORMAT_VERSION);
+            int[] alphabet = spec.alphabet().codePoints().toArray();
+            for (TestDataCodec.Type type : types) {
+                write(type, spec, alphabet, random, out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void write(TestDataCodec.Type type, Spec spec, int[] alphabet, SplittableRandom random,
+                              DataOutputStream out) throws IOException {
+        switch (type) {
+            case INT -> out.writeInt((int) nextLong(random, spec));
+            case LONG -> out.writeLong(nextLong(random, spec));
+            case DOUBLE -> out.writeDouble(nextDouble(random, spec));
+            case BOOLEAN -> out.writeBoolean(random.nextBoolean());
+            case STRING -> writeString(out, randomString(random, alphabet, spec.length() >= 0 ? spec.length() : spec.size()));
+            case INT_ARRAY, INT_LIST -> writeInts(out, random, spec, spec.size());
+            case LONG_ARRAY -> {
+                out.writeInt(spec.size());
+                for (int i = 0; i < spec.size(); i++) out.writeLong(nextLong(random, spec));
+            }
+            case DOUBLE_ARRAY -> {
+                out.writeInt(spec.size());
+                for (int i = 0; i < spec.size(); i++) out.writeDouble(nextDouble(random, spec));
+            }
+            case STRING_ARRAY -> {
+                out.writeInt(spec.size());
+                for (int i = 0; i < spec.size(); i++) {
+                    writeString(out, randomString(random, alphabet, spec.length() >= 0 ? spec.length() : 8));
+                }
+            }
+            case INT_MATRIX -> {
+                out.writeInt(spec.size());
+                for (int i = 0; i < spec.size(); i++) writeInts(out, random, spec, spec.cols());
+            }
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, SplittableRandom random, Spec spec, int count) throws IOException {
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) out.writeInt((int) nextLong(random, spec));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String randomString(SplittableRandom random, int[] codePoints, int length) {
+        StringBuilder value = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            value.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+        }
+        return value.toString();
+    }
+
+    private static long nextLong(SplittableRandom random, Spec spec) {
+        if (spec.max() == Long.MAX_VALUE) {
+            // max + 1 would overflow
+            return spec.min() == Long.MIN_VALUE ? random.nextLong() : random.nextLong(spec.min() - 1, spec.max()) + 1;
+        }
+        return random.nextLong(spec.min(), spec.max() + 1);
+    }
+
+    private static double nextDouble(SplittableRandom random, Spec spec) {
+        return spec.min() == spec.max() ? spec.min() : random.nextDouble(spec.min(), spec.max());
+    }
+
+    private static void check(List<TestDataCodec.Type> types, Spec spec) {
+        if (spec.min() > spec.max()) {
+            throw new IllegalArgumentException("min must not be greater than max");
+        }
+        boolean intValues = types.stream().anyMatch(type -> type == TestDataCodec.Type.INT || type == TestDataCodec.Type.INT_ARRAY
+                || type == TestDataCodec.Type.INT_LIST || type == TestDataCodec.Type.INT_MATRIX);
+        if (intValues && (spec.min() < Integer.MIN_VALUE || spec.max() > Integer.MAX_VALUE)) {
+            throw new IllegalArgumentException("min and max must fit in an int");
+        }
+        if (spec.alphabet().isEmpty()) {
+            throw new IllegalArgumentException("alphabet must not be empty");
+        }
+        if (valueCount(types, spec) > MAX_VALUES) {
+            throw new IllegalArgumentException("the input would have more than " + MAX_VALUES + " values");
+        }
+    }
+
+    private static long valueCount(List<TestDataCodec.Type> types, Spec spec) {
+        long count = 0;
+        for (TestDataCodec.Type type : types) {
+            count += switch (type) {
+                case INT, LONG, DOUBLE, BOOLEAN -> 1;
+                case STRING -> spec.length() >= 0 ? spec.length() : spec.size();
+                case INT_ARRAY, INT_LIST, LONG_ARRAY, DOUBLE_ARRAY -> spec.size();
+                case STRING_ARRAY -> (long) spec.size() * (spec.length() >= 0 ? spec.length() : 8);
+                case INT_MATRIX -> (long) spec.size() * spec.cols();
+            };
+        }
+        return count;
+    }
+
+    private static long number(String key, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " '" + value + "' is not a number");
+        }
+    }
+
+    private static int count(String key, long value) {
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(key + " must be between 0 and " + Integer.MAX_VALUE);
+        }
+        return (int) value;
+    }
+}
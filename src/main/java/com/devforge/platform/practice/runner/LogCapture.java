@@ -0,0 +1,159 @@
+package com.devforge.platform.practice.runner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded capture of a submission's output.
+ * <p>
+ * Keeps the first {@code logHeadBytes} and the last {@code logTailBytes} bytes; everything in
+ * between is replaced by a truncation marker. Memory stays fixed no matter how much is printed.
+ * Student code writes through {@link #student()}, which counts towards {@code maxOutputBytes}
+ * and throws {@link OutputLimitExceeded} past it, so a runaway printer stops early. Harness
+ * messages go through {@link #harness()} and are never rejected.
+ */
+public final class LogCapture {
+
+    /**
+     * Thrown into student code that prints more than allowed. An {@link Error}, so that
+     * {@code catch (Exception e)} in student code does not swallow it.
+     */
+    public static final class OutputLimitExceeded extends Error {
+
+        OutputLimitExceeded(long maxOutputBytes) {
+            super("Output limit of " + maxOutputBytes + " bytes exceeded", null, false, false);
+        }
+    }
+
+    private final ExecutionLimits limits;
+    // Bytes printed by student code, shared by the parts of one submission
+    private final AtomicLong studentBytes;
+
+    private final byte[] head;
+    private int headSize;
+    private final byte[] tail;
+    private long tailWritten;
+    private volatile boolean limitExceeded;
+
+    private final PrintStream harness;
+    private final OutputStream student;
+
+    public LogCapture(ExecutionLimits limits) {
+        this(limits, new AtomicLong());
+    }
+
+    private LogCapture(ExecutionLimits limits, AtomicLong studentBytes) {
+        this.limits = limits;
+        this.studentBytes = studentBytes;
+        this.head = new byte[limits.logHeadBytes()];
+        this.tail = new byte[limits.logTailBytes()];
+        this.harness = new PrintStream(new Sink(false), true, StandardCharsets.UTF_8);
+        this.student = new Sink(true);
+    }
+
+    /**
+     * A separate capture for one parallel test, sharing this capture's output budget.
+     */
+    LogCapture part() {
+        return new LogCapture(limits, studentBytes);
+    }
+
+    /**
+     * Stream for harness messages.
+     */
+    public PrintStream harness() {
+        return harness;
+    }
+
+    /**
+     * Sink for student output, to route {@code System.out} to.
+     */
+    public OutputStream student() {
+        return student;
+    }
+
+    /**
+     * true once student code has printed more than the limit.
+     */
+    public boolean limitExceeded() {
+        return limitExceeded;
+    }
+
+    /**
+     * The retained output, with a marker in place of the dropped middle part.
+     */
+    public synchronized String contents() {
+        harness.flush();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(headSize + tail.length + 64);
+        out.write(head, 0, headSize);
+
+        int tailSize = (int) Math.min(tailWritten, tail.length);
+        int tailStart = (int) (tailWritten % Math.max(1, tail.length));
+        if (tailWritten > tail.length) {
+            long dropped = tailWritten - tail.length;
+            // Don't start the tail in the middle of a multi-byte character
+            int skip = 0;
+            while (skip < tailSize && (tail[(tailStart + skip) % tail.length] & 0xC0) == 0x80) {
+                skip++;
+            }
+            out.writeBytes(("\n... [" + (dropped + skip) + " bytes truncated] ...\n").getBytes(StandardCharsets.UTF_8));
+            writeRing(out, tailStart + skip, tailSize - skip);
+        } else {
+            writeRing(out, 0, tailSize);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private void writeRing(ByteArrayOutputStream out, int start, int length) {
+        for (int i = 0; i < length; i++) {
+            out.write(tail[(start + i) % tail.length]);
+        }
+    }
+
+    private synchronized void append(byte[] bytes, int offset, int length) {
+        int toHead = Math.min(length, head.length - headSize);
+        System.arraycopy(bytes, offset, head, headSize, toHead);
+        headSize += toHead;
+        offset += toHead;
+        length -= toHead;
+        if (length == 0 || tail.length == 0) {
+            tailWritten += length;
+            return;
+        }
+        // Only the last tail.length bytes of a large write can survive
+        if (length > tail.length) {
+            tailWritten += length - tail.length;
+            offset += length - tail.length;
+            length = tail.length;
+        }
+        for (int i = 0; i < length; i++) {
+            tail[(int) (tailWritten++ % tail.length)] = bytes[offset + i];
+        }
+    }
+
+    private final class Sink extends OutputStream {
+
+        private final boolean limited;
+
+        private Sink(boolean limited) {
+            this.limited = limited;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            if (limited && studentBytes.addAndGet(length) > limits.maxOutputBytes()) {
+                limitExceeded = true;
+                throw new OutputLimitExceeded(limits.maxOutputBytes());
+            }
+            append(bytes, offset, length);
+        }
+    }
+}
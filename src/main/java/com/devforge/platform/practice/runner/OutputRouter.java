@@ -0,0 +1,76 @@
+package com.devforge.platform.practice.runner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Per-thread routing for {@code System.out}.
+ * <p>
+ * The routing stream is installed once instead of swapping {@code System.out} around every run.
+ * Each thread writes to the sink it {@link #redirect(OutputStream) redirected} to, or to the
+ * fallback stream if it has none. Threads inherit the sink of the thread that started them,
+ * so output of threads spawned by student code ends up in the same place.
+ */
+public final class OutputRouter {
+
+    private static final InheritableThreadLocal<OutputStream> SINK = new InheritableThreadLocal<>();
+
+    private OutputRouter() {
+    }
+
+    /**
+     * Creates the stream to install as {@code System.out}. Captured logs end up in JSON
+     * responses, so it always encodes as UTF-8.
+     *
+     * @param fallback Target for threads without a sink.
+     */
+    public static PrintStream stream(OutputStream fallback) {
+        return new PrintStream(new RoutingOutputStream(fallback), true, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sends the current thread's output (and that of threads it starts from now on) to the sink.
+     *
+     * @return The previous sink, or null.
+     */
+    public static OutputStream redirect(OutputStream sink) {
+        OutputStream previous = SINK.get();
+        if (sink == null) {
+            SINK.remove();
+        } else {
+            SINK.set(sink);
+        }
+        return previous;
+    }
+
+    private static final class RoutingOutputStream extends OutputStream {
+
+        private final OutputStream fallback;
+
+        private RoutingOutputStream(OutputStream fallback) {
+            this.fallback = fallback;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target().flush();
+        }
+
+        private OutputStream target() {
+            OutputStream sink = SINK.get();
+            return sink != null ? sink : fallback;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.devforge.platform.practice.runner;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A problem's tests, prepared once and reused by every submission.
+ * <p>
+ * The signature and the test inputs are parsed when the harness is built, so running a test
+ * does not parse anything. Scalar arguments are decoded once and shared; arrays and lists are
+ * decoded from their {@link TestDataCodec encoded form} for every call, because student code
+ * may modify them. Generated inputs are produced on first use, so a harness that is only
+ * shipped to a forked runner never generates them; they are then only softly reachable, so the
+ * GC can reclaim them from idle harnesses and they are generated again when needed. Large inputs and expected outputs
+ * stored in files are {@link TestDataFiles memory-mapped} and read from there on every call, so
+ * they stay off the heap. Each submission {@link #bind(Class) binds} the harness
+ * to the student's class, which resolves the method to a {@link MethodHandle} once. Integer
+ * results are compared as numbers, without formatting them as strings.
+ */
+public final class ProblemHarness {
+
+    // Returned by Invoker.call when the result equals the expected output
+    static final Object MATCH = new Object();
+
+    private final String methodName;
+    private final String methodSignature;
+    private final List<TestDataCodec.Type> types;
+    private final Class<?>[] paramTypes;
+    private final IllegalArgumentException signatureError;
+    private final boolean mutableArguments;
+    private final List<TestInput> tests;
+    private final Object[][] arguments;
+    private final ByteBuffer[] encodedArguments;
+    private final ByteBuffer[] expectedFiles;
+    private final RuntimeException[] inputErrors;
+    private final String[] generators;
+    private final AtomicReferenceArray<SoftReference<byte[]>> generated;
+    private final long[] expectedIntegers;
+    private final boolean[] expectedIsInteger;
+
+    private ProblemHarness(String methodName, String methodSignature, List<TestInput> tests) {
+        this.methodName = methodName;
+        this.methodSignature = methodSignature;
+        List<TestDataCodec.Type> parsedTypes = List.of();
+        IllegalArgumentException parseError = null;
+        try {
+            parsedTypes = TestDataCodec.parseSignature(methodSignature);
+        } catch (IllegalArgumentException e) {
+            // Reported by bind(), as a runtime error of the submission
+            parseError = e;
+        }
+        this.types = parsedTypes;
+        this.signatureError = parseError;
+        this.paramTypes = types.stream().map(TestDataCodec.Type::javaType).toArray(Class<?>[]::new);
+        this.mutableArguments = types.stream().anyMatch(TestDataCodec.Type::isMutable);
+
+        int size = tests.size();
+        List<TestInput> encodedTests = new ArrayList<>(size);
+        this.arguments = new Object[size][];
+        this.encodedArguments = new ByteBuffer[size];
+        this.expectedFiles = new ByteBuffer[size];
+        this.inputErrors = new RuntimeException[size];
+        this.generators = new String[size];
+        this.generated = new AtomicReferenceArray<>(size);
+        this.expectedIntegers = new long[size];
+        this.expectedIsInteger = new boolean[size];
+
+        for (int i = 0; i < size; i++) {
+            TestInput test = tests.get(i);
+            if (test.expectedFile() != null) {
+                try {
+                    expectedFiles[i] = TestDataFiles.map(test.expectedFile());
+                } catch (RuntimeException e) {
+                    inputErrors[i] = e;
+                }
+            } else {
+                parseExpectedInteger(i, test.expectedOutput());
+            }
+            if (test.generator() != null) {
+                generators[i] = test.generator();
+                if (signatureError == null) {
+                    try {
+                        InputGenerator.parse(types, test.generator());
+                    } catch (IllegalArgumentException e) {
+                        inputErrors[i] = e;
+                    }
+                }
+                String shown = test.inputData() != null ? test.inputData() : "generated: " + test.generator();
+                encodedTests.add(new TestInput(shown, test.expectedOutput(), null, test.generator(), null, test.expectedFile()));
+                continue;
+            }
+            byte[] encoded = test.arguments();
+            try {
+                if (test.argumentsFile() != null) {
+                    encodedArguments[i] = TestDataFiles.map(test.argumentsFile()).asReadOnlyBuffer();
+                } else {
+                    if (encoded == null && signatureError == null) {
+                        // Saved before inputs were encoded on save
+                        encoded = TestDataCodec.encode(types, test.inputData());
+                    }
+                    encodedArguments[i] = encoded != null ? ByteBuffer.wrap(encoded).asReadOnlyBuffer() : null;
+                }
+                if (encodedArguments[i] != null && !mutableArguments) {
+                    arguments[i] = TestDataCodec.decode(types, encodedArguments[i].duplicate());
+                }
+            } catch (RuntimeException e) {
+                // Reported when the test runs, like any other failure of that test
+                inputErrors[i] = e;
+            }
+            encodedTests.add(new TestInput(test.inputData(), test.expectedOutput(), encoded, null,
+                    test.argumentsFile(), test.expectedFile()));
+        }
+        this.tests = List.copyOf(encodedTests);
+    }
+
+    /**
+     * Prepares the problem definition. Never fails: an unsupported signature or an invalid input
+     * is reported when the submission or the test runs.
+     *
+     * @param methodName      Method to call for every test.
+     * @param methodSignature Comma-separated parameter types.
+     * @param tests           Test cases, in order.
+     */
+    public static ProblemHarness build(String methodName, String methodSignature, List<TestInput> tests) {
+        return new ProblemHarness(methodName, methodSignature, tests);
+    }
+
+    public String methodName() {
+        return methodName;
+    }
+
+    public String methodSignature() {
+        return methodSignature;
+    }
+
+    /**
+     * The tests, each with its encoded arguments or the generator or file that provides them.
+     */
+    public List<TestInput> tests() {
+        return tests;
+    }
+
+    int size() {
+        return tests.size();
+    }
+
+    /**
+     * Approximate heap footprint: inline test data, counted twice for arguments decoded up front.
+     * Memory-mapped files are off the heap and not counted.
+     */
+    public long sizeInBytes() {
+        long size = 256;
+        for (int i = 0; i < tests.size(); i++) {
+            TestInput test = tests.get(i);
+            size += 64 + 2L * (length(test.inputData()) + length(test.expectedOutput()));
+            ByteBuffer encoded = encodedArguments[i];
+            if (encoded != null && !encoded.isDirect()) {
+                size += (arguments[i] != null ? 2L : 1L) * encoded.capacity();
+            }
+        }
+        return size;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    TestInput test(int index) {
+        return tests.get(index);
+    }
+
+    /**
+     * Makes the input of the test ready, generating it on first use.
+     *
+     * @return The error that makes the input unusable, or null.
+     */
+    RuntimeException prepare(int index) {
+        if (inputErrors[index] != null || generators[index] == null) {
+            return inputErrors[index];
+        }
+        try {
+            generatedInput(index);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    /**
+     * The encoded generated input of the test, produced again if the GC has reclaimed it.
+     * Generators are seeded, so every run sees the same input.
+     */
+    private byte[] generatedInput(int index) {
+        SoftReference<byte[]> reference = generated.get(index);
+        byte[] input = reference != null ? reference.get() : null;
+        if (input == null) {
+            input = InputGenerator.generate(types, generators[index]);
+            generated.set(index, new SoftReference<>(input));
+        }
+        return input;
+    }
+
+    /**
+     * Resolves the tested method and the no-arg constructor of the student's class.
+     */
+    Invoker bind(Class<?> solutionClass) throws ReflectiveOperationException {
+        if (signatureError != null) {
+            throw signatureError;
+        }
+        Method method = solutionClass.getMethod(methodName, paramTypes);
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+        MethodHandle target = lookup.unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+
+        Class<?> returnType = method.getReturnType();
+        boolean integral = returnType == int.class || returnType == long.class
+                || returnType == short.class || returnType == byte.class;
+        MethodHandle invoker = target.asSpreader(Object[].class, paramTypes.length)
+                .asType(MethodType.methodType(integral ? long.class : Object.class, Object.class, Object[].class));
+
+        MethodHandle constructor = lookup.findConstructor(solutionClass, MethodType.methodType(void.class))
+                .asType(MethodType.methodType(Object.class));
+        return new Invoker(constructor, invoker, integral);
+    }
+
+    /**
+     * The harness bound to one compiled submission.
+     */
+    final class Invoker {
+
+        private final MethodHandle constructor;
+        private final MethodHandle invoker;
+        private final boolean integral;
+
+        private Invoker(MethodHandle constructor, MethodHandle invoker, boolean integral) {
+            this.constructor = constructor;
+            this.invoker = invoker;
+            this.integral = integral;
+        }
+
+        Object newInstance() throws InvocationTargetException {
+            try {
+                return (Object) constructor.invokeExact();
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        /**
+         * Calls the student's method with the arguments of the test.
+         *
+         * @return {@link #MATCH} if the result equals the expected output, otherwise the formatted result.
+         * @throws InvocationTargetException wrapping anything the student's code threw.
+         */
+        Object call(Object instance, int index) throws InvocationTargetException {
+            Object[] args = arguments(index);
+            try {
+                if (integral) {
+                    long result = (long) invoker.invokeExact(instance, args);
+                    if (expectedIsInteger[index] && result == expectedIntegers[index]) {
+                        return MATCH;
+                    }
+                    String actual = Long.toString(result);
+                    return expectedFiles[index] != null && matches(index, actual) ? MATCH : actual;
+                }
+                Object result = (Object) invoker.invokeExact(instance, args);
+                String actual = TestDataCodec.format(result);
+                return matches(index, actual) ? MATCH : actual;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        /**
+         * Calls the method without checking the result, for benchmarks.
+         *
+         * @return A value derived from the result, for the caller to consume so that the call cannot be optimized away.
+         * @throws InvocationTargetException wrapping anything the code threw.
+         */
+        long invoke(Object instance, Object[] args) throws InvocationTargetException {
+            try {
+                if (integral) {
+                    return (long) invoker.invokeExact(instance, args);
+                }
+                return System.identityHashCode((Object) invoker.invokeExact(instance, args));
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+
+    /**
+     * Arguments for one call of a {@link #prepare(int) prepared} test: shared for scalars, freshly
+     * decoded for mutable types and generated inputs.
+     */
+    Object[] arguments(int index) {
+        if (!mutableArguments && arguments[index] != null) {
+            return arguments[index];
+        }
+        ByteBuffer encoded = encodedArguments[index];
+        return encoded != null ? TestDataCodec.decode(types, encoded.duplicate())
+                : TestDataCodec.decode(types, generatedInput(index));
+    }
+
+    private boolean matches(int index, String actual) {
+        ByteBuffer expected = expectedFiles[index];
+        if (expected == null) {
+            return actual.equals(tests.get(index).expectedOutput());
+        }
+        return expected.duplicate().equals(ByteBuffer.wrap(actual.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Only outputs in canonical form can equal a printed number ("05" or "+5" never do)
+    private void parseExpectedInteger(int index, String expected) {
+        try {
+            long value = Long.parseLong(expected);
+            if (Long.toString(value).equals(expected)) {
+                expectedIntegers[index] = value;
+                expectedIsInteger[index] = true;
+            }
+        } catch (NumberFormatException e) {
+            // Not an integer: an integral result can never match it
+        }
+    }
+}
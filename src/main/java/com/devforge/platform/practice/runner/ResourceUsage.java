@@ -0,0 +1,28 @@
+package com.devforge.platform.practice.runner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+
+/**
+ * Class metadata held by a JVM that runs student code. Every submission defines its classes
+ * in a new loader, so these grow when loaders are not unloaded.
+ *
+ * @param metaspaceBytes   Used Metaspace (-1 if the JVM has no Metaspace pool).
+ * @param loadedClasses    Classes currently loaded.
+ * @param abandonedThreads Student threads that exceeded a limit and are still running.
+ */
+public record ResourceUsage(long metaspaceBytes, int loadedClasses, int abandonedThreads) {
+
+    private static final MemoryPoolMXBean METASPACE = ManagementFactory.getMemoryPoolMXBeans().stream()
+            .filter(pool -> "Metaspace".equals(pool.getName()))
+            .findFirst()
+            .orElse(null);
+
+    /**
+     * The usage of the current JVM.
+     */
+    public static ResourceUsage current() {
+        return new ResourceUsage(METASPACE != null ? METASPACE.getUsage().getUsed() : -1,
+                ManagementFactory.getClassLoadingMXBean().getLoadedClassCount(), Watchdog.abandonedThreads());
+    }
+}
@@ -0,0 +1,40 @@
+package com.devforge.platform.practice.runner;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything a runner needs to test one submission: the compiled bytecode and the problem definition.
+ *
+ * @param classes         Class name -> bytecode of the student's compilation unit.
+ * @param className       Name of the class to instantiate (e.g. "Solution").
+ * @param methodName      Name of the method called for every test.
+ * @param methodSignature Comma-separated parameter types (e.g. "int, int").
+ * @param tests           Test cases, in order.
+ * @param limits          Time limits enforced by the runner.
+ * @param parallel        Run the tests concurrently, each on a fresh instance.
+ * @param referenceClasses Bytecode of the reference solution (same class name), or null for no performance check.
+ * @param benchmark       How to compare with the reference solution, or null for no performance check.
+ */
+public record RunRequest(Map<String, byte[]> classes,
+                         String className,
+                         String methodName,
+                         String methodSignature,
+                         List<TestInput> tests,
+                         ExecutionLimits limits,
+                         boolean parallel,
+                         Map<String, byte[]> referenceClasses,
+                         BenchmarkSpec benchmark) {
+
+    /**
+     * A request without a performance check.
+     */
+    public RunRequest(Map<String, byte[]> classes, String className, String methodName, String methodSignature,
+                      List<TestInput> tests, ExecutionLimits limits, boolean parallel) {
+        this(classes, className, methodName, methodSignature, tests, limits, parallel, null, null);
+    }
+
+    public boolean benchmarked() {
+        return referenceClasses != null && benchmark != null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.devforge.platform.practice.runner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Entry point of a forked runner JVM.
+ * <p>
+ * Reads {@link RunRequest}s from stdin and answers each on stdout with per-test reports
+ * followed by a {@link SuiteResult} and the {@link ResourceUsage} of this JVM, until stdin is closed. The real stdout is reserved for the protocol: {@code System.out}
+ * is routed into a {@link LogCapture} that collects the student's output for the current request.
+ */
+public final class RunnerMain {
+
+    private RunnerMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+
+        // Threads without a sink (none expected) print nowhere: stdout is the protocol channel
+        System.setOut(OutputRouter.stream(OutputStream.nullOutputStream()));
+
+        RunRequest request;
+        while ((request = RunnerProtocol.readRequest(in)) != null) {
+            LogCapture capture = new LogCapture(request.limits());
+            OutputRouter.redirect(capture.student());
+            Verdict verdict = run(request, capture, report -> {
+                try {
+                    RunnerProtocol.writeTestReport(out, report);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            RunnerProtocol.writeResult(out, new SuiteResult(verdict, capture.contents()), ResourceUsage.current());
+        }
+    }
+
+    private static Verdict run(RunRequest request, LogCapture capture, TestListener listener) {
+        // Platform loader as parent: student code does not see the runner classes
+        try (BytecodeClassLoader loader = new BytecodeClassLoader(request.classes(), ClassLoader.getPlatformClassLoader());
+             BytecodeClassLoader referenceLoader = request.benchmarked()
+                     ? new BytecodeClassLoader(request.referenceClasses(), ClassLoader.getPlatformClassLoader()) : null) {
+            Class<?> solutionClass;
+            Class<?> referenceClass = null;
+            try {
+                solutionClass = loader.loadClass(request.className());
+                if (referenceLoader != null) {
+                    // Same class name as the solution, so it needs a loader of its own
+                    referenceClass = referenceLoader.loadClass(request.className());
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                capture.harness().println("\n🔥 Runtime/Compilation Error: " + e);
+                return Verdict.RUNTIME_ERROR;
+            }
+            ProblemHarness harness = ProblemHarness.build(request.methodName(), request.methodSignature(), request.tests());
+            return SuiteRunner.run(solutionClass, harness, request.limits(), request.parallel(), capture, listener,
+                    referenceClass, request.benchmark());
+        }
+    }
+}
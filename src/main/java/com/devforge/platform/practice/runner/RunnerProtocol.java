@@ -0,0 +1,196 @@
+package com.devforge.platform.practice.runner;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Binary framing between the application and a forked runner JVM (over the child's stdin/stdout).
+ * <p>
+ * Request: classes, class/method names, signature, limits, parallel flag, tests, optional benchmark. Response: one {@link TestReport} frame
+ * per finished test, followed by a result frame with the suite verdict, logs and the runner's {@link ResourceUsage}.
+ * Strings are length-prefixed UTF-8, so they are not limited to 64 KB like {@code writeUTF}.
+ */
+public final class RunnerProtocol {
+
+    private static final byte TEST_FRAME = 'T';
+    private static final byte RESULT_FRAME = 'R';
+
+    private RunnerProtocol() {
+    }
+
+    public static void writeRequest(DataOutputStream out, RunRequest request) throws IOException {
+        writeClasses(out, request.classes());
+        writeString(out, request.className());
+        writeString(out, request.methodName());
+        writeString(out, request.methodSignature());
+        out.writeLong(request.limits().testWallMillis());
+        out.writeLong(request.limits().testCpuMillis());
+        out.writeLong(request.limits().submissionWallMillis());
+        out.writeLong(request.limits().maxOutputBytes());
+        out.writeInt(request.limits().logHeadBytes());
+        out.writeInt(request.limits().logTailBytes());
+        out.writeBoolean(request.parallel());
+
+        out.writeInt(request.tests().size());
+        for (TestInput test : request.tests()) {
+            writeString(out, test.inputData());
+            writeString(out, test.expectedOutput());
+            writeBytes(out, test.arguments());
+            writeString(out, test.generator());
+            writeString(out, test.argumentsFile());
+            writeString(out, test.expectedFile());
+        }
+
+        out.writeBoolean(request.benchmarked());
+        if (request.benchmarked()) {
+            writeClasses(out, request.referenceClasses());
+            out.writeInt(request.benchmark().warmupIterations());
+            out.writeInt(request.benchmark().measuredIterations());
+            out.writeDouble(request.benchmark().maxSlowdown());
+        }
+        out.flush();
+    }
+
+    /**
+     * @return The next request, or null when the parent closed the stream.
+     */
+    public static RunRequest readRequest(DataInputStream in) throws IOException {
+        int classCount;
+        try {
+            classCount = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+
+        Map<String, byte[]> classes = readClasses(in, classCount);
+        String className = readString(in);
+        String methodName = readString(in);
+        String methodSignature = readString(in);
+        ExecutionLimits limits = new ExecutionLimits(in.readLong(), in.readLong(), in.readLong(),
+                in.readLong(), in.readInt(), in.readInt());
+        boolean parallel = in.readBoolean();
+
+        int testCount = in.readInt();
+        List<TestInput> tests = new ArrayList<>(testCount);
+        for (int i = 0; i < testCount; i++) {
+            tests.add(new TestInput(readString(in), readString(in), readBytes(in), readString(in),
+                    readString(in), readString(in)));
+        }
+
+        Map<String, byte[]> referenceClasses = null;
+        BenchmarkSpec benchmark = null;
+        if (in.readBoolean()) {
+            referenceClasses = readClasses(in, in.readInt());
+            benchmark = new BenchmarkSpec(in.readInt(), in.readInt(), in.readDouble());
+        }
+        return new RunRequest(classes, className, methodName, methodSignature, tests, limits, parallel,
+                referenceClasses, benchmark);
+    }
+
+    public static void writeTestReport(DataOutputStream out, TestReport report) throws IOException {
+        out.writeByte(TEST_FRAME);
+        out.writeInt(report.index());
+        writeString(out, report.input());
+        out.writeByte(report.verdict().ordinal());
+        writeString(out, report.actual());
+        writeString(out, report.expected());
+        out.writeLong(report.wallMillis());
+        out.writeLong(report.cpuMillis());
+        out.flush();
+    }
+
+    public static void writeResult(DataOutputStream out, SuiteResult result, ResourceUsage usage) throws IOException {
+        out.writeByte(RESULT_FRAME);
+        out.writeByte(result.verdict().ordinal());
+        writeString(out, result.logs());
+        out.writeLong(usage.metaspaceBytes());
+        out.writeInt(usage.loadedClasses());
+        out.writeInt(usage.abandonedThreads());
+        out.flush();
+    }
+
+    /**
+     * Reads frames until the result arrives, passing test reports to the listener on the way.
+     */
+    public static SuiteResult readResult(DataInputStream in, TestListener listener,
+                                         Consumer<ResourceUsage> usage) throws IOException {
+        while (true) {
+            byte frame = in.readByte();
+            if (frame == TEST_FRAME) {
+                int index = in.readInt();
+                String input = readString(in);
+                Verdict verdict = Verdict.values()[in.readByte()];
+                String actual = readString(in);
+                String expected = readString(in);
+                listener.onTestFinished(new TestReport(index, input, verdict, actual, expected, in.readLong(), in.readLong()));
+            } else if (frame == RESULT_FRAME) {
+                Verdict verdict = Verdict.values()[in.readByte()];
+                SuiteResult result = new SuiteResult(verdict, readString(in));
+                usage.accept(new ResourceUsage(in.readLong(), in.readInt(), in.readInt()));
+                return result;
+            } else {
+                throw new IOException("Unexpected frame from runner: " + frame);
+            }
+        }
+    }
+
+    private static void writeClasses(DataOutputStream out, Map<String, byte[]> classes) throws IOException {
+        out.writeInt(classes.size());
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeInt(entry.getValue().length);
+            out.write(entry.getValue());
+        }
+    }
+
+    private static Map<String, byte[]> readClasses(DataInputStream in, int count) throws IOException {
+        Map<String, byte[]> classes = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = readString(in);
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            classes.put(name, bytes);
+        }
+        return classes;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = readBytes(in);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,14 @@
+package com.devforge.platform.practice.runner;
+
+/**
+ * Outcome of running a submission against its test suite.
+ *
+ * @param verdict {@link Verdict#PASSED} if every test passed, otherwise the verdict of the first failed test.
+ * @param logs    Harness messages interleaved with the student's console output.
+ */
+public record SuiteResult(Verdict verdict, String logs) {
+
+    public boolean success() {
+        return verdict == Verdict.PASSED;
+    }
+}
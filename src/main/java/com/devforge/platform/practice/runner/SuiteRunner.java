@@ -0,0 +1,270 @@
+package com.devforge.platform.practice.runner;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test harness: calls the student's method for every test case and compares the results.
+ * <p>
+ * Used both in the application JVM and inside forked runner JVMs, so this package
+ * must depend on the JDK only.
+ */
+public final class SuiteRunner {
+
+    // Tests of parallel suites running at once in this JVM, across all suites; fair, so suites take turns
+    private static final Semaphore PARALLEL_SLOTS =
+            new Semaphore(Math.max(1, Runtime.getRuntime().availableProcessors()), true);
+
+    private SuiteRunner() {
+    }
+
+    /**
+     * Runs the tests and stops at the first failure.
+     * Every call into student code runs under a {@link Watchdog}.
+     * <p>
+     * Sequential suites share one instance of the solution class. Parallel suites run every test
+     * on a fresh instance, at most one test per core at a time across all the parallel suites of the
+     * JVM (so that concurrent suites do not oversubscribe it), and still produce logs and reports
+     * in test order, as if the tests had run one after another. A test without an expected output
+     * passes with whatever the method returns, which is how the reference solution records them.
+     *
+     * @param solutionClass The compiled student class.
+     * @param harness       The prepared tests of the problem.
+     * @param limits        Per-test and per-submission time limits.
+     * @param parallel      Run independent tests concurrently.
+     * @param log           Capture for harness messages and student output.
+     * @param listener      Notified after every finished test.
+     * @return {@link Verdict#PASSED} if all tests pass, otherwise the verdict of the first failed test.
+     */
+    public static Verdict run(Class<?> solutionClass, ProblemHarness harness, ExecutionLimits limits,
+                              boolean parallel, LogCapture log, TestListener listener) {
+        return run(solutionClass, harness, limits, parallel, log, listener, null, null);
+    }
+
+    /**
+     * Runs the tests and, if they all pass, {@link Benchmark compares the speed} of the solution
+     * with the reference solution.
+     *
+     * @param referenceClass The teacher's reference solution, or null for no performance check.
+     * @param benchmark      How to compare, or null for no performance check.
+     * @return As {@link #run(Class, ProblemHarness, ExecutionLimits, boolean, LogCapture, TestListener)},
+     * or {@link Verdict#TOO_SLOW}.
+     */
+    public static Verdict run(Class<?> solutionClass, ProblemHarness harness, ExecutionLimits limits,
+                              boolean parallel, LogCapture log, TestListener listener,
+                              Class<?> referenceClass, BenchmarkSpec benchmark) {
+        Verdict verdict = runTests(solutionClass, harness, limits, parallel, log, listener);
+        if (verdict != Verdict.PASSED || referenceClass == null || benchmark == null) {
+            return verdict;
+        }
+        return Benchmark.compare(solutionClass, referenceClass, harness, benchmark, limits, log);
+    }
+
+    private static Verdict runTests(Class<?> solutionClass, ProblemHarness harness, ExecutionLimits limits,
+                                    boolean parallel, LogCapture log, TestListener listener) {
+        PrintStream out = log.harness();
+        long submissionDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limits.submissionWallMillis());
+
+        ProblemHarness.Invoker invoker;
+        try {
+            invoker = harness.bind(solutionClass);
+        } catch (Exception e) {
+            return runtimeError(e, out);
+        }
+
+        if (parallel && harness.size() > 1) {
+            return runParallel(harness, invoker, limits, submissionDeadline, log, listener);
+        }
+
+        try (Watchdog watchdog = new Watchdog(limits, submissionDeadline)) {
+            Watchdog.Outcome created = watchdog.call(invoker::newInstance);
+            if (created.timedOut()) {
+                return timeLimitExceeded(created, limits, out);
+            }
+            if (log.limitExceeded() || isOutputLimit(created.error())) {
+                return outputLimitExceeded(limits, out);
+            }
+            if (created.error() != null) {
+                return runtimeError(created.error(), out);
+            }
+            Object instance = created.value();
+
+            for (int index = 0; index < harness.size(); index++) {
+                int test = index;
+                TestReport report = runTest(harness, index, () -> invoker.call(instance, test), watchdog, limits, log);
+                listener.onTestFinished(report);
+                if (report.verdict() != Verdict.PASSED) {
+                    return report.verdict();
+                }
+            }
+            return Verdict.PASSED;
+        }
+    }
+
+    /**
+     * Runs the tests on virtual threads, each writing to its own log buffer. The buffers and
+     * reports are published in test order; once a test fails, the tests after it are cancelled.
+     */
+    private static Verdict runParallel(ProblemHarness harness, ProblemHarness.Invoker invoker,
+                                       ExecutionLimits limits, long submissionDeadline,
+                                       LogCapture log, TestListener listener) {
+        int size = harness.size();
+        // Lowest index of a failed test so far; tests after it are not started
+        AtomicInteger firstFailure = new AtomicInteger(size);
+        List<LogCapture> parts = new ArrayList<>(size);
+        List<Future<TestReport>> results = new ArrayList<>(size);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < size; i++) {
+                int index = i;
+                LogCapture part = log.part();
+                parts.add(part);
+                results.add(executor.submit(() -> {
+                    PARALLEL_SLOTS.acquire();
+                    try {
+                        if (index > firstFailure.get()) {
+                            return null;
+                        }
+                        // The watchdog's worker thread inherits this sink
+                        OutputStream previous = OutputRouter.redirect(part.student());
+                        try (Watchdog watchdog = new Watchdog(limits, submissionDeadline)) {
+                            TestReport report = runTest(harness, index,
+                                    () -> invoker.call(invoker.newInstance(), index), watchdog, limits, part);
+                            if (report.verdict() != Verdict.PASSED) {
+                                firstFailure.accumulateAndGet(index, Math::min);
+                            }
+                            return report;
+                        } finally {
+                            OutputRouter.redirect(previous);
+                        }
+                    } finally {
+                        PARALLEL_SLOTS.release();
+                    }
+                }));
+            }
+
+            for (int index = 0; index < size; index++) {
+                TestReport report = await(results.get(index), index, harness.test(index));
+                log.harness().print(parts.get(index).contents());
+                listener.onTestFinished(report);
+                if (report.verdict() != Verdict.PASSED) {
+                    results.forEach(result -> result.cancel(true));
+                    return report.verdict();
+                }
+            }
+            return Verdict.PASSED;
+        }
+    }
+
+    private static TestReport await(Future<TestReport> result, int index, TestInput test) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new TestReport(index, test.inputData(), Verdict.RUNTIME_ERROR,
+                    "Interrupted", test.expectedOutput(), 0, 0);
+        } catch (ExecutionException | CancellationException e) {
+            return new TestReport(index, test.inputData(), Verdict.RUNTIME_ERROR,
+                    String.valueOf(e.getCause()), test.expectedOutput(), 0, 0);
+        }
+    }
+
+    /**
+     * Runs one test and prints its log: input, result and outcome.
+     */
+    private static TestReport runTest(ProblemHarness harness, int index, Callable<Object> call,
+                                      Watchdog watchdog, ExecutionLimits limits, LogCapture log) {
+        PrintStream out = log.harness();
+        TestInput test = harness.test(index);
+        out.println("--- Test Input: [" + test.inputData() + "] ---");
+
+        // Generated inputs are produced here, outside of the student's time limit
+        RuntimeException inputError = harness.prepare(index);
+        if (inputError != null) {
+            runtimeError(inputError, out);
+            return new TestReport(index, test.inputData(), Verdict.RUNTIME_ERROR,
+                    String.valueOf(inputError), test.expectedOutput(), 0, 0);
+        }
+
+        Watchdog.Outcome outcome = watchdog.call(call);
+
+        if (outcome.timedOut()) {
+            timeLimitExceeded(outcome, limits, out);
+            return new TestReport(index, test.inputData(), Verdict.TIME_LIMIT_EXCEEDED,
+                    null, test.expectedOutput(), outcome.wallMillis(), outcome.cpuMillis());
+        }
+        if (log.limitExceeded() || isOutputLimit(outcome.error())) {
+            outputLimitExceeded(limits, out);
+            return new TestReport(index, test.inputData(), Verdict.OUTPUT_LIMIT_EXCEEDED,
+                    null, test.expectedOutput(), outcome.wallMillis(), outcome.cpuMillis());
+        }
+        if (outcome.error() != null) {
+            runtimeError(outcome.error(), out);
+            return new TestReport(index, test.inputData(), Verdict.RUNTIME_ERROR,
+                    String.valueOf(outcome.error().getCause()), test.expectedOutput(), outcome.wallMillis(), outcome.cpuMillis());
+        }
+
+        // A matching result prints exactly as the expected output, so reuse that string
+        boolean passed = outcome.value() == ProblemHarness.MATCH;
+        String actual = passed ? test.expectedOutput() : (String) outcome.value();
+        out.print("Result: ");
+        out.println(actual);
+
+        if (test.expectedOutput() == null) {
+            // Run of the reference solution that produces the expected output
+            out.println("📝 RECORDED as the expected output");
+            out.println();
+            return new TestReport(index, test.inputData(), Verdict.PASSED,
+                    actual, null, outcome.wallMillis(), outcome.cpuMillis());
+        }
+
+        if (!passed) {
+            out.println("❌ FAILED. Expected: " + test.expectedOutput());
+            return new TestReport(index, test.inputData(), Verdict.WRONG_ANSWER,
+                    actual, test.expectedOutput(), outcome.wallMillis(), outcome.cpuMillis());
+        }
+        out.println("✅ PASSED");
+        out.println();
+        return new TestReport(index, test.inputData(), Verdict.PASSED,
+                actual, test.expectedOutput(), outcome.wallMillis(), outcome.cpuMillis());
+    }
+
+    private static Verdict outputLimitExceeded(ExecutionLimits limits, PrintStream out) {
+        out.println("\n📛 OUTPUT LIMIT EXCEEDED: more than " + limits.maxOutputBytes() + " bytes printed.");
+        return Verdict.OUTPUT_LIMIT_EXCEEDED;
+    }
+
+    private static boolean isOutputLimit(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof LogCapture.OutputLimitExceeded) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Verdict runtimeError(Throwable e, PrintStream out) {
+        e.printStackTrace();
+        out.println("\n🔥 Runtime/Compilation Error: " + (e.getCause() != null ? e.getCause() : e));
+        return Verdict.RUNTIME_ERROR;
+    }
+
+    private static Verdict timeLimitExceeded(Watchdog.Outcome outcome, ExecutionLimits limits, PrintStream out) {
+        out.println("\n⏱ TIME LIMIT EXCEEDED after " + outcome.wallMillis() + " ms"
+                + (outcome.cpuMillis() >= 0 ? " (CPU " + outcome.cpuMillis() + " ms)" : "")
+                + ". Limits: " + limits.testWallMillis() + " ms per test, " + limits.testCpuMillis() + " ms CPU, "
+                + limits.submissionWallMillis() + " ms per submission.");
+        return Verdict.TIME_LIMIT_EXCEEDED;
+    }
+}
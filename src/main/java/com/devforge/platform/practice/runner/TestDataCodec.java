@@ -0,0 +1,455 @@
+package com.devforge.platform.practice.runner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Typed test data: parses the signature and the test inputs teachers write, encodes them
+ * into a compact binary form for storage, and decodes that form into method arguments.
+ * <p>
+ * Inputs are comma-separated values matching the signature. Arrays and lists are written in
+ * brackets ({@code [1, 2, 3]}, {@code [[1, 2], [3]]}), strings may be quoted to contain commas
+ * or brackets ({@code "a, b"}, with {@code \"}, {@code \\}, {@code \n} and {@code \t} escapes).
+ * Unquoted strings are trimmed, as before typed inputs existed.
+ * <p>
+ * Binary form: a version byte, then the arguments in order. Numbers are big-endian, strings are
+ * a length followed by UTF-8 bytes, arrays and lists are a length followed by their elements.
+ */
+public final class TestDataCodec {
+
+    static final byte FORMAT_VERSION = 1;
+
+    /**
+     * Parameter types a problem signature can use.
+     */
+    public enum Type {
+        INT("int", int.class),
+        LONG("long", long.class),
+        DOUBLE("double", double.class),
+        BOOLEAN("boolean", boolean.class),
+        STRING("String", String.class),
+        INT_ARRAY("int[]", int[].class),
+        LONG_ARRAY("long[]", long[].class),
+        DOUBLE_ARRAY("double[]", double[].class),
+        STRING_ARRAY("String[]", String[].class),
+        INT_MATRIX("int[][]", int[][].class),
+        INT_LIST("List<Integer>", List.class);
+
+        private final String signatureName;
+        private final Class<?> javaType;
+
+        Type(String signatureName, Class<?> javaType) {
+            this.signatureName = signatureName;
+            this.javaType = javaType;
+        }
+
+        public String signatureName() {
+            return signatureName;
+        }
+
+        public Class<?> javaType() {
+            return javaType;
+        }
+
+        /**
+         * Arrays and lists can be modified by student code, so they are decoded for every call.
+         */
+        boolean isMutable() {
+            return !javaType.isPrimitive() && javaType != String.class;
+        }
+
+        static Type of(String name) {
+            for (Type type : values()) {
+                if (type.signatureName.equals(name)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported type '" + name + "'. Supported: "
+                    + String.join(", ", Arrays.stream(values()).map(Type::signatureName).toList()));
+        }
+    }
+
+    private TestDataCodec() {
+    }
+
+    /**
+     * Parses a signature such as {@code "int[], List<Integer>, String"}.
+     *
+     * @throws IllegalArgumentException if a type is not supported.
+     */
+    public static List<Type> parseSignature(String signature) {
+        List<Type> types = new ArrayList<>();
+        if (signature == null || signature.isBlank()) {
+            return types;
+        }
+        for (String part : splitTopLevel(signature)) {
+            types.add(Type.of(part.replaceAll("\\s+", "")));
+        }
+        return types;
+    }
+
+    /**
+     * Parses and validates a test input and encodes it.
+     *
+     * @throws IllegalArgumentException describing the first problem found in the input.
+     */
+    public static byte[] encode(List<Type> types, String inputData) {
+        Parser parser = new Parser(inputData == null ? "" : inputData);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(FORMAT_VERSION);
+            for (int i = 0; i < types.size(); i++) {
+                parser.argument = i + 1;
+                if (i > 0) {
+                    parser.expect(',', "',' before argument " + (i + 1) + " (" + types.get(i).signatureName() + ")");
+                }
+                parser.write(types.get(i), out);
+            }
+            parser.expectEnd(types.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes arguments straight from the encoded bytes into fresh objects.
+     */
+    public static Object[] decode(List<Type> types, byte[] data) {
+        return decode(types, ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Decodes arguments from encoded bytes, e.g. a {@link TestDataFiles mapped file}. Reads from
+     * the buffer's position on, and moves it.
+     */
+    public static Object[] decode(List<Type> types, ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException("Unknown test data format: " + version);
+        }
+        Object[] args = new Object[types.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = read(types.get(i), buffer);
+        }
+        return args;
+    }
+
+    /**
+     * Formats a result the way expected outputs are written: arrays as {@code [1, 2, 3]}.
+     */
+    public static String format(Object value) {
+        if (value instanceof int[] array) return Arrays.toString(array);
+        if (value instanceof long[] array) return Arrays.toString(array);
+        if (value instanceof double[] array) return Arrays.toString(array);
+        if (value instanceof boolean[] array) return Arrays.toString(array);
+        if (value instanceof char[] array) return Arrays.toString(array);
+        if (value instanceof Object[] array) return Arrays.deepToString(array);
+        return String.valueOf(value);
+    }
+
+    private static Object read(Type type, ByteBuffer buffer) {
+        return switch (type) {
+            case INT -> buffer.getInt();
+            case LONG -> buffer.getLong();
+            case DOUBLE -> buffer.getDouble();
+            case BOOLEAN -> buffer.get() != 0;
+            case STRING -> readString(buffer);
+            case INT_ARRAY -> readInts(buffer);
+            case LONG_ARRAY -> {
+                long[] array = new long[buffer.getInt()];
+                buffer.asLongBuffer().get(array);
+                buffer.position(buffer.position() + array.length * Long.BYTES);
+                yield array;
+            }
+            case DOUBLE_ARRAY -> {
+                double[] array = new double[buffer.getInt()];
+                buffer.asDoubleBuffer().get(array);
+                buffer.position(buffer.position() + array.length * Double.BYTES);
+                yield array;
+            }
+            case STRING_ARRAY -> {
+                String[] array = new String[buffer.getInt()];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = readString(buffer);
+                }
+                yield array;
+            }
+            case INT_MATRIX -> {
+                int[][] matrix = new int[buffer.getInt()][];
+                for (int i = 0; i < matrix.length; i++) {
+                    matrix[i] = readInts(buffer);
+                }
+                yield matrix;
+            }
+            case INT_LIST -> {
+                int size = buffer.getInt();
+                List<Integer> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(buffer.getInt());
+                }
+                yield list;
+            }
+        };
+    }
+
+    private static int[] readInts(ByteBuffer buffer) {
+        int[] array = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(array);
+        buffer.position(buffer.position() + array.length * Integer.BYTES);
+        return array;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (!buffer.hasArray()) {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    // Splits on commas outside of <...>, so "List<Integer>, int" has two parts
+    private static List<String> splitTopLevel(String signature) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < signature.length(); i++) {
+            char c = signature.charAt(i);
+            if (c == '<') depth++;
+            else if (c == '>') depth--;
+            else if (c == ',' && depth == 0) {
+                parts.add(signature.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        parts.add(signature.substring(start).trim());
+        return parts;
+    }
+
+    /**
+     * Recursive-descent parser over the text of one test input.
+     */
+    private static final class Parser {
+
+        private final String text;
+        private int pos;
+        private int argument;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        void write(Type type, DataOutputStream out) throws IOException {
+            switch (type) {
+                case INT -> out.writeInt(parseInt());
+                case LONG -> out.writeLong(parseLong());
+                case DOUBLE -> out.writeDouble(parseDouble());
+                case BOOLEAN -> out.writeBoolean(parseBoolean());
+                case STRING -> writeString(out, parseString(false));
+                case INT_ARRAY, INT_LIST -> writeInts(out);
+                case LONG_ARRAY -> {
+                    List<Long> values = new ArrayList<>();
+                    parseList(() -> values.add(parseLong()));
+                    out.writeInt(values.size());
+                    for (long value : values) out.writeLong(value);
+                }
+                case DOUBLE_ARRAY -> {
+                    List<Double> values = new ArrayList<>();
+                    parseList(() -> values.add(parseDouble()));
+                    out.writeInt(values.size());
+                    for (double value : values) out.writeDouble(value);
+                }
+                case STRING_ARRAY -> {
+                    List<String> values = new ArrayList<>();
+                    parseList(() -> values.add(parseString(true)));
+                    out.writeInt(values.size());
+                    for (String value : values) writeString(out, value);
+                }
+                case INT_MATRIX -> {
+                    List<int[]> rows = new ArrayList<>();
+                    parseList(() -> rows.add(parseIntArray()));
+                    out.writeInt(rows.size());
+                    for (int[] row : rows) {
+                        out.writeInt(row.length);
+                        for (int value : row) out.writeInt(value);
+                    }
+                }
+            }
+        }
+
+        private void writeInts(DataOutputStream out) throws IOException {
+            int[] values = parseIntArray();
+            out.writeInt(values.length);
+            for (int value : values) out.writeInt(value);
+        }
+
+        private int[] parseIntArray() {
+            IntBuilder values = new IntBuilder();
+            parseList(() -> values.add(parseInt()));
+            return values.toArray();
+        }
+
+        private void parseList(Runnable element) {
+            expect('[', "'['");
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return;
+            }
+            while (true) {
+                element.run();
+                skipWhitespace();
+                char c = peek();
+                pos++;
+                if (c == ']') return;
+                if (c != ',') throw error("expected ',' or ']'");
+            }
+        }
+
+        private int parseInt() {
+            String token = token();
+            try {
+                return Integer.parseInt(token);
+            } catch (NumberFormatException e) {
+                throw error("'" + token + "' is not an int");
+            }
+        }
+
+        private long parseLong() {
+            String token = token();
+            try {
+                return Long.parseLong(token);
+            } catch (NumberFormatException e) {
+                throw error("'" + token + "' is not a long");
+            }
+        }
+
+        private double parseDouble() {
+            String token = token();
+            try {
+                return Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw error("'" + token + "' is not a double");
+            }
+        }
+
+        private boolean parseBoolean() {
+            String token = token();
+            if (token.equals("true")) return true;
+            if (token.equals("false")) return false;
+            throw error("'" + token + "' is not a boolean");
+        }
+
+        private String parseString(boolean inList) {
+            skipWhitespace();
+            if (peek() == '"') {
+                return quoted();
+            }
+            int start = pos;
+            while (pos < text.length() && text.charAt(pos) != ',' && !(inList && text.charAt(pos) == ']')) {
+                pos++;
+            }
+            return text.substring(start, pos).trim();
+        }
+
+        private String quoted() {
+            pos++;
+            StringBuilder value = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') return value.toString();
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos == text.length()) break;
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n' -> value.append('\n');
+                    case 't' -> value.append('\t');
+                    case '"', '\\' -> value.append(escaped);
+                    default -> throw error("unknown escape \\" + escaped);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        // A number or boolean: everything up to the next separator
+        private String token() {
+            skipWhitespace();
+            int start = pos;
+            while (pos < text.length() && ",[] \t\r\n".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("missing value");
+            }
+            return text.substring(start, pos);
+        }
+
+        void expect(char expected, String what) {
+            skipWhitespace();
+            if (peek() != expected) {
+                throw error("expected " + what);
+            }
+            pos++;
+        }
+
+        void expectEnd(int argumentCount) {
+            skipWhitespace();
+            if (pos < text.length()) {
+                throw new IllegalArgumentException("Expected " + argumentCount + " argument(s), found more at position " + (pos + 1));
+            }
+        }
+
+        private char peek() {
+            return pos < text.length() ? text.charAt(pos) : '\0';
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Argument " + argument + ", position " + (pos + 1) + ": " + message);
+        }
+    }
+
+    // Growable int[] for parsing large arrays without boxing
+    private static final class IntBuilder {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,79 @@
+package com.devforge.platform.practice.runner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only, memory-mapped access to large test data kept in files.
+ * <p>
+ * Each file is mapped once per JVM and the mapping is shared by all tests and submissions that
+ * use it; callers get independent {@link ByteBuffer#duplicate() views}. The data lives in the
+ * OS page cache rather than on the heap, so concurrent runs, and forked runners mapping the
+ * same files, share a single copy. Files are content-addressed and never change once written.
+ * <p>
+ * The table holds mappings weakly: every view keeps its mapping alive, so a file stays mapped
+ * while a cached harness of some problem version uses it, and is unmapped by the GC once the
+ * last such harness has been evicted. A later request maps the file again.
+ */
+public final class TestDataFiles {
+
+    private static final Map<String, Mapping> MAPPED = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<ByteBuffer> RELEASED = new ReferenceQueue<>();
+
+    private TestDataFiles() {
+    }
+
+    /**
+     * A read-only view of the whole file, positioned at its start.
+     *
+     * @throws UncheckedIOException if the file cannot be read.
+     */
+    public static ByteBuffer map(String path) {
+        purgeReleased();
+        ByteBuffer[] mapped = new ByteBuffer[1];
+        MAPPED.compute(path, (key, mapping) -> {
+            mapped[0] = mapping == null ? null : mapping.get();
+            if (mapped[0] != null) {
+                return mapping;
+            }
+            mapped[0] = mapFile(key);
+            return new Mapping(key, mapped[0]);
+        });
+        return mapped[0].duplicate();
+    }
+
+    private static void purgeReleased() {
+        for (Reference<? extends ByteBuffer> released; (released = RELEASED.poll()) != null; ) {
+            Mapping mapping = (Mapping) released;
+            MAPPED.remove(mapping.path, mapping);
+        }
+    }
+
+    private static ByteBuffer mapFile(String path) {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map test data " + path, e);
+        }
+    }
+
+    private static final class Mapping extends WeakReference<ByteBuffer> {
+
+        private final String path;
+
+        private Mapping(String path, ByteBuffer buffer) {
+            super(buffer, RELEASED);
+            this.path = path;
+        }
+    }
+}
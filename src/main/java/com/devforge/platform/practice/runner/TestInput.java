@@ -0,0 +1,29 @@
+package com.devforge.platform.practice.runner;
+
+/**
+ * One test case as seen by the test harness.
+ *
+ * @param inputData      Arguments as written by the teacher, as stored in {@code TestCase}.
+ * @param expectedOutput Expected result, formatted by {@link TestDataCodec#format(Object)}.
+ *                       Null while the reference solution has not produced it yet.
+ * @param arguments      The input encoded by {@link TestDataCodec}, or null if it was never encoded.
+ * @param generator      {@link InputGenerator} line that produces the input when the test runs, or null.
+ * @param argumentsFile  File with the encoded input, {@link TestDataFiles mapped} instead of {@code arguments}, or null.
+ * @param expectedFile   File with the full expected output, compared instead of {@code expectedOutput}
+ *                       (then only a preview for logs), or null.
+ */
+public record TestInput(String inputData, String expectedOutput, byte[] arguments, String generator,
+                        String argumentsFile, String expectedFile) {
+
+    public TestInput(String inputData, String expectedOutput, byte[] arguments, String generator) {
+        this(inputData, expectedOutput, arguments, generator, null, null);
+    }
+
+    public TestInput(String inputData, String expectedOutput, byte[] arguments) {
+        this(inputData, expectedOutput, arguments, null);
+    }
+
+    public TestInput(String inputData, String expectedOutput) {
+        this(inputData, expectedOutput, null, null);
+    }
+}
@@ -0,0 +1,12 @@
+package com.devforge.platform.practice.runner;
+
+/**
+ * Receives per-test results while a suite is still running.
+ */
+@FunctionalInterface
+public interface TestListener {
+
+    TestListener NONE = report -> { };
+
+    void onTestFinished(TestReport report);
+}
@@ -0,0 +1,20 @@
+package com.devforge.platform.practice.runner;
+
+/**
+ * Result of one test case, reported as soon as the test finishes.
+ *
+ * @param index      Zero-based position of the test in the suite.
+ * @param input      The test input, as shown to the student.
+ * @param verdict    Outcome of the test.
+ * @param actual     {@code String.valueOf(result)}, or the error for {@link Verdict#RUNTIME_ERROR}.
+ * @param expected   Expected output.
+ * @param wallMillis Wall-clock time of the call.
+ * @param cpuMillis  CPU time of the call (-1 if the JVM cannot measure it).
+ */
+public record TestReport(int index, String input, Verdict verdict, String actual, String expected,
+                         long wallMillis, long cpuMillis) {
+
+    public boolean passed() {
+        return verdict == Verdict.PASSED;
+    }
+}
@@ -0,0 +1,16 @@
+package com.devforge.platform.practice.runner;
+
+/**
+ * Outcome of a single test case, or of a whole submission.
+ * Ordinals are stored and sent to runners, so new verdicts go at the end.
+ */
+public enum Verdict {
+    PASSED,
+    WRONG_ANSWER,
+    RUNTIME_ERROR,
+    TIME_LIMIT_EXCEEDED,
+    OUTPUT_LIMIT_EXCEEDED,
+    COMPILATION_ERROR,
+    /** All tests passed, but too slowly compared with the reference solution. */
+    TOO_SLOW
+}
@@ -0,0 +1,218 @@
+package com.devforge.platform.practice.runner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs student code on a dedicated thread and watches its wall-clock and CPU time.
+ * <p>
+ * One watchdog serves the calls of one suite (or one parallel test), reusing its worker thread
+ * between calls. The calling thread waits for each call and measures the worker's CPU time through
+ * {@link ThreadMXBean}. When a limit is exceeded the worker is interrupted and abandoned: the JDK
+ * cannot force-stop a thread, so a busy loop keeps running until its JVM exits. Forked runners are
+ * therefore recycled after a timeout; {@link #abandonedThreads()} counts the ones still alive.
+ */
+public final class Watchdog implements AutoCloseable {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final long POLL_MILLIS = 10;
+    private static final AtomicInteger ABANDONED = new AtomicInteger();
+
+    /**
+     * @param value      Return value of the task (null if it failed or timed out).
+     * @param error      Exception thrown by the task, if any.
+     * @param timedOut   true if a limit was exceeded and the thread was abandoned.
+     * @param wallMillis Elapsed wall-clock time.
+     * @param cpuMillis  CPU time used by the task (-1 if not measurable).
+     */
+    record Outcome(Object value, Throwable error, boolean timedOut, long wallMillis, long cpuMillis) {}
+
+    private final ExecutionLimits limits;
+    private final long submissionDeadlineNanos;
+
+    private Worker worker;
+
+    /**
+     * @param limits                  Per-test limits applied to every call.
+     * @param submissionDeadlineNanos {@link System#nanoTime()} at which the whole submission runs out of time.
+     */
+    Watchdog(ExecutionLimits limits, long submissionDeadlineNanos) {
+        this.limits = limits;
+        this.submissionDeadlineNanos = submissionDeadlineNanos;
+    }
+
+    /**
+     * Runs the task under the per-test limits, capped by what is left of the submission budget.
+     */
+    Outcome call(Callable<?> task) {
+        if (worker == null) {
+            // Started lazily from the calling thread, so it inherits its output sink
+            worker = new Worker();
+            worker.start();
+        }
+
+        long start = System.nanoTime();
+        long deadline = Math.min(start + TimeUnit.MILLISECONDS.toNanos(limits.testWallMillis()), submissionDeadlineNanos);
+        long cpuLimitNanos = TimeUnit.MILLISECONDS.toNanos(limits.testCpuMillis());
+        long cpuStart = cpuTime(worker);
+        worker.submit(task);
+
+        boolean timedOut = false;
+        long cpuNanos = -1;
+        try {
+            while (!worker.awaitDone(Math.min(POLL_MILLIS, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())))) {
+                cpuNanos = elapsedCpu(cpuStart);
+                if (System.nanoTime() >= deadline || cpuNanos > cpuLimitNanos) {
+                    timedOut = true;
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            timedOut = true;
+        }
+
+        long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (timedOut) {
+            abandon();
+            return new Outcome(null, null, true, wallMillis, cpuNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(cpuNanos));
+        }
+        cpuNanos = elapsedCpu(cpuStart);
+        return new Outcome(worker.value, worker.error, false, wallMillis, cpuNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(cpuNanos));
+    }
+
+    /**
+     * Lets an idle worker thread exit. A busy (abandoned) one has already been detached.
+     */
+    @Override
+    public void close() {
+        if (worker != null) {
+            worker.shutdown();
+            worker = null;
+        }
+    }
+
+    /**
+     * Abandoned workers that are still running. Each one keeps its submission's classes loaded.
+     */
+    public static int abandonedThreads() {
+        return ABANDONED.get();
+    }
+
+    private void abandon() {
+        ABANDONED.incrementAndGet();
+        worker.abandoned = true;
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.interrupt();
+        // A later call gets a fresh thread
+        worker = null;
+    }
+
+    private long elapsedCpu(long cpuStart) {
+        long now = cpuTime(worker);
+        return now < 0 || cpuStart < 0 ? -1 : now - cpuStart;
+    }
+
+    private static long cpuTime(Thread thread) {
+        if (!THREADS.isThreadCpuTimeSupported()) {
+            return -1;
+        }
+        return THREADS.getThreadCpuTime(thread.threadId());
+    }
+
+    /**
+     * Thread that runs one task at a time, handed over under a private lock. Not under the thread's
+     * own monitor: student code can lock {@code Thread.currentThread()} and would stall the watchdog.
+     */
+    private static final class Worker extends Thread {
+
+        private final Object lock = new Object();
+        private Callable<?> task;
+        private boolean done;
+        private boolean closed;
+        private Object value;
+        private Throwable error;
+        private volatile boolean abandoned;
+
+        private Worker() {
+            super("student-code");
+            setDaemon(true);
+        }
+
+        void submit(Callable<?> next) {
+            synchronized (lock) {
+                task = next;
+                done = false;
+                value = null;
+                error = null;
+                lock.notifyAll();
+            }
+        }
+
+        boolean awaitDone(long timeoutMillis) throws InterruptedException {
+            synchronized (lock) {
+                if (!done && timeoutMillis > 0) {
+                    lock.wait(timeoutMillis);
+                }
+                return done;
+            }
+        }
+
+        void shutdown() {
+            synchronized (lock) {
+                closed = true;
+                lock.notifyAll();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                loop();
+            } finally {
+                if (abandoned) {
+                    ABANDONED.decrementAndGet();
+                }
+            }
+        }
+
+        private void loop() {
+            while (true) {
+                Callable<?> current;
+                synchronized (lock) {
+                    // An abandoned worker exits once its task returns, even if the interrupt was swallowed
+                    while (task == null && !closed && !abandoned) {
+                        try {
+                            lock.wait();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                    }
+                    if (task == null) {
+                        return;
+                    }
+                    current = task;
+                    task = null;
+                }
+
+                Object result = null;
+                Throwable failure = null;
+                try {
+                    result = current.call();
+                } catch (Throwable e) {
+                    failure = e;
+                }
+
+                synchronized (lock) {
+                    value = result;
+                    error = failure;
+                    done = true;
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+}
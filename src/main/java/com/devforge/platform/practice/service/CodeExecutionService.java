@@ -1,178 +1,260 @@
 package com.devforge.platform.practice.service;
 
 import com.devforge.platform.practice.domain.Problem;
-import com.devforge.platform.practice.domain.TestCase;
+import com.devforge.platform.practice.runner.BenchmarkSpec;
+import com.devforge.platform.practice.runner.BytecodeClassLoader;
+import com.devforge.platform.practice.runner.ExecutionLimits;
+import com.devforge.platform.practice.runner.ProblemHarness;
+import com.devforge.platform.practice.runner.RunRequest;
+import com.devforge.platform.practice.runner.SuiteResult;
+import com.devforge.platform.practice.runner.SuiteRunner;
+import com.devforge.platform.practice.runner.TestInput;
+import com.devforge.platform.practice.runner.TestListener;
+import com.devforge.platform.practice.runner.TestReport;
+import com.devforge.platform.practice.runner.Verdict;
+import com.devforge.platform.practice.service.execution.ClassLoaderMonitor;
+import com.devforge.platform.practice.service.execution.CompiledClassCache;
+import com.devforge.platform.practice.service.execution.CompiledUnit;
+import com.devforge.platform.practice.service.execution.ConsoleCapture;
+import com.devforge.platform.practice.service.execution.ExecutionEngine;
+import com.devforge.platform.practice.service.execution.ExecutionPriority;
+import com.devforge.platform.practice.service.execution.ExecutionRejectedException;
+import com.devforge.platform.practice.service.execution.ForkedRunnerPool;
+import com.devforge.platform.practice.service.execution.HelperLibrary;
+import com.devforge.platform.practice.service.execution.HelperLibraryCache;
+import com.devforge.platform.practice.service.execution.InMemoryCompiler;
+import com.devforge.platform.practice.service.execution.ProblemHarnessCache;
+import com.devforge.platform.practice.service.execution.VerdictCache;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import javax.tools.*;
-import java.io.ByteArrayOutputStream;
-import java.io.OutputStream;
-import java.io.PrintStream;
-import java.net.URI;
-import java.lang.reflect.Method;
-import java.util.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service responsible for compiling and running student code.
- * NOTE: Currently runs code in-memory.
+ * Code runs on the bounded pool of {@link ExecutionEngine}, either in-memory
+ * or in a pre-started child JVM when the forked runner mode is enabled.
+ * Code that has already been judged against the current tests is answered from {@link VerdictCache}.
+ * Performance-graded problems also compare passing code with the teacher's reference solution.
+ * The problem's helper types come precompiled from {@link HelperLibraryCache}.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class CodeExecutionService {
 
+    private final ExecutionEngine executionEngine;
+    private final ConsoleCapture consoleCapture;
+    private final CompiledClassCache compiledClassCache;
+    private final InMemoryCompiler inMemoryCompiler;
+    private final ForkedRunnerPool forkedRunnerPool;
+    private final ExecutionLimits executionLimits;
+    private final ProblemHarnessCache problemHarnessCache;
+    private final VerdictCache verdictCache;
+    private final BenchmarkSpec benchmarkSpec;
+    private final ClassLoaderMonitor classLoaderMonitor;
+    private final HelperLibraryCache helperLibraryCache;
+
     /**
      * Compiles the user's code and runs it against all defined test cases.
      *
      * @param userCode The source code submitted by the student.
      * @param problem  The problem entity containing test cases and method config.
-     * @return true if all tests pass, false otherwise.
+     * @return The verdict of the suite, the captured output and the results of the tests that ran.
      */
-    public record ExecutionResult(boolean success, String logs) {}
+    public record ExecutionResult(Verdict verdict, String logs, List<TestReport> tests) {
 
-    public synchronized ExecutionResult executeWithLogs(String userCode, Problem problem) {
-        log.info("Compiling user code for problem: {}", problem.getMethodName());
-        
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PrintStream oldOut = System.out;
-        PrintStream captureOut = new PrintStream(baos);
-        
-        boolean allTestsPassed = false;
+        public boolean success() {
+            return verdict == Verdict.PASSED;
+        }
 
-        try {
-            System.setOut(captureOut);
-
-            Class<?> compiledClass = compile(problem.getClassName(), userCode);
-            Object instance = compiledClass.getDeclaredConstructor().newInstance();
-            Class<?>[] paramTypes = parseSignature(problem.getMethodSignature());
-            Method method = compiledClass.getMethod(problem.getMethodName(), paramTypes);
-
-            allTestsPassed = true;
-            for (TestCase test : problem.getTestCases()) {
-                System.out.println("--- Test Input: [" + test.getInputData() + "] ---");
-                
-                Object[] args = parseInput(test.getInputData(), paramTypes);
-                Object result = method.invoke(instance, args);
-                
-                String actual = String.valueOf(result);
-                System.out.println("Result: " + actual);
-                
-                if (!actual.equals(test.getExpectedOutput())) {
-                    System.out.println("❌ FAILED. Expected: " + test.getExpectedOutput());
-                    allTestsPassed = false;
-                    break; 
-                } else {
-                    System.out.println("✅ PASSED");
-                }
-                System.out.println(); 
-            }
+        /**
+         * true if running the same code again would give the same verdict. A time limit depends
+         * on the load of the machine, and a suite that never started (runner unavailable, class
+         * failed to load) may succeed on a retry. So may a solution that was too slow.
+         */
+        public boolean conclusive() {
+            return verdict != Verdict.TIME_LIMIT_EXCEEDED && verdict != Verdict.TOO_SLOW
+                    && (verdict == Verdict.COMPILATION_ERROR || !tests.isEmpty());
+        }
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace(); 
-            System.out.println("\n🔥 Runtime/Compilation Error: " + e.getCause());
-            allTestsPassed = false;
-        } finally {
-            System.out.flush();
-            System.setOut(oldOut);
+    public ExecutionResult executeWithLogs(String userCode, Problem problem, ExecutionPriority priority) {
+        String cacheKey = VerdictCache.key(problem, userCode);
+        VerdictCache.Entry cached = verdictCache.get(cacheKey);
+        if (cached != null) {
+            return new ExecutionResult(cached.verdict(), cached.logs(), cached.tests());
         }
+        ProblemHarness harness = problemHarnessCache.get(problem);
+        return executionEngine.execute(priority,
+                () -> runAndRemember(cacheKey, userCode, problem, harness, benchmarked(priority), TestListener.NONE));
+    }
 
-        return new ExecutionResult(allTestsPassed, baos.toString());
+    /**
+     * Queues the submission and returns immediately.
+     *
+     * @param priority Lane of the execution engine to queue in.
+     * @param listener Notified from the execution thread as each test finishes.
+     * @return Future completed with the final result.
+     */
+    public CompletableFuture<ExecutionResult> submit(String userCode, Problem problem, ExecutionPriority priority,
+                                                     TestListener listener) {
+        String cacheKey = VerdictCache.key(problem, userCode);
+        VerdictCache.Entry cached = verdictCache.get(cacheKey);
+        if (cached != null) {
+            cached.tests().forEach(listener::onTestFinished);
+            return CompletableFuture.completedFuture(new ExecutionResult(cached.verdict(), cached.logs(), cached.tests()));
+        }
+        ProblemHarness harness = problemHarnessCache.get(problem);
+        return executionEngine.submit(priority,
+                () -> runAndRemember(cacheKey, userCode, problem, harness, benchmarked(priority), listener));
     }
 
     /**
-     * Uses the standard Java Compiler API to compile source code from a String
-     * and load the resulting Bytecode into a Class object.
-     * 
-     * @param className  Name of the class (e.g. "Solution").
-     * @param sourceCode Content of the java file.
-     * @return The loaded Class<?> object.
-     * @throws Exception if compilation fails.
+     * Background work shares the machine with live Runs at the lowest priority, so timing it against
+     * the reference solution would mostly measure the load: it only checks correctness.
      */
-    private Class<?> compile(String className, String sourceCode) throws Exception {
-        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
-        
-        // Map to hold the bytecode in memory instead of writing to disk
-        Map<String, ByteArrayOutputStream> byteCodes = new HashMap<>();
-
-        JavaFileManager inMemoryFileManager = new ForwardingJavaFileManager<>(fileManager) {
-            @Override
-            public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
-                return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + kind.extension), kind) {
-                    @Override
-                    public OutputStream openOutputStream() {
-                        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                        byteCodes.put(className, baos);
-                        return baos;
-                    }
-                };
-            }
-        };
+    private static boolean benchmarked(ExecutionPriority priority) {
+        return priority != ExecutionPriority.BACKGROUND;
+    }
 
-        // Wrap source code in a file object
-        JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
-            @Override
-            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
-                return sourceCode;
-            }
-        };
+    /**
+     * Runs the tests and caches the result if it is {@link ExecutionResult#conclusive() conclusive}
+     * and complete, i.e. the performance check ran if the problem has one.
+     */
+    private ExecutionResult runAndRemember(String cacheKey, String userCode, Problem problem,
+                                           ProblemHarness harness, boolean benchmarked, TestListener listener) {
+        List<TestReport> reports = new ArrayList<>();
+        SuiteResult suite = runTests(userCode, problem, harness, benchmarked, report -> {
+            reports.add(report);
+            listener.onTestFinished(report);
+        });
+        ExecutionResult result = new ExecutionResult(suite.verdict(), suite.logs(), List.copyOf(reports));
+        if (result.conclusive() && (benchmarked || !problem.isPerformanceGraded())) {
+            verdictCache.put(cacheKey, new VerdictCache.Entry(result.verdict(), result.logs(), result.tests()));
+        }
+        return result;
+    }
 
-        // Run compilation task
-        boolean success = compiler.getTask(null, inMemoryFileManager, null, null, null, List.of(source)).call();
-        if (!success) {
-            throw new RuntimeException("Compilation failed. Check syntax.");
+    /**
+     * Runs the reference solution on the tests of a problem that is being saved. Tests with an
+     * expected output must pass; the others record the result of the reference solution.
+     *
+     * @param problem The problem definition (may not be saved yet); its own tests are ignored.
+     * @param tests   The tests to save, with a null expected output where it is to be recorded.
+     * @return The output of the reference solution for every test.
+     * @throws IllegalArgumentException if the reference solution does not compile or fails, or no worker can take it.
+     */
+    public List<String> recordExpectedOutputs(String referenceSource, Problem problem, List<TestInput> tests) {
+        ProblemHarness harness = ProblemHarness.build(problem.getMethodName(), problem.getMethodSignature(), tests);
+        List<TestReport> reports = new ArrayList<>();
+        SuiteResult suite;
+        try {
+            suite = executionEngine.execute(ExecutionPriority.PREVIEW,
+                    () -> runTests(referenceSource, problem, harness, false, reports::add));
+        } catch (ExecutionRejectedException e) {
+            // Shown on the form like any other problem with the save, which the teacher can simply retry
+            throw new IllegalArgumentException("Reference solution: all runners are busy, save again in "
+                    + e.getRetryAfterSeconds() + " s", e);
+        }
+        if (suite.verdict() != Verdict.PASSED) {
+            TestReport failed = reports.isEmpty() ? null : reports.getLast();
+            String logs = suite.logs().strip();
+            throw new IllegalArgumentException("Reference solution: " + suite.verdict()
+                    + (failed != null ? " on test #" + (failed.index() + 1) + " [" + failed.input() + "]" : "")
+                    + ". " + (logs.length() > 500 ? "..." + logs.substring(logs.length() - 500) : logs));
         }
+        return reports.stream().map(TestReport::actual).toList();
+    }
 
-        // Custom ClassLoader to load bytes from our map
-        ClassLoader classLoader = new ClassLoader() {
-            @Override
-            protected Class<?> findClass(String name) throws ClassNotFoundException {
-                ByteArrayOutputStream baos = byteCodes.get(name);
-                if (baos == null) return super.findClass(name);
-                byte[] bytes = baos.toByteArray();
-                return defineClass(name, bytes, 0, bytes.length);
-            }
-        };
+    private SuiteResult runTests(String userCode, Problem problem, ProblemHarness harness, boolean benchmarked,
+                                 TestListener listener) {
+        log.info("Compiling user code for problem: {}", problem.getMethodName());
 
-        return classLoader.loadClass(className);
+        CompiledUnit unit;
+        HelperLibrary library;
+        try {
+            library = helperLibraryCache.get(problem);
+            unit = compile(problem.getClassName(), userCode, library);
+        } catch (Exception e) {
+            return errorResult(Verdict.COMPILATION_ERROR, e);
+        }
+
+        CompiledUnit reference = benchmarked ? compileReference(problem, library) : null;
+        BenchmarkSpec benchmark = reference != null ? benchmarkSpec.withMaxSlowdown(problem.getMaxSlowdown()) : null;
+
+        if (forkedRunnerPool.isEnabled()) {
+            return forkedRunnerPool.run(new RunRequest(unit.loadableClasses(), problem.getClassName(),
+                    harness.methodName(), harness.methodSignature(), harness.tests(), executionLimits, problem.isParallelTests(),
+                    reference != null ? reference.loadableClasses() : null, benchmark), listener);
+        }
+
+        // The loaders are closed with the run; their classes are unloaded once nothing references them
+        Verdict verdict;
+        String logs;
+        try (ConsoleCapture.Session capture = consoleCapture.open();
+             BytecodeClassLoader loader = classLoaderMonitor.track(unit.newClassLoader());
+             BytecodeClassLoader referenceLoader = reference != null ? classLoaderMonitor.track(reference.newClassLoader()) : null) {
+            Class<?> compiledClass;
+            Class<?> referenceClass;
+            try {
+                compiledClass = loader.loadClass(unit.className());
+                referenceClass = referenceLoader != null ? referenceLoader.loadClass(reference.className()) : null;
+            } catch (Exception | LinkageError e) {
+                return errorResult(Verdict.RUNTIME_ERROR, e);
+            }
+            verdict = SuiteRunner.run(compiledClass, harness, executionLimits,
+                    problem.isParallelTests(), capture.log(), listener, referenceClass, benchmark);
+            logs = capture.contents();
+        }
+        // Logged once the capture has ended: the console appender writes through the rerouted System.out
+        if (verdict == Verdict.TIME_LIMIT_EXCEEDED) {
+            log.warn("Time limit exceeded for problem {}: abandoned a student thread in the server JVM", problem.getId());
+        }
+        return new SuiteResult(verdict, logs);
     }
 
     /**
-     * Helper to convert string signatures into Class types.
-     * Only supports 'int' and 'String' for MVP.
+     * The compiled reference solution of a performance-graded problem, or null if there is nothing to compare with.
      */
-    private Class<?>[] parseSignature(String signature) {
-        if (signature == null || signature.isBlank()) return new Class<?>[0];
-        
-        String[] parts = signature.split(",");
-        Class<?>[] types = new Class<?>[parts.length];
-        
-        for (int i = 0; i < parts.length; i++) {
-            String typeName = parts[i].trim();
-            if (typeName.equals("int")) types[i] = int.class;
-            else if (typeName.equals("String")) types[i] = String.class;
-            // TODO: Add support for other primitives
+    private CompiledUnit compileReference(Problem problem, HelperLibrary library) {
+        if (!problem.isPerformanceGraded() || problem.getReferenceSolution() == null) {
+            return null;
+        }
+        try {
+            return compile(problem.getClassName(), problem.getReferenceSolution(), library);
+        } catch (Exception e) {
+            // Checked when the problem is saved; students must not fail because of it
+            log.warn("Reference solution of problem {} does not compile, skipping the performance check", problem.getId(), e);
+            return null;
         }
-        return types;
+    }
+
+    private SuiteResult errorResult(Verdict verdict, Throwable e) {
+        e.printStackTrace();
+        return new SuiteResult(verdict, "\n🔥 Runtime/Compilation Error: " + e.getCause() + System.lineSeparator());
     }
 
     /**
-     * Helper to parse comma-separated input strings into Objects.
+     * Returns the compiled bytecode, reusing the cache when the same source
+     * has already been compiled.
+     *
+     * @param className  Name of the class (e.g. "Solution").
+     * @param sourceCode Content of the java file.
+     * @param library    Helper types of the problem.
+     * @return The compiled unit, ready to be loaded.
+     * @throws Exception if compilation fails.
      */
-    private Object[] parseInput(String inputData, Class<?>[] types) {
-        if (inputData == null || inputData.isBlank()) return new Object[0];
-
-        String[] parts = inputData.split(",");
-        Object[] args = new Object[parts.length];
-        
-        for (int i = 0; i < parts.length; i++) {
-            String val = parts[i].trim();
-            if (types[i] == int.class) {
-                args[i] = Integer.parseInt(val);
-            } else {
-                args[i] = val; // Default to String
-            }
+    private CompiledUnit compile(String className, String sourceCode, HelperLibrary library) throws Exception {
+        String cacheKey = CompiledClassCache.key(className, sourceCode, library);
+        CompiledUnit unit = compiledClassCache.get(cacheKey);
+        if (unit == null) {
+            unit = new CompiledUnit(className, inMemoryCompiler.compile(className, sourceCode, library), library);
+            compiledClassCache.put(cacheKey, unit);
         }
-        return args;
+        return unit;
     }
-}
\ No newline at end of file
+}
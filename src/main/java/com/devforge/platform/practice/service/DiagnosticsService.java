@@ -0,0 +1,128 @@
+package com.devforge.platform.practice.service;
+
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.service.execution.CompileDiagnostic;
+import com.devforge.platform.practice.service.execution.CompiledClassCache;
+import com.devforge.platform.practice.service.execution.DiagnosticsCache;
+import com.devforge.platform.practice.service.execution.ExecutionRejectedException;
+import com.devforge.platform.practice.service.execution.HelperLibrary;
+import com.devforge.platform.practice.service.execution.HelperLibraryCache;
+import com.devforge.platform.practice.service.execution.InMemoryCompiler;
+import com.devforge.platform.practice.service.execution.RunRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Live compiler diagnostics for the classroom editor.
+ * <p>
+ * A check runs javac up to attribution only ({@link InMemoryCompiler#diagnose}): no bytecode, no
+ * execution queue, no Run token. Results are cached per source hash. The editor sends a check
+ * once the student stops typing; a check that is still waiting when a newer one of the same user
+ * arrives is dropped, so a burst of keystrokes costs at most one javac pass. Checks have their own
+ * per-user rate limit ({@code practice.diagnostics.rate-limit.*}) and compilers, and wait for them
+ * at most {@code practice.diagnostics.max-wait-ms}: a busy node answers 429 rather than holding
+ * request threads.
+ */
+@Service
+public class DiagnosticsService {
+
+    private final InMemoryCompiler inMemoryCompiler;
+    private final DiagnosticsCache diagnosticsCache;
+    private final HelperLibraryCache helperLibraryCache;
+    private final Counter superseded;
+    private final RunRateLimiter rateLimiter;
+    private final long maxWaitMillis;
+
+    private final AtomicLong sequence = new AtomicLong();
+    // Users with checks in progress
+    private final Map<Long, UserChecks> users = new ConcurrentHashMap<>();
+
+    /**
+     * The checks of one user. Its lock lets them run one at a time.
+     */
+    private static final class UserChecks {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile long latest;
+        // Only changed inside Map.compute, which is atomic per key
+        private int inFlight;
+    }
+
+    public DiagnosticsService(InMemoryCompiler inMemoryCompiler, DiagnosticsCache diagnosticsCache,
+                              HelperLibraryCache helperLibraryCache, MeterRegistry meterRegistry,
+                              @Value("${practice.diagnostics.rate-limit.burst:10}") int burst,
+                              @Value("${practice.diagnostics.rate-limit.checks-per-minute:60}") int checksPerMinute,
+                              @Value("${practice.diagnostics.max-wait-ms:2000}") long maxWaitMillis) {
+        this.inMemoryCompiler = inMemoryCompiler;
+        this.diagnosticsCache = diagnosticsCache;
+        this.helperLibraryCache = helperLibraryCache;
+        this.superseded = Counter.builder("practice.diagnostics.superseded")
+                .description("Editor checks dropped because a newer one of the same user arrived")
+                .register(meterRegistry);
+        this.rateLimiter = new RunRateLimiter(burst, checksPerMinute, Counter.builder("practice.diagnostics.rejected")
+                .tag("reason", "rate_limit")
+                .description("Editor checks rejected by the per-user rate limit")
+                .register(meterRegistry));
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Checks the code of a user against the problem's class name and helper types.
+     *
+     * @return The diagnostics in source order, or null if a newer check of the user superseded this one.
+     * @throws ExecutionRejectedException if the user checks too often, or no compiler became free in time.
+     */
+    public List<CompileDiagnostic> diagnose(Long userId, Problem problem, String code) {
+        HelperLibrary library = helperLibraryCache.get(problem);
+        String key = CompiledClassCache.key(problem.getClassName(), code, library);
+        List<CompileDiagnostic> cached = diagnosticsCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        // Only the checks that reach javac count against the limit
+        rateLimiter.acquire(userId);
+
+        long id = sequence.incrementAndGet();
+        UserChecks checks = users.compute(userId, (ignored, current) -> {
+            UserChecks value = current != null ? current : new UserChecks();
+            value.latest = id;
+            value.inFlight++;
+            return value;
+        });
+        try {
+            List<CompileDiagnostic> diagnostics;
+            if (!checks.lock.tryLock(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                if (checks.latest != id) {
+                    superseded.increment();
+                    return null;
+                }
+                throw new ExecutionRejectedException("Compiler busy", 1);
+            }
+            try {
+                // Only the newest of the checks waiting here is still worth running
+                if (checks.latest != id) {
+                    superseded.increment();
+                    return null;
+                }
+                diagnostics = inMemoryCompiler.diagnose(problem.getClassName(), code, library);
+            } finally {
+                checks.lock.unlock();
+            }
+            diagnosticsCache.put(key, diagnostics);
+            return diagnostics;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            users.computeIfPresent(userId, (ignored, current) -> --current.inFlight == 0 ? null : current);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.devforge.platform.practice.service;
+
+import com.devforge.platform.practice.domain.ExecutionJob;
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.repository.ExecutionJobRepository;
+import com.devforge.platform.practice.repository.ProblemRepository;
+import com.devforge.platform.practice.runner.TestReport;
+import com.devforge.platform.practice.service.execution.ExecutionEngine;
+import com.devforge.platform.practice.service.execution.ExecutionRejectedException;
+import com.devforge.platform.practice.web.dto.RunCodeResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumes the durable job queue on nodes with the {@code runner} profile.
+ * <p>
+ * A single poller thread claims as many jobs as the node has free slots
+ * ({@code practice.queue.runner-capacity}) and hands them to the execution engine. Claims use
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED}, so runners scale out without coordinating. Every claim
+ * is a lease of {@code practice.queue.lease-ms}, renewed while the job runs; when a runner dies,
+ * its jobs are claimed again once their leases expire, so no submission is lost. A job that was
+ * claimed {@code practice.queue.max-attempts} times without finishing is given up. Test reports
+ * are written to the row as they arrive (at most once per poll interval), for the web nodes to stream.
+ * <p>
+ * Leases compare timestamps of different nodes, so their clocks must be synchronized.
+ */
+@Service
+@Profile("runner")
+@Slf4j
+public class ExecutionJobWorker {
+
+    private static final long CLEANUP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final ExecutionJobRepository executionJobRepository;
+    private final ProblemRepository problemRepository;
+    private final CodeExecutionService codeExecutionService;
+    private final RunCompletionService runCompletionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final String nodeId;
+    private final int capacity;
+    private final long leaseMillis;
+    private final int maxAttempts;
+    private final long pollIntervalMillis;
+    private final long retentionMinutes;
+
+    private final Counter claimed;
+    private final Counter reclaimed;
+    private final Counter givenUp;
+
+    // Jobs of this node that have not finished yet
+    private final Map<String, Progress> running = new ConcurrentHashMap<>();
+    private final Thread poller;
+    private volatile boolean active = true;
+    // Poller thread only
+    private long lastRenewal = System.nanoTime();
+    private long lastCleanup = System.nanoTime();
+
+    /**
+     * Test reports of a running job, and whether the row is behind.
+     */
+    private static final class Progress {
+        private final List<TestReport> tests = new ArrayList<>();
+        private boolean dirty;
+
+        synchronized void add(TestReport report) {
+            tests.add(report);
+            dirty = true;
+        }
+
+        synchronized List<TestReport> takeIfDirty() {
+            if (!dirty) {
+                return null;
+            }
+            dirty = false;
+            return List.copyOf(tests);
+        }
+
+        synchronized List<TestReport> all() {
+            return List.copyOf(tests);
+        }
+    }
+
+    public ExecutionJobWorker(ExecutionJobRepository executionJobRepository,
+                              ProblemRepository problemRepository,
+                              CodeExecutionService codeExecutionService,
+                              RunCompletionService runCompletionService,
+                              TransactionTemplate transactionTemplate,
+                              ExecutionEngine executionEngine,
+                              MeterRegistry meterRegistry,
+                              @Value("${practice.queue.node-id:}") String nodeId,
+                              @Value("${practice.queue.runner-capacity:0}") int capacity,
+                              @Value("${practice.queue.lease-ms:30000}") long leaseMillis,
+                              @Value("${practice.queue.max-attempts:3}") int maxAttempts,
+                              @Value("${practice.queue.poll-interval-ms:200}") long pollIntervalMillis,
+                              @Value("${practice.submissions.retention-minutes:15}") long retentionMinutes) {
+        this.executionJobRepository = executionJobRepository;
+        this.problemRepository = problemRepository;
+        this.codeExecutionService = codeExecutionService;
+        this.runCompletionService = runCompletionService;
+        this.transactionTemplate = transactionTemplate;
+        // "pid@host" by default
+        this.nodeId = nodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : nodeId;
+        // Twice the workers by default: the engine's lanes keep a few jobs waiting, so that a worker never idles
+        this.capacity = capacity > 0 ? capacity : 2 * executionEngine.getParallelism();
+        this.leaseMillis = leaseMillis;
+        this.maxAttempts = maxAttempts;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.retentionMinutes = retentionMinutes;
+
+        this.claimed = Counter.builder("practice.queue.claims")
+                .tag("type", "new")
+                .description("Jobs claimed from the durable queue")
+                .register(meterRegistry);
+        this.reclaimed = Counter.builder("practice.queue.claims")
+                .tag("type", "reclaimed")
+                .description("Jobs claimed from the durable queue")
+                .register(meterRegistry);
+        this.givenUp = Counter.builder("practice.queue.given-up")
+                .description("Jobs that failed to finish after the maximum number of attempts")
+                .register(meterRegistry);
+        Gauge.builder("practice.queue.running", running, Map::size)
+                .description("Jobs of the durable queue running on this node")
+                .register(meterRegistry);
+
+        this.poller = new Thread(this::pollLoop, "job-poller");
+        this.poller.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        poller.start();
+        log.info("Runner {} consuming the job queue ({} slots, lease {} ms)", nodeId, capacity, leaseMillis);
+    }
+
+    private void pollLoop() {
+        while (active) {
+            try {
+                if (!poll()) {
+                    Thread.sleep(pollIntervalMillis);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Job queue poll failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMillis * 10);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * One round of the poller: writes progress, renews leases when due, deletes old jobs when due,
+     * and claims and starts as many jobs as there are free slots.
+     *
+     * @return true if every free slot got a job, so the next round should follow right away.
+     */
+    boolean poll() {
+        flushProgress();
+        long now = System.nanoTime();
+        if (now - lastRenewal >= TimeUnit.MILLISECONDS.toNanos(leaseMillis / 3)) {
+            renewLeases();
+            lastRenewal = now;
+        }
+        if (now - lastCleanup >= CLEANUP_INTERVAL_NANOS) {
+            deleteExpired();
+            lastCleanup = now;
+        }
+
+        int free = capacity - running.size();
+        List<ExecutionJob> jobs = free > 0 ? claim(free) : List.of();
+        jobs.forEach(this::start);
+        return free > 0 && jobs.size() == free;
+    }
+
+    /**
+     * Claims up to {@code limit} jobs in one short transaction.
+     */
+    private List<ExecutionJob> claim(int limit) {
+        List<ExecutionJob> jobs = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<ExecutionJob> claimable = executionJobRepository.lockClaimable(now, limit);
+            List<ExecutionJob> result = new ArrayList<>(claimable.size());
+            for (ExecutionJob job : claimable) {
+                boolean again = job.getStatus() == ExecutionJob.Status.RUNNING;
+                if (again) {
+                    log.warn("Reclaiming job {} from {}, whose lease expired", job.getId(), job.getLockedBy());
+                }
+                if (job.getAttempts() >= maxAttempts) {
+                    givenUp.increment();
+                    finish(job, new RunCodeResponse(false,
+                            "Execution failed: your code stopped the runner " + job.getAttempts() + " times. 💥", ""), job.getTests());
+                    continue;
+                }
+                job.setAttempts(job.getAttempts() + 1);
+                job.setStatus(ExecutionJob.Status.RUNNING);
+                job.setLockedBy(nodeId);
+                job.setLeaseExpiresAt(now.plus(leaseMillis, ChronoUnit.MILLIS));
+                job.setStartedAt(now);
+                // A reclaimed job runs again from the start
+                job.setTests(new ArrayList<>());
+                (again ? reclaimed : claimed).increment();
+                result.add(job);
+            }
+            return result;
+        });
+        return jobs != null ? jobs : List.of();
+    }
+
+    private void start(ExecutionJob job) {
+        String id = job.getId();
+        Progress progress = new Progress();
+        running.put(id, progress);
+        try {
+            Problem problem = loadProblem(job.getProblemId());
+            if (problem == null) {
+                complete(id, new RunCodeResponse(false, "This problem no longer exists.", ""));
+                return;
+            }
+            var execution = codeExecutionService.submit(job.getSourceCode(), problem, job.getPriority(), progress::add);
+            // Persisted on the completion threads, so the engine worker goes back to running code
+            runCompletionService.whenExecuted(execution, result -> completeRun(id, problem, result))
+                    .whenComplete((mine, error) -> {
+                        if (error != null) {
+                            log.error("Job {} failed", id, error);
+                            complete(id, new RunCodeResponse(false, "Execution failed. Please try again.", ""));
+                        }
+                    });
+        } catch (ExecutionRejectedException e) {
+            // The engine is full after all: let any runner take it
+            release(id, true);
+        } catch (RuntimeException e) {
+            log.error("Cannot start job {}", id, e);
+            complete(id, new RunCodeResponse(false, "Execution failed. Please try again.", ""));
+        }
+    }
+
+    private Problem loadProblem(Long problemId) {
+        return transactionTemplate.execute(status -> {
+            Problem problem = problemRepository.findById(problemId).orElse(null);
+            if (problem != null) {
+                // The harness is prepared on the execution thread, outside of the session
+                problem.getTestCases().size();
+            }
+            return problem;
+        });
+    }
+
+    /**
+     * Records the Run and stores its result in one transaction that holds the job's row, and only
+     * while this runner still owns the job: a runner that lost it to a takeover must not record
+     * the Run (or complete the lesson) a second time.
+     *
+     * @return false if the job was taken over and the result dropped.
+     */
+    private boolean completeRun(String id, Problem problem, CodeExecutionService.ExecutionResult result) {
+        Progress progress = running.get(id);
+        List<TestReport> tests = progress != null ? progress.all() : List.of();
+        try {
+            Boolean mine = transactionTemplate.execute(status -> executionJobRepository.findForUpdate(id)
+                    .filter(this::isMine)
+                    .map(job -> {
+                        finish(job, runCompletionService.complete(job.getUserId(), problem, job.getCourseId(),
+                                job.getLessonId(), job.getSourceCode(), result), tests);
+                        return true;
+                    })
+                    .orElse(false));
+            if (!Boolean.TRUE.equals(mine)) {
+                log.warn("Job {} was taken over by another runner, dropping its result", id);
+                return false;
+            }
+            return true;
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    /**
+     * Stores the result, unless the lease was lost and another runner owns the job now.
+     */
+    private void complete(String id, RunCodeResponse response) {
+        Progress progress = running.get(id);
+        List<TestReport> tests = progress != null ? progress.all() : List.of();
+        try {
+            transactionTemplate.executeWithoutResult(status -> executionJobRepository.findForUpdate(id)
+                    .filter(this::isMine)
+                    .ifPresentOrElse(job -> finish(job, response, tests),
+                            () -> log.warn("Job {} was taken over by another runner, dropping its result", id)));
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    private void finish(ExecutionJob job, RunCodeResponse response, List<TestReport> tests) {
+        job.setStatus(ExecutionJob.Status.FINISHED);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setLockedBy(null);
+        job.setLeaseExpiresAt(null);
+        job.setTests(new ArrayList<>(tests));
+        job.setResultSuccess(response.success());
+        job.setResultMessage(response.message());
+        job.setResultLogs(response.logs());
+    }
+
+    /**
+     * Puts an unfinished job back in the queue.
+     *
+     * @param unstarted true if it never ran here, so the claim does not count as an attempt.
+     */
+    private void release(String id, boolean unstarted) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> executionJobRepository.findForUpdate(id)
+                    .filter(this::isMine)
+                    .ifPresent(job -> {
+                        job.setStatus(ExecutionJob.Status.QUEUED);
+                        job.setLockedBy(null);
+                        job.setLeaseExpiresAt(null);
+                        job.setTests(new ArrayList<>());
+                        if (unstarted) {
+                            job.setAttempts(job.getAttempts() - 1);
+                        }
+                    }));
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    private boolean isMine(ExecutionJob job) {
+        return job.getStatus() == ExecutionJob.Status.RUNNING && nodeId.equals(job.getLockedBy());
+    }
+
+    private void flushProgress() {
+        running.forEach((id, progress) -> {
+            List<TestReport> tests = progress.takeIfDirty();
+            if (tests != null) {
+                transactionTemplate.executeWithoutResult(status ->
+                        executionJobRepository.updateTests(id, nodeId, tests, ExecutionJob.Status.RUNNING));
+            }
+        });
+    }
+
+    private void renewLeases() {
+        if (running.isEmpty()) {
+            return;
+        }
+        LocalDateTime lease = LocalDateTime.now().plus(leaseMillis, ChronoUnit.MILLIS);
+        transactionTemplate.executeWithoutResult(status ->
+                executionJobRepository.extendLeases(List.copyOf(running.keySet()), nodeId, lease, ExecutionJob.Status.RUNNING));
+    }
+
+    private void deleteExpired() {
+        Integer deleted = transactionTemplate.execute(status -> executionJobRepository.deleteFinishedBefore(
+                ExecutionJob.Status.FINISHED, LocalDateTime.now().minusMinutes(retentionMinutes)));
+        if (deleted != null && deleted > 0) {
+            log.debug("Deleted {} finished jobs", deleted);
+        }
+    }
+
+    /**
+     * Stops claiming and hands the unfinished jobs back, so other runners need not wait for their leases.
+     */
+    @PreDestroy
+    public void shutdown() {
+        active = false;
+        poller.interrupt();
+        for (String id : List.copyOf(running.keySet())) {
+            try {
+                release(id, false);
+            } catch (RuntimeException e) {
+                log.debug("Cannot release job {}: {}", id, e.getMessage());
+            }
+        }
+    }
+}
@@ -5,19 +5,31 @@ import com.devforge.platform.course.domain.Lesson;
 import com.devforge.platform.course.domain.LessonType;
 import com.devforge.platform.course.repository.CourseRepository;
 import com.devforge.platform.course.repository.LessonRepository;
+import com.devforge.platform.course.service.CourseSearchIndex;
 import com.devforge.platform.practice.domain.Problem;
 import com.devforge.platform.practice.domain.TestCase;
 import com.devforge.platform.practice.repository.ProblemRepository;
+import com.devforge.platform.practice.runner.InputGenerator;
+import com.devforge.platform.practice.runner.TestDataCodec;
+import com.devforge.platform.practice.runner.TestInput;
+import com.devforge.platform.practice.service.execution.HelperLibrary;
+import com.devforge.platform.practice.service.execution.HelperLibraryCache;
+import com.devforge.platform.practice.service.execution.InMemoryCompiler;
+import com.devforge.platform.practice.service.execution.ProblemHarnessCache;
+import com.devforge.platform.practice.service.execution.TestDataStore;
+import com.devforge.platform.practice.service.execution.VerdictCache;
 import com.devforge.platform.practice.web.dto.CreateProblemRequest;
+import com.devforge.platform.practice.web.dto.CreateTestCaseRequest;
 import com.devforge.platform.user.domain.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -27,93 +39,339 @@ public class PracticeManagementService {
     private final CourseRepository courseRepository;
     private final LessonRepository lessonRepository;
     private final ProblemRepository problemRepository;
+    private final ProblemHarnessCache problemHarnessCache;
+    private final VerdictCache verdictCache;
+    private final RegradeService regradeService;
+    private final InMemoryCompiler inMemoryCompiler;
+    private final CodeExecutionService codeExecutionService;
+    private final TestDataStore testDataStore;
+    private final HelperLibraryCache helperLibraryCache;
+    private final CourseSearchIndex courseSearchIndex;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    /**
+     * Creates the lesson and its problem. The reference solution runs before the transaction
+     * opens, so the save holds its connection only to write.
+     */
     public void createPracticeLesson(Long courseId, CreateProblemRequest request, User teacher) {
         // Check the access rules
+        transactionTemplate.executeWithoutResult(status -> authorizedCourse(courseId, teacher));
+
+        // Reject invalid test data before anything is saved
+        List<byte[]> encodedInputs = encodeTestInputs(request);
+        List<String> generators = parseGenerators(request);
+        HelperLibrary library = compileHelpers(request);
+        checkReferenceSolution(request, !generators.isEmpty(), library);
+
+        // Maps test cases (DTO -> Entity), completed with the outputs of the reference solution
+        Problem problem = toProblem(request);
+        List<TestCase> testCases = toTestCases(request, encodedInputs, generators);
+        recordExpectedOutputs(problem, testCases);
+        testCases.forEach(testDataStore::externalize);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Course course = authorizedCourse(courseId, teacher);
+
+            // Create Lesson
+            Lesson lesson = Lesson.builder()
+                    .title(request.getTitle())
+                    .content(request.getContent())
+                    .orderIndex(request.getOrderIndex())
+                    .type(LessonType.PRACTICE)
+                    .course(course)
+                    .build();
+
+            lesson = lessonRepository.save(lesson);
+            course.touch();
+            courseSearchIndex.reindex(courseId);
+
+            // Save problem
+            problem.setLesson(lesson);
+            testCases.forEach(test -> test.setProblem(problem));
+            problem.setTestCases(testCases);
+            problemHarnessCache.prepare(problemRepository.save(problem));
+
+            log.info("Created practice lesson '{}' with {} tests", lesson.getTitle(), testCases.size());
+        });
+    }
+
+    /**
+     * Updates the lesson and its problem. As on creation, the reference solution runs outside of any transaction.
+     */
+    public void updatePractice(Long lessonId, CreateProblemRequest request, User teacher) {
+        // Check author, and whether anything that can change a verdict changes
+        boolean definitionChanged = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                definitionChanged(authorizedProblem(lessonId, teacher), request, generatorLines(request))));
+
+        List<byte[]> encodedInputs = encodeTestInputs(request);
+        List<String> generators = parseGenerators(request);
+        HelperLibrary library = compileHelpers(request);
+        checkReferenceSolution(request, !generators.isEmpty(), library);
+
+        List<TestCase> testCases = List.of();
+        if (definitionChanged) {
+            testCases = toTestCases(request, encodedInputs, generators);
+            recordExpectedOutputs(toProblem(request), testCases);
+            testCases.forEach(testDataStore::externalize);
+        }
+        List<TestCase> newTestCases = testCases;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Problem problem = authorizedProblem(lessonId, teacher);
+
+            // Update lesson
+            Lesson lesson = problem.getLesson();
+            lesson.setTitle(request.getTitle());
+            lesson.setContent(request.getContent());
+            lesson.setOrderIndex(request.getOrderIndex());
+            lessonRepository.save(lesson);
+            lesson.getCourse().touch();
+            courseSearchIndex.reindex(lesson.getCourse().getId());
+
+            // Update problem
+            problem.setClassName(request.getClassName());
+            problem.setMethodName(request.getMethodName());
+            problem.setMethodSignature(request.getMethodSignature());
+            problem.setHelperCode(blankToNull(request.getHelperCode()));
+            problem.setParallelTests(request.isParallelTests());
+            problem.setPerformanceGraded(request.isPerformanceGraded());
+            problem.setReferenceSolution(blankToNull(request.getReferenceSolution()));
+            problem.setMaxSlowdown(request.getMaxSlowdown());
+            problem.setStarterCode(request.getStarterCode());
+
+            if (!definitionChanged) {
+                // Title, content or starter code only: cached verdicts and accepted solutions stay valid
+                problemRepository.save(problem);
+                return;
+            }
+
+            // Update tests
+            problem.setTestsVersion(problem.getTestsVersion() + 1);
+            newTestCases.forEach(test -> test.setProblem(problem));
+            problem.getTestCases().clear();
+            problem.getTestCases().addAll(newTestCases);
+
+            problemRepository.save(problem);
+            problemHarnessCache.prepare(problem);
+            verdictCache.evict(problem.getId());
+            regradeService.schedule(problem.getId());
+        });
+    }
+
+    /**
+     * @throws AccessDeniedException if the teacher is not the author of the course.
+     */
+    private Course authorizedCourse(Long courseId, User teacher) {
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new IllegalArgumentException("Course not found"));
-        
         if (!course.getAuthor().getId().equals(teacher.getId())) {
             throw new AccessDeniedException("You are not the author of this course");
         }
+        return course;
+    }
 
-        // Create Lesson
-        Lesson lesson = Lesson.builder()
-                .title(request.getTitle())
-                .content(request.getContent())
-                .orderIndex(request.getOrderIndex())
-                .type(LessonType.PRACTICE)
-                .course(course)
-                .build();
-        
-        lesson = lessonRepository.save(lesson);
+    /**
+     * @throws AccessDeniedException if the teacher is not the author of the course.
+     */
+    private Problem authorizedProblem(Long lessonId, User teacher) {
+        Problem problem = problemRepository.findByLessonId(lessonId)
+                .orElseThrow(() -> new IllegalArgumentException("Problem not found"));
+        if (!problem.getLesson().getCourse().getAuthor().getId().equals(teacher.getId())) {
+            throw new AccessDeniedException("Not authorized");
+        }
+        return problem;
+    }
 
-        // Create Problem
-        Problem problem = Problem.builder()
-                .lesson(lesson)
+    /**
+     * The problem as the request defines it, not attached to a lesson yet.
+     */
+    private static Problem toProblem(CreateProblemRequest request) {
+        return Problem.builder()
                 .className(request.getClassName())
                 .methodName(request.getMethodName())
                 .methodSignature(request.getMethodSignature())
+                .helperCode(blankToNull(request.getHelperCode()))
+                .parallelTests(request.isParallelTests())
+                .performanceGraded(request.isPerformanceGraded())
+                .referenceSolution(blankToNull(request.getReferenceSolution()))
+                .maxSlowdown(request.getMaxSlowdown())
                 .starterCode(request.getStarterCode())
                 .build();
+    }
 
-        // Maps test cases (DTO -> Entity)
-        Problem finalProblem = problem; // variable used in lambda must be final
-        List<TestCase> testCases = request.getTestCases().stream()
-                .map(dto -> TestCase.builder()
-                        .problem(finalProblem)
-                        .inputData(dto.getInputData())
-                        .expectedOutput(dto.getExpectedOutput())
-                        .build())
-                .collect(Collectors.toList());
-        
-        problem.setTestCases(testCases);
-
-        // Save problem
-        problemRepository.save(problem);
-        
-        log.info("Created practice lesson '{}' with {} tests", lesson.getTitle(), testCases.size());
-    }
-
-    @Transactional
-    public void updatePractice(Long lessonId, CreateProblemRequest request, User teacher) {
-        // Get problem
-        Problem problem = problemRepository.findByLessonId(lessonId)
-                .orElseThrow(() -> new IllegalArgumentException("Problem not found"));
-        
-        Lesson lesson = problem.getLesson();
+    /**
+     * Compares the saved problem with the request on everything that the verdict of a solution depends on:
+     * the method definition, the helper types, the performance check and the tests.
+     */
+    private boolean definitionChanged(Problem problem, CreateProblemRequest request, List<String> generators) {
+        return !Objects.equals(problem.getClassName(), request.getClassName())
+                || !Objects.equals(problem.getMethodName(), request.getMethodName())
+                || !Objects.equals(problem.getMethodSignature(), request.getMethodSignature())
+                || !Objects.equals(problem.getHelperCode(), blankToNull(request.getHelperCode()))
+                || problem.isPerformanceGraded() != request.isPerformanceGraded()
+                || !Objects.equals(problem.getReferenceSolution(), blankToNull(request.getReferenceSolution()))
+                || Double.compare(problem.getMaxSlowdown(), request.getMaxSlowdown()) != 0
+                || testsChanged(problem.getTestCases(), request.getTestCases(), generators);
+    }
 
-        // Check author
-        if (!lesson.getCourse().getAuthor().getId().equals(teacher.getId())) {
-            throw new AccessDeniedException("Not authorized");
+    /**
+     * Hand-written tests are compared on their full input and expected output, generated ones on their generator
+     * line: their expected outputs only depend on it and on the reference solution.
+     */
+    private boolean testsChanged(List<TestCase> saved, List<CreateTestCaseRequest> written, List<String> generators) {
+        List<TestCase> savedWritten = saved.stream().filter(test -> test.getGenerator() == null).toList();
+        List<String> savedGenerators = saved.stream().map(TestCase::getGenerator).filter(Objects::nonNull).toList();
+        if (savedWritten.size() != written.size() || !savedGenerators.equals(generators)) {
+            return true;
         }
+        for (int i = 0; i < written.size(); i++) {
+            if (!Objects.equals(testDataStore.inputText(savedWritten.get(i)), written.get(i).getInputData())
+                    || !Objects.equals(testDataStore.expectedText(savedWritten.get(i)), written.get(i).getExpectedOutput())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses every test input against the signature and encodes it for storage.
+     *
+     * @throws IllegalArgumentException naming the signature or the first invalid test.
+     */
+    private List<byte[]> encodeTestInputs(CreateProblemRequest request) {
+        List<TestDataCodec.Type> types = parseSignature(request);
+        List<byte[]> encoded = new ArrayList<>();
+        List<CreateTestCaseRequest> tests = request.getTestCases();
+        for (int i = 0; i < tests.size(); i++) {
+            try {
+                encoded.add(TestDataCodec.encode(types, tests.get(i).getInputData()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Test #" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Checks the generator lines against the signature. Their inputs are only produced when the tests run.
+     *
+     * @return The non-blank lines, in order.
+     * @throws IllegalArgumentException naming the first invalid generator.
+     */
+    private List<String> parseGenerators(CreateProblemRequest request) {
+        List<String> generators = generatorLines(request);
+        if (generators.isEmpty()) {
+            return generators;
+        }
+        List<TestDataCodec.Type> types = parseSignature(request);
+        for (int i = 0; i < generators.size(); i++) {
+            try {
+                InputGenerator.parse(types, generators.get(i));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Generator #" + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        return generators;
+    }
 
-        // Update lesson
-        lesson.setTitle(request.getTitle());
-        lesson.setContent(request.getContent());
-        lesson.setOrderIndex(request.getOrderIndex());
-        lessonRepository.save(lesson);
-
-        // Update problem
-        problem.setClassName(request.getClassName());
-        problem.setMethodName(request.getMethodName());
-        problem.setMethodSignature(request.getMethodSignature());
-        problem.setStarterCode(request.getStarterCode());
-
-        // Update tests
-        problem.getTestCases().clear();
-        
-        List<TestCase> newTests = request.getTestCases().stream()
-                .map(dto -> TestCase.builder()
-                        .problem(problem)
-                        .inputData(dto.getInputData())
-                        .expectedOutput(dto.getExpectedOutput())
-                        .build())
-                .collect(Collectors.toList());
-        
-        problem.getTestCases().addAll(newTests);
-
-        problemRepository.save(problem);
-    }
-}
\ No newline at end of file
+    private static List<String> generatorLines(CreateProblemRequest request) {
+        if (request.getGenerators() == null || request.getGenerators().isBlank()) {
+            return List.of();
+        }
+        return request.getGenerators().lines().map(String::strip).filter(line -> !line.isEmpty()).toList();
+    }
+
+    private List<TestDataCodec.Type> parseSignature(CreateProblemRequest request) {
+        try {
+            return TestDataCodec.parseSignature(request.getMethodSignature());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Signature: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compiles the helper types now, so that Runs find them in the cache.
+     *
+     * @throws IllegalArgumentException with the first compilation error.
+     */
+    private HelperLibrary compileHelpers(CreateProblemRequest request) {
+        try {
+            return helperLibraryCache.get(request.getHelperCode());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Helper types: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A performance-graded problem or one with generated tests needs a reference solution that
+     * compiles; a performance-graded one also a sensible slowdown factor.
+     *
+     * @throws IllegalArgumentException describing the first problem found.
+     */
+    private void checkReferenceSolution(CreateProblemRequest request, boolean generatedTests, HelperLibrary library) {
+        if (!request.isPerformanceGraded() && !generatedTests) {
+            return;
+        }
+        if (blankToNull(request.getReferenceSolution()) == null) {
+            throw new IllegalArgumentException((request.isPerformanceGraded() ? "Performance check" : "Generated tests")
+                    + ": a reference solution is required");
+        }
+        if (request.isPerformanceGraded() && !(request.getMaxSlowdown() >= 1.0)) {
+            throw new IllegalArgumentException("Performance check: the allowed slowdown must be at least 1");
+        }
+        try {
+            inMemoryCompiler.compile(request.getClassName(), request.getReferenceSolution(), library);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Reference solution: " + e.getMessage(), e);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * Hand-written tests first, then generated ones, whose expected outputs are still missing.
+     */
+    private List<TestCase> toTestCases(CreateProblemRequest request, List<byte[]> encodedInputs, List<String> generators) {
+        List<TestCase> testCases = new ArrayList<>();
+        for (int i = 0; i < request.getTestCases().size(); i++) {
+            CreateTestCaseRequest dto = request.getTestCases().get(i);
+            testCases.add(TestCase.builder()
+                    .inputData(dto.getInputData())
+                    .encodedInput(encodedInputs.get(i))
+                    .expectedOutput(dto.getExpectedOutput())
+                    .build());
+        }
+        for (String generator : generators) {
+            testCases.add(TestCase.builder()
+                    .generator(generator)
+                    .build());
+        }
+        return testCases;
+    }
+
+    /**
+     * Runs the reference solution once and saves its results as the expected outputs of the
+     * generated tests. It must also pass the hand-written tests. Called outside of transactions:
+     * it waits for an execution worker and can run up to the submission time limit.
+     *
+     * @throws IllegalArgumentException if the reference solution fails.
+     */
+    private void recordExpectedOutputs(Problem problem, List<TestCase> testCases) {
+        if (testCases.stream().allMatch(test -> test.getGenerator() == null)) {
+            return;
+        }
+        List<TestInput> inputs = testCases.stream()
+                .map(test -> new TestInput(test.getInputData(), test.getExpectedOutput(), test.getEncodedInput(), test.getGenerator()))
+                .toList();
+        List<String> outputs = codeExecutionService.recordExpectedOutputs(problem.getReferenceSolution(), problem, inputs);
+        for (int i = 0; i < testCases.size(); i++) {
+            if (testCases.get(i).getGenerator() != null) {
+                testCases.get(i).setExpectedOutput(outputs.get(i));
+            }
+        }
+        log.info("Recorded expected outputs of {} generated tests",
+                testCases.stream().filter(test -> test.getGenerator() != null).count());
+    }
+}
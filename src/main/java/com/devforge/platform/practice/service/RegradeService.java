@@ -0,0 +1,288 @@
+package com.devforge.platform.practice.service;
+
+import com.devforge.platform.enrollment.domain.LessonProgress;
+import com.devforge.platform.enrollment.repository.LessonProgressRepository;
+import com.devforge.platform.enrollment.service.EnrollmentService;
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.repository.ProblemRepository;
+import com.devforge.platform.practice.runner.TestListener;
+import com.devforge.platform.practice.service.execution.ExecutionPriority;
+import com.devforge.platform.practice.web.dto.RegradeStatusResponse;
+import com.devforge.platform.user.domain.User;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-runs the accepted solutions of a practice lesson after its tests change.
+ * <p>
+ * Every completion keeps the code that passed and the tests version it passed. A regrade pass
+ * reruns the completions that are behind the current version, a page at a time, in the
+ * {@link ExecutionPriority#BACKGROUND background lane} of the execution engine, so live Runs
+ * overtake it; the performance check is skipped there. Code that still passes is stamped with
+ * the new version; code that fails loses its completion. Code without a conclusive verdict (time
+ * limit, runner unavailable) is retried by another pass, and after {@value #MAX_ATTEMPTS} attempts
+ * keeps its completion.
+ * <p>
+ * The state lives in the database, so a pass interrupted by a restart resumes at startup.
+ * Progress is kept in memory per problem.
+ */
+@Service
+@Slf4j
+public class RegradeService {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final ProblemRepository problemRepository;
+    private final LessonProgressRepository lessonProgressRepository;
+    private final EnrollmentService enrollmentService;
+    private final CodeExecutionService codeExecutionService;
+    private final TransactionTemplate transactionTemplate;
+    // Runs the passes one at a time
+    private final ExecutorService scheduler;
+    private final Map<Long, RegradeJob> jobs = new ConcurrentHashMap<>();
+
+    public RegradeService(ProblemRepository problemRepository,
+                          LessonProgressRepository lessonProgressRepository,
+                          EnrollmentService enrollmentService,
+                          CodeExecutionService codeExecutionService,
+                          TransactionTemplate transactionTemplate) {
+        this.problemRepository = problemRepository;
+        this.lessonProgressRepository = lessonProgressRepository;
+        this.enrollmentService = enrollmentService;
+        this.codeExecutionService = codeExecutionService;
+        this.transactionTemplate = transactionTemplate;
+        this.scheduler = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "regrade-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts regrading the problem once the current transaction commits (the workers must see the new tests).
+     * If a pass is already running, it restarts with the new tests.
+     */
+    public void schedule(Long problemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(problemId);
+                }
+            });
+        } else {
+            enqueue(problemId);
+        }
+    }
+
+    /**
+     * Resumes the passes that a shutdown interrupted.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<Long> problemIds = problemRepository.findIdsWithPendingRegrades();
+        if (!problemIds.isEmpty()) {
+            log.info("Resuming regrades of {} problems", problemIds.size());
+            problemIds.forEach(this::enqueue);
+        }
+    }
+
+    /**
+     * @throws AccessDeniedException if the teacher is not the author of the course.
+     */
+    public RegradeStatusResponse getStatus(Long lessonId, User teacher) {
+        return transactionTemplate.execute(status -> {
+            Problem problem = problemRepository.findByLessonId(lessonId)
+                    .orElseThrow(() -> new IllegalArgumentException("Problem not found"));
+            if (!problem.getLesson().getCourse().getAuthor().getId().equals(teacher.getId())) {
+                throw new AccessDeniedException("Not authorized");
+            }
+
+            RegradeJob job = jobs.get(problem.getId());
+            if (job == null) {
+                long pending = lessonProgressRepository.countToRegrade(lessonId, problem.getTestsVersion());
+                return new RegradeStatusResponse(pending > 0 ? "QUEUED" : "IDLE", problem.getTestsVersion(), pending, 0, 0, 0);
+            }
+            return job.toResponse();
+        });
+    }
+
+    private void enqueue(Long problemId) {
+        RegradeJob job = jobs.computeIfAbsent(problemId, RegradeJob::new);
+        if (job.pending.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                try {
+                    regrade(job);
+                } catch (RuntimeException e) {
+                    log.error("Regrade of problem {} failed", problemId, e);
+                    job.state = "FINISHED";
+                }
+            });
+        }
+    }
+
+    private void regrade(RegradeJob job) {
+        // Set again by a change of the tests while this pass runs: the pass stops and another one starts
+        job.pending.set(false);
+
+        Problem problem = transactionTemplate.execute(status -> {
+            Problem p = problemRepository.findById(job.problemId).orElse(null);
+            if (p != null) {
+                // The harness may have to be prepared outside of the session
+                p.getTestCases().size();
+            }
+            return p;
+        });
+        if (problem == null) {
+            jobs.remove(job.problemId);
+            return;
+        }
+
+        Long lessonId = problem.getLesson().getId();
+        int testsVersion = problem.getTestsVersion();
+        job.start(testsVersion, lessonProgressRepository.countToRegrade(lessonId, testsVersion));
+        log.info("Regrading {} completions of problem {} against tests version {}", job.total.get(), job.problemId, testsVersion);
+
+        Long afterId = 0L;
+        List<Long> ids;
+        while (!job.pending.get()
+                && !(ids = lessonProgressRepository.findIdsToRegrade(lessonId, testsVersion, afterId, Limit.of(PAGE_SIZE))).isEmpty()) {
+            List<CompletableFuture<CodeExecutionService.ExecutionResult>> results = new ArrayList<>(ids.size());
+            List<Long> regraded = new ArrayList<>(ids.size());
+            for (Long progressId : ids) {
+                String source = lessonProgressRepository.findById(progressId)
+                        .map(LessonProgress::getAcceptedSource)
+                        .orElse(null);
+                if (source == null) {
+                    job.processed.incrementAndGet();
+                    continue;
+                }
+                results.add(codeExecutionService.submit(source, problem, ExecutionPriority.BACKGROUND, TestListener.NONE));
+                regraded.add(progressId);
+            }
+            for (int i = 0; i < regraded.size(); i++) {
+                try {
+                    apply(job, testsVersion, regraded.get(i), results.get(i).get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException | RuntimeException e) {
+                    log.error("Regrade of a completion of problem {} failed", job.problemId, e);
+                    defer(job, testsVersion, regraded.get(i));
+                }
+            }
+            afterId = ids.getLast();
+        }
+
+        job.state = "FINISHED";
+        log.info("Regraded problem {}: {} processed, {} revoked, {} deferred",
+                job.problemId, job.processed.get(), job.revoked.get(), job.deferred.get());
+        if (job.deferred.get() > 0) {
+            // Bounded: every deferral counts an attempt, and the last one settles the completion
+            enqueue(job.problemId);
+        }
+    }
+
+    private void apply(RegradeJob job, int testsVersion, Long progressId, CodeExecutionService.ExecutionResult result) {
+        if (!result.conclusive()) {
+            defer(job, testsVersion, progressId);
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!result.success()) {
+                enrollmentService.revokeLessonCompletion(progressId);
+                job.revoked.incrementAndGet();
+            }
+            lessonProgressRepository.findById(progressId).ifPresent(progress -> {
+                progress.setAcceptedTestsVersion(testsVersion);
+                progress.setRegradeAttempts(0);
+                lessonProgressRepository.save(progress);
+            });
+        });
+        job.processed.incrementAndGet();
+    }
+
+    /**
+     * Leaves the completion behind the current version for the next pass, unless it ran out of attempts:
+     * a student keeps the completion rather than losing it to a loaded machine.
+     */
+    private void defer(RegradeJob job, int testsVersion, Long progressId) {
+        boolean settled = Boolean.TRUE.equals(transactionTemplate.execute(status ->
+                lessonProgressRepository.findById(progressId).map(progress -> {
+                    int attempts = progress.getRegradeAttempts() + 1;
+                    boolean last = attempts >= MAX_ATTEMPTS;
+                    if (last) {
+                        progress.setAcceptedTestsVersion(testsVersion);
+                    }
+                    progress.setRegradeAttempts(last ? 0 : attempts);
+                    lessonProgressRepository.save(progress);
+                    return last;
+                }).orElse(true)));
+        if (settled) {
+            log.warn("No conclusive verdict for completion {} of problem {} after {} attempts, keeping it",
+                    progressId, job.problemId, MAX_ATTEMPTS);
+            job.processed.incrementAndGet();
+        } else {
+            job.deferred.incrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Progress of the latest regrade pass of one problem.
+     */
+    private static final class RegradeJob {
+
+        private final Long problemId;
+        private final AtomicBoolean pending = new AtomicBoolean();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong revoked = new AtomicLong();
+        private final AtomicLong deferred = new AtomicLong();
+        private volatile String state = "QUEUED";
+        private volatile int testsVersion;
+
+        private RegradeJob(Long problemId) {
+            this.problemId = problemId;
+        }
+
+        private void start(int version, long count) {
+            testsVersion = version;
+            total.set(count);
+            processed.set(0);
+            revoked.set(0);
+            deferred.set(0);
+            state = "RUNNING";
+        }
+
+        private RegradeStatusResponse toResponse() {
+            String current = pending.get() ? "QUEUED" : state;
+            return new RegradeStatusResponse(current, testsVersion, total.get(), processed.get(), revoked.get(), deferred.get());
+        }
+    }
+}
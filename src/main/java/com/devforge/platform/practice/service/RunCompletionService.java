@@ -0,0 +1,109 @@
+package com.devforge.platform.practice.service;
+
+import com.devforge.platform.enrollment.service.EnrollmentService;
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.runner.Verdict;
+import com.devforge.platform.practice.web.dto.RunCodeResponse;
+import com.devforge.platform.user.domain.Role;
+import com.devforge.platform.user.domain.User;
+import com.devforge.platform.user.service.UserService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * What happens when a Run finishes, on whichever node ran it: the attempt goes to the history,
+ * a student whose code passed completes the lesson, and the verdict becomes the message shown
+ * in the classroom.
+ * <p>
+ * Asynchronous Runs are completed on a few threads of their own, so that execution workers go
+ * back to running code instead of waiting for these transactions.
+ */
+@Service
+public class RunCompletionService {
+
+    private static final int THREADS = 2;
+
+    private final SubmissionRecorder submissionRecorder;
+    private final EnrollmentService enrollmentService;
+    private final UserService userService;
+    private final ExecutorService executor;
+
+    public RunCompletionService(SubmissionRecorder submissionRecorder,
+                                EnrollmentService enrollmentService,
+                                UserService userService) {
+        this.submissionRecorder = submissionRecorder;
+        this.enrollmentService = enrollmentService;
+        this.userService = userService;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "run-completion-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Completes the Run once its execution ends, on the completion threads.
+     *
+     * @return Future completed with the response, or exceptionally if the execution or its completion failed.
+     */
+    public CompletableFuture<RunCodeResponse> completeAsync(CompletableFuture<CodeExecutionService.ExecutionResult> execution,
+                                                           Long userId, Problem problem, Long courseId, Long lessonId,
+                                                           String code) {
+        return whenExecuted(execution, result -> complete(userId, problem, courseId, lessonId, code, result));
+    }
+
+    /**
+     * Runs {@code completion} on the completion threads once the execution ends, for callers that
+     * complete the Run together with state of their own.
+     *
+     * @return Future completed with the completion's result, or exceptionally if the execution or the completion failed.
+     */
+    public <T> CompletableFuture<T> whenExecuted(CompletableFuture<CodeExecutionService.ExecutionResult> execution,
+                                                 Function<CodeExecutionService.ExecutionResult, T> completion) {
+        return execution.handleAsync((result, error) -> {
+            if (error != null) {
+                throw error instanceof CompletionException wrapped ? wrapped : new CompletionException(error);
+            }
+            return completion.apply(result);
+        }, executor);
+    }
+
+    /**
+     * @param userId   Reloaded here: a user loaded when the Run was queued may be stale by now (XP, role).
+     * @param problem  The problem as it ran; only its id and tests version are used.
+     * @param courseId Course of the lesson, resolved by the caller (lazy associations may not be loadable here).
+     */
+    public RunCodeResponse complete(Long userId, Problem problem, Long courseId, Long lessonId, String code,
+                                    CodeExecutionService.ExecutionResult result) {
+        User user = userService.getById(userId);
+        submissionRecorder.record(user, problem, code, result);
+
+        if (result.success()) {
+            if (user.getRole() == Role.STUDENT) {
+                enrollmentService.markLessonAsComplete(user, courseId, lessonId, code, problem.getTestsVersion());
+            }
+            return new RunCodeResponse(true, "All tests passed! 🏆", result.logs());
+        } else if (result.verdict() == Verdict.TIME_LIMIT_EXCEEDED) {
+            return new RunCodeResponse(false, "Time limit exceeded. ⏱", result.logs());
+        } else if (result.verdict() == Verdict.OUTPUT_LIMIT_EXCEEDED) {
+            return new RunCodeResponse(false, "Output limit exceeded. 📛", result.logs());
+        } else if (result.verdict() == Verdict.TOO_SLOW) {
+            return new RunCodeResponse(false, "Correct, but too slow. Look for a faster algorithm. 🐢", result.logs());
+        } else {
+            return new RunCodeResponse(false, "Tests failed. Check logs below. ❌", result.logs());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,128 @@
+package com.devforge.platform.practice.service;
+
+import com.devforge.platform.practice.runner.TestReport;
+import com.devforge.platform.practice.web.dto.RunCodeResponse;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory state of one asynchronous Run: test results received so far, the final
+ * result once available, and the SSE connections following it. With the durable queue,
+ * it mirrors the {@code execution_job} row that a runner node updates.
+ */
+@Slf4j
+public class SubmissionJob {
+
+    public enum Status { RUNNING, FINISHED }
+
+    @Getter
+    private final String id;
+    @Getter
+    private final Long userId;
+    private final List<TestReport> tests = new ArrayList<>();
+    private final List<SseEmitter> emitters = new ArrayList<>();
+    private RunCodeResponse result;
+    private Instant finishedAt;
+
+    SubmissionJob(String id, Long userId) {
+        this.id = id;
+        this.userId = userId;
+    }
+
+    public synchronized Status getStatus() {
+        return result == null ? Status.RUNNING : Status.FINISHED;
+    }
+
+    public synchronized List<TestReport> getTests() {
+        return List.copyOf(tests);
+    }
+
+    public synchronized RunCodeResponse getResult() {
+        return result;
+    }
+
+    synchronized int testCount() {
+        return tests.size();
+    }
+
+    /**
+     * Waits for the result.
+     *
+     * @return The result, or null if the job has not finished in time.
+     */
+    synchronized RunCodeResponse await(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (result == null) {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                return null;
+            }
+            wait(remainingMillis);
+        }
+        return result;
+    }
+
+    synchronized boolean isExpired(Instant threshold) {
+        return finishedAt != null && finishedAt.isBefore(threshold);
+    }
+
+    synchronized void addTest(TestReport report) {
+        tests.add(report);
+        emitters.removeIf(emitter -> !send(emitter, "test", report));
+    }
+
+    synchronized void finish(RunCodeResponse response) {
+        result = response;
+        finishedAt = Instant.now();
+        notifyAll();
+        for (SseEmitter emitter : emitters) {
+            if (send(emitter, "result", response)) {
+                emitter.complete();
+            }
+        }
+        emitters.clear();
+    }
+
+    /**
+     * Replays what already happened to the new subscriber, then keeps it updated.
+     */
+    synchronized void subscribe(SseEmitter emitter) {
+        for (TestReport report : tests) {
+            if (!send(emitter, "test", report)) {
+                return;
+            }
+        }
+        if (result != null) {
+            if (send(emitter, "result", result)) {
+                emitter.complete();
+            }
+            return;
+        }
+        emitters.add(emitter);
+        emitter.onCompletion(() -> removeEmitter(emitter));
+        emitter.onTimeout(() -> removeEmitter(emitter));
+    }
+
+    private synchronized void removeEmitter(SseEmitter emitter) {
+        emitters.remove(emitter);
+    }
+
+    private boolean send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Client of submission {} went away: {}", id, e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.devforge.platform.practice.service;
+
+import com.devforge.platform.practice.domain.ExecutionJob;
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.repository.ExecutionJobRepository;
+import com.devforge.platform.practice.runner.TestReport;
+import com.devforge.platform.practice.service.execution.ExecutionPriority;
+import com.devforge.platform.practice.service.execution.ExecutionRejectedException;
+import com.devforge.platform.practice.web.dto.RunCodeResponse;
+import com.devforge.platform.user.domain.User;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asynchronous Runs: the request thread only queues the submission and returns its id,
+ * progress is delivered to the browser over SSE (or polled).
+ * <p>
+ * With {@code practice.queue.mode: memory} jobs run on this node's execution engine and live in
+ * memory on the node that accepted them. With {@code database} they are rows of the durable
+ * {@code execution_job} table, run by nodes with the {@code runner} profile
+ * ({@link ExecutionJobWorker}); this node only inserts them and follows the rows it has clients
+ * for, every {@code practice.queue.poll-interval-ms}. Either way, jobs are dropped from memory
+ * {@code practice.submissions.retention-minutes} after they finish.
+ */
+@Service
+@Slf4j
+public class SubmissionJobService {
+
+    private static final long EMITTER_TIMEOUT_MS = Duration.ofMinutes(5).toMillis();
+    // How long a synchronous Run waits for a runner node
+    private static final Duration RUN_TIMEOUT = Duration.ofMinutes(2);
+    private static final long QUEUE_FULL_RETRY_SECONDS = 5;
+
+    private final CodeExecutionService codeExecutionService;
+    private final RunCompletionService runCompletionService;
+    private final ExecutionJobRepository executionJobRepository;
+    private final Duration retention;
+    private final boolean durable;
+    private final int maxQueued;
+    private final long pollIntervalMillis;
+    private final Map<String, SubmissionJob> jobs = new ConcurrentHashMap<>();
+    private final Thread follower;
+
+    public SubmissionJobService(CodeExecutionService codeExecutionService,
+                                RunCompletionService runCompletionService,
+                                ExecutionJobRepository executionJobRepository,
+                                @Value("${practice.submissions.retention-minutes:15}") long retentionMinutes,
+                                @Value("${practice.queue.mode:memory}") String queueMode,
+                                @Value("${practice.queue.max-queued:1000}") int maxQueued,
+                                @Value("${practice.queue.poll-interval-ms:200}") long pollIntervalMillis) {
+        this.codeExecutionService = codeExecutionService;
+        this.runCompletionService = runCompletionService;
+        this.executionJobRepository = executionJobRepository;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        this.durable = "database".equalsIgnoreCase(queueMode.trim());
+        this.maxQueued = maxQueued;
+        this.pollIntervalMillis = pollIntervalMillis;
+
+        if (durable) {
+            this.follower = new Thread(this::followLoop, "submission-follower");
+            this.follower.setDaemon(true);
+            this.follower.start();
+        } else {
+            this.follower = null;
+        }
+    }
+
+    /**
+     * Runs the code and waits for the result.
+     *
+     * @throws ExecutionRejectedException if the execution queue is full.
+     */
+    public RunCodeResponse run(User user, Problem problem, Long courseId, Long lessonId, String code,
+                               ExecutionPriority priority) {
+        if (!durable) {
+            var result = codeExecutionService.executeWithLogs(code, problem, priority);
+            return runCompletionService.complete(user.getId(), problem, courseId, lessonId, code, result);
+        }
+        SubmissionJob job = submit(user, problem, courseId, lessonId, code, priority);
+        try {
+            RunCodeResponse response = job.await(RUN_TIMEOUT);
+            if (response != null) {
+                return response;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new RunCodeResponse(false, "Your Run is still waiting for a free runner. Check back in a moment. ⏳", "");
+    }
+
+    /**
+     * Queues the code for execution. When it finishes, {@link RunCompletionService} records it
+     * and turns the result into the response shown to the student.
+     *
+     * @param courseId Course of the lesson, resolved on the request thread.
+     * @param priority Lane of the execution engine to queue in.
+     * @return The new job.
+     * @throws ExecutionRejectedException if the execution queue is full.
+     */
+    public SubmissionJob submit(User user, Problem problem, Long courseId, Long lessonId, String code,
+                                ExecutionPriority priority) {
+        evictExpired();
+        if (durable) {
+            return enqueue(user, problem, courseId, lessonId, code, priority);
+        }
+
+        SubmissionJob job = new SubmissionJob(UUID.randomUUID().toString(), user.getId());
+        jobs.put(job.getId(), job);
+
+        CompletableFuture<CodeExecutionService.ExecutionResult> future;
+        try {
+            future = codeExecutionService.submit(code, problem, priority, job::addTest);
+        } catch (ExecutionRejectedException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        // Completed on the completion threads: the execution worker is free as soon as the code has run
+        runCompletionService.completeAsync(future, user.getId(), problem, courseId, lessonId, code)
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.error("Submission {} failed", job.getId(), error);
+                        response = new RunCodeResponse(false, "Execution failed. Please try again.", "");
+                    }
+                    job.finish(response);
+                });
+        return job;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the job does not exist (or has expired).
+     * @throws AccessDeniedException    if the job belongs to another user.
+     */
+    public SubmissionJob getJob(String id, User user) {
+        SubmissionJob job = jobs.get(id);
+        if (job == null && durable) {
+            // Queued through another web node
+            job = executionJobRepository.findById(id)
+                    .map(row -> jobs.computeIfAbsent(id, ignored -> mirror(row)))
+                    .orElse(null);
+        }
+        if (job == null) {
+            throw new IllegalArgumentException("Submission not found");
+        }
+        if (!job.getUserId().equals(user.getId())) {
+            throw new AccessDeniedException("Not your submission");
+        }
+        return job;
+    }
+
+    /**
+     * Opens an SSE stream with "test" events for finished tests and a final "result" event.
+     */
+    public SseEmitter subscribe(String id, User user) {
+        SubmissionJob job = getJob(id, user);
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        job.subscribe(emitter);
+        return emitter;
+    }
+
+    private SubmissionJob enqueue(User user, Problem problem, Long courseId, Long lessonId, String code,
+                                  ExecutionPriority priority) {
+        if (executionJobRepository.countByStatus(ExecutionJob.Status.QUEUED) >= maxQueued) {
+            throw new ExecutionRejectedException("Execution queue is full", QUEUE_FULL_RETRY_SECONDS);
+        }
+        ExecutionJob row = executionJobRepository.save(ExecutionJob.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(user.getId())
+                .problemId(problem.getId())
+                .courseId(courseId)
+                .lessonId(lessonId)
+                .sourceCode(code)
+                .priority(priority)
+                .status(ExecutionJob.Status.QUEUED)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        SubmissionJob job = new SubmissionJob(row.getId(), user.getId());
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private SubmissionJob mirror(ExecutionJob row) {
+        SubmissionJob job = new SubmissionJob(row.getId(), row.getUserId());
+        update(job, row);
+        return job;
+    }
+
+    /**
+     * Brings the unfinished jobs of this node up to date with their rows.
+     */
+    private void followLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<String> ids = jobs.values().stream()
+                        .filter(job -> job.getStatus() == SubmissionJob.Status.RUNNING)
+                        .map(SubmissionJob::getId)
+                        .toList();
+                if (!ids.isEmpty()) {
+                    Map<String, ExecutionJob> rows = new HashMap<>();
+                    executionJobRepository.findAllById(ids).forEach(row -> rows.put(row.getId(), row));
+                    for (String id : ids) {
+                        SubmissionJob job = jobs.get(id);
+                        ExecutionJob row = rows.get(id);
+                        if (job == null) {
+                            continue;
+                        }
+                        if (row == null) {
+                            job.finish(new RunCodeResponse(false, "Execution failed. Please try again.", ""));
+                        } else {
+                            update(job, row);
+                        }
+                    }
+                }
+                Thread.sleep(pollIntervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Cannot follow queued submissions: {}", e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMillis * 10);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void update(SubmissionJob job, ExecutionJob row) {
+        List<TestReport> tests = row.getTests();
+        for (int i = job.testCount(); i < tests.size(); i++) {
+            job.addTest(tests.get(i));
+        }
+        if (row.getStatus() == ExecutionJob.Status.FINISHED && job.getStatus() == SubmissionJob.Status.RUNNING) {
+            job.finish(new RunCodeResponse(Boolean.TRUE.equals(row.getResultSuccess()), row.getResultMessage(),
+                    row.getResultLogs() != null ? row.getResultLogs() : ""));
+        }
+    }
+
+    private void evictExpired() {
+        Instant threshold = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isExpired(threshold));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (follower != null) {
+            follower.interrupt();
+        }
+    }
+}
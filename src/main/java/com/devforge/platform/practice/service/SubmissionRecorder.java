@@ -0,0 +1,148 @@
+package com.devforge.platform.practice.service;
+
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.domain.Submission;
+import com.devforge.platform.practice.domain.TestTiming;
+import com.devforge.platform.practice.repository.SubmissionRepository;
+import com.devforge.platform.practice.runner.TestReport;
+import com.devforge.platform.practice.runner.Verdict;
+import com.devforge.platform.user.domain.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persists every Run as a {@link Submission} without slowing the Run down.
+ * <p>
+ * Callers only queue the record. A single writer thread drains the queue and inserts up to
+ * {@code practice.history.batch-size} rows per transaction, so the JDBC driver sends them as one
+ * batch; the deflating of source and logs happens there too. When the database falls behind and
+ * the queue is full, new records are dropped (and counted) rather than blocking students.
+ */
+@Service
+@Slf4j
+public class SubmissionRecorder {
+
+    private final SubmissionRepository submissionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final BlockingQueue<Submission> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public SubmissionRecorder(SubmissionRepository submissionRepository,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${practice.history.queue-capacity:10000}") int queueCapacity,
+                              @Value("${practice.history.batch-size:500}") int batchSize,
+                              @Value("${practice.history.flush-interval-ms:1000}") long flushIntervalMillis) {
+        this.submissionRepository = submissionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        FunctionCounter.builder("practice.history.submissions", recorded, AtomicLong::get)
+                .tag("result", "recorded")
+                .description("Submissions written to the history")
+                .register(meterRegistry);
+        FunctionCounter.builder("practice.history.submissions", dropped, AtomicLong::get)
+                .tag("result", "dropped")
+                .description("Submissions lost because the history queue was full or the insert failed")
+                .register(meterRegistry);
+        Gauge.builder("practice.history.queue", queue, BlockingQueue::size)
+                .description("Submissions waiting to be written")
+                .register(meterRegistry);
+
+        this.writer = new Thread(this::writeLoop, "submission-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues the Run for storage. Never blocks.
+     */
+    public void record(User user, Problem problem, String sourceCode, CodeExecutionService.ExecutionResult result) {
+        List<TestTiming> timings = new ArrayList<>(result.tests().size());
+        int passed = 0;
+        for (TestReport test : result.tests()) {
+            timings.add(new TestTiming(test.verdict(), test.wallMillis(), test.cpuMillis()));
+            if (test.verdict() == Verdict.PASSED) {
+                passed++;
+            }
+        }
+
+        Submission submission = Submission.builder()
+                .user(user)
+                .problem(problem)
+                .testsVersion(problem.getTestsVersion())
+                .verdict(result.verdict())
+                .testsRun(timings.size())
+                .testsPassed(passed)
+                .sourceCode(sourceCode)
+                .logs(result.logs())
+                .testTimings(timings)
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        if (!queue.offer(submission)) {
+            dropped.incrementAndGet();
+            log.debug("Submission history queue is full, dropping a submission of problem {}", problem.getId());
+        }
+    }
+
+    private void writeLoop() {
+        List<Submission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Submission first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+            } catch (InterruptedException e) {
+                // Woken up by shutdown(): write what is left
+                queue.drainTo(batch, batchSize);
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Submission> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> submissionRepository.saveAll(batch));
+            recorded.addAndGet(batch.size());
+        } catch (RuntimeException e) {
+            dropped.addAndGet(batch.size());
+            log.error("Failed to write {} submissions to the history", batch.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
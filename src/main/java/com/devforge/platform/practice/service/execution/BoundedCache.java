@@ -0,0 +1,113 @@
+package com.devforge.platform.practice.service.execution;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe LRU map bounded both by entry count and by the total weight of its values.
+ * Publishes {@code <metricPrefix>.requests{result=hit|miss}}, {@code .evictions}, {@code .size}
+ * and {@code .bytes}.
+ */
+class BoundedCache<V> {
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final ToLongFunction<V> weigher;
+
+    // Access-ordered: iteration starts from the least recently used entry
+    private final LinkedHashMap<String, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    BoundedCache(String metricPrefix, String description, int maxEntries, long maxBytes,
+                 ToLongFunction<V> weigher, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.weigher = weigher;
+
+        FunctionCounter.builder(metricPrefix + ".requests", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .description(description + " served from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder(metricPrefix + ".requests", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .description(description + " not found in the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder(metricPrefix + ".evictions", evictions, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".size", this, BoundedCache::size)
+                .description("Number of cached entries")
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".bytes", this, BoundedCache::bytes)
+                .description("Total size of the cached entries")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return The cached value, or null.
+     */
+    synchronized V get(String key) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    synchronized void put(String key, V value) {
+        long size = weigher.applyAsLong(value);
+        if (size > maxBytes) {
+            return;
+        }
+
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            totalBytes -= weigher.applyAsLong(previous);
+        }
+        totalBytes += size;
+
+        Iterator<Map.Entry<String, V>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || totalBytes > maxBytes) {
+            V evicted = eldest.next().getValue();
+            eldest.remove();
+            totalBytes -= weigher.applyAsLong(evicted);
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drops every entry whose key matches.
+     */
+    synchronized void removeIf(Predicate<String> keyFilter) {
+        Iterator<Map.Entry<String, V>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, V> entry = it.next();
+            if (keyFilter.test(entry.getKey())) {
+                totalBytes -= weigher.applyAsLong(entry.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long bytes() {
+        return totalBytes;
+    }
+}
@@ -0,0 +1,106 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.runner.BytecodeClassLoader;
+import com.devforge.platform.practice.runner.Watchdog;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Follows the per-submission class loaders of in-process executions until they are garbage collected.
+ * <p>
+ * A loader is live from its creation until the GC finds it unreachable, which also unloads its
+ * classes from Metaspace. Loaders are closed when their execution ends, so a live count well above
+ * the number of running executions means they are kept reachable (typically by an abandoned
+ * thread) or that no GC has run for a while. Past {@code practice.execution.max-live-class-loaders}
+ * a full GC is requested, at most once per {@code practice.execution.gc-interval-ms}.
+ */
+@Component
+@Slf4j
+public class ClassLoaderMonitor {
+
+    private final int maxLiveClassLoaders;
+    private final long gcIntervalNanos;
+
+    private final ReferenceQueue<BytecodeClassLoader> collected = new ReferenceQueue<>();
+    // Keeps the phantom references themselves reachable until they are enqueued
+    private final Set<Reference<BytecodeClassLoader>> tracked = ConcurrentHashMap.newKeySet();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong unloaded = new AtomicLong();
+    private final AtomicLong lastGc = new AtomicLong(System.nanoTime());
+
+    public ClassLoaderMonitor(@Value("${practice.execution.max-live-class-loaders:500}") int maxLiveClassLoaders,
+                              @Value("${practice.execution.gc-interval-ms:60000}") long gcIntervalMs,
+                              MeterRegistry meterRegistry) {
+        this.maxLiveClassLoaders = maxLiveClassLoaders;
+        this.gcIntervalNanos = TimeUnit.MILLISECONDS.toNanos(gcIntervalMs);
+
+        FunctionCounter.builder("practice.classloaders.created", created, AtomicLong::get)
+                .description("Per-submission class loaders created in this JVM")
+                .register(meterRegistry);
+        FunctionCounter.builder("practice.classloaders.unloaded", this, monitor -> monitor.drain())
+                .description("Per-submission class loaders garbage collected, together with their classes")
+                .register(meterRegistry);
+        Gauge.builder("practice.classloaders.live", this, ClassLoaderMonitor::live)
+                .description("Per-submission class loaders not yet garbage collected")
+                .register(meterRegistry);
+        Gauge.builder("practice.execution.abandoned-threads", Watchdog::abandonedThreads)
+                .description("Student threads that exceeded a limit and are still running in this JVM")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts following a loader created for an execution.
+     */
+    public BytecodeClassLoader track(BytecodeClassLoader loader) {
+        tracked.add(new PhantomReference<>(loader, collected));
+        created.incrementAndGet();
+        if (live() > maxLiveClassLoaders) {
+            requestGc();
+        }
+        return loader;
+    }
+
+    /**
+     * Loaders created but not yet collected.
+     */
+    public long live() {
+        return created.get() - drain();
+    }
+
+    /**
+     * Counts the loaders collected since the last call and returns the total.
+     */
+    private long drain() {
+        Reference<? extends BytecodeClassLoader> reference;
+        while ((reference = collected.poll()) != null) {
+            tracked.remove(reference);
+            unloaded.incrementAndGet();
+        }
+        return unloaded.get();
+    }
+
+    /**
+     * Closed loaders are only unloaded by a GC, which a server with a quiet heap may not run for hours.
+     */
+    private void requestGc() {
+        long last = lastGc.get();
+        long now = System.nanoTime();
+        if (now - last < gcIntervalNanos || !lastGc.compareAndSet(last, now)) {
+            return;
+        }
+        log.info("{} class loaders are live, requesting a GC to unload the closed ones", live());
+        System.gc();
+    }
+}
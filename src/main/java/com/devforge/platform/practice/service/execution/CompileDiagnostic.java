@@ -0,0 +1,19 @@
+package com.devforge.platform.practice.service.execution;
+
+/**
+ * A compiler message about student code, positioned for the editor to underline.
+ *
+ * @param severity    ERROR or WARNING.
+ * @param line        1-based line (-1 if the message has no position).
+ * @param column      1-based column.
+ * @param startOffset Character offset where the marked range starts (-1 if unknown).
+ * @param endOffset   Character offset where the marked range ends.
+ * @param message     The message, without file name or position.
+ */
+public record CompileDiagnostic(String severity, long line, long column, long startOffset, long endOffset,
+                                String message) {
+
+    long sizeInBytes() {
+        return 64 + 2L * message.length();
+    }
+}
@@ -0,0 +1,75 @@
+package com.devforge.platform.practice.service.execution;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * LRU cache of compiled bytecode, keyed by a hash of the class name, source and helper library.
+ * Repeated Runs of unchanged code (and identical starter code across students) skip javac.
+ * <p>
+ * Bounded both by entry count and by total bytecode size. Hit/miss counters are published
+ * as {@code practice.compile.cache.*} metrics.
+ */
+@Component
+public class CompiledClassCache {
+
+    private final BoundedCache<CompiledUnit> cache;
+
+    public CompiledClassCache(@Value("${practice.compile-cache.max-entries:2000}") int maxEntries,
+                              @Value("${practice.compile-cache.max-bytes:67108864}") long maxBytes,
+                              MeterRegistry meterRegistry) {
+        this.cache = new BoundedCache<>("practice.compile.cache", "Compilations", maxEntries, maxBytes,
+                CompiledUnit::sizeInBytes, meterRegistry);
+    }
+
+    /**
+     * Builds the cache key for a source file.
+     */
+    public static String key(String className, String sourceCode) {
+        return key(className, sourceCode, HelperLibrary.NONE);
+    }
+
+    /**
+     * Builds the cache key for a source file compiled against helper types.
+     */
+    public static String key(String className, String sourceCode, HelperLibrary library) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(className.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(sourceCode.getBytes(StandardCharsets.UTF_8));
+            if (!library.isEmpty()) {
+                digest.update((byte) 0);
+                digest.update(library.hash().getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return The cached unit, or null if the source has not been compiled yet.
+     */
+    public CompiledUnit get(String key) {
+        return cache.get(key);
+    }
+
+    public void put(String key, CompiledUnit unit) {
+        cache.put(key, unit);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long bytes() {
+        return cache.bytes();
+    }
+}
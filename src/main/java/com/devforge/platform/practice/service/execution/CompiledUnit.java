@@ -0,0 +1,58 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.runner.BytecodeClassLoader;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bytecode produced by compiling one student source file.
+ * Instances are immutable and shared between executions through {@link CompiledClassCache}.
+ *
+ * @param className Name of the main class (e.g. "Solution").
+ * @param classes   Class name -> bytecode, including nested classes.
+ * @param library   Helper types the source was compiled against.
+ */
+public record CompiledUnit(String className, Map<String, byte[]> classes, HelperLibrary library) {
+
+    public CompiledUnit {
+        classes = Map.copyOf(classes);
+    }
+
+    public CompiledUnit(String className, Map<String, byte[]> classes) {
+        this(className, classes, HelperLibrary.NONE);
+    }
+
+    /**
+     * Total bytecode size, used for memory-based cache eviction. The library is cached on its own.
+     */
+    public long sizeInBytes() {
+        long size = 0;
+        for (byte[] bytes : classes.values()) {
+            size += bytes.length;
+        }
+        return size;
+    }
+
+    /**
+     * The classes to define at run time: the helpers, and the student's own classes,
+     * which win if the student declared a helper type again.
+     */
+    public Map<String, byte[]> loadableClasses() {
+        if (library.isEmpty()) {
+            return classes;
+        }
+        Map<String, byte[]> all = new HashMap<>(library.classes());
+        all.putAll(classes);
+        return all;
+    }
+
+    /**
+     * A fresh class loader for the classes, so every execution gets its own copy of static state.
+     * Helpers are defined by the same loader, so package-private helpers are accessible.
+     * The caller closes it when the execution ends.
+     */
+    public BytecodeClassLoader newClassLoader() {
+        return new BytecodeClassLoader(loadableClasses(), ClassLoader.getSystemClassLoader());
+    }
+}
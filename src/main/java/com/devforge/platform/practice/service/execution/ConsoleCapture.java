@@ -0,0 +1,77 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.runner.ExecutionLimits;
+import com.devforge.platform.practice.runner.LogCapture;
+import com.devforge.platform.practice.runner.OutputRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.PrintStream;
+
+/**
+ * Routes {@code System.out} per thread, so concurrent executions capture their own output.
+ * <p>
+ * The routing stream ({@link OutputRouter}) is installed once at startup. Threads without an
+ * open {@link Session} write through to the original console. Threads started by student code
+ * inherit the capture of the thread that started them. Captures are bounded by the output
+ * limits of {@link ExecutionLimits}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConsoleCapture {
+
+    private final ExecutionLimits executionLimits;
+
+    private PrintStream console;
+
+    @PostConstruct
+    public void install() {
+        console = System.out;
+        System.setOut(OutputRouter.stream(console));
+    }
+
+    @PreDestroy
+    public void uninstall() {
+        System.out.flush();
+        System.setOut(console);
+    }
+
+    /**
+     * Starts capturing everything the current thread prints to {@code System.out}.
+     */
+    public Session open() {
+        LogCapture log = new LogCapture(executionLimits);
+        OutputRouter.redirect(log.student());
+        return new Session(log);
+    }
+
+    /**
+     * Capture bound to the thread that opened it. Closing it restores console output.
+     */
+    public static final class Session implements AutoCloseable {
+
+        private final LogCapture log;
+
+        private Session(LogCapture log) {
+            this.log = log;
+        }
+
+        /**
+         * Capture for harness messages, interleaved with the student's own output.
+         */
+        public LogCapture log() {
+            return log;
+        }
+
+        public String contents() {
+            return log.contents();
+        }
+
+        @Override
+        public void close() {
+            OutputRouter.redirect(null);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.devforge.platform.practice.service.execution;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * LRU cache of editor diagnostics, keyed like {@link CompiledClassCache} by a hash of the class name
+ * and the exact source (positions depend on every character). Students pausing on the same code, and
+ * untouched starter code, are answered without running javac. Published as
+ * {@code practice.diagnostics.cache.*} metrics.
+ */
+@Component
+public class DiagnosticsCache {
+
+    private final BoundedCache<List<CompileDiagnostic>> cache;
+
+    public DiagnosticsCache(@Value("${practice.diagnostics.cache.max-entries:5000}") int maxEntries,
+                            @Value("${practice.diagnostics.cache.max-bytes:8388608}") long maxBytes,
+                            MeterRegistry meterRegistry) {
+        this.cache = new BoundedCache<>("practice.diagnostics.cache", "Diagnostics", maxEntries, maxBytes,
+                DiagnosticsCache::sizeInBytes, meterRegistry);
+    }
+
+    /**
+     * @return The cached diagnostics, or null if the source has not been checked yet.
+     */
+    public List<CompileDiagnostic> get(String key) {
+        return cache.get(key);
+    }
+
+    public void put(String key, List<CompileDiagnostic> diagnostics) {
+        cache.put(key, List.copyOf(diagnostics));
+    }
+
+    private static long sizeInBytes(List<CompileDiagnostic> diagnostics) {
+        long size = 64;
+        for (CompileDiagnostic diagnostic : diagnostics) {
+            size += diagnostic.sizeInBytes();
+        }
+        return size;
+    }
+}
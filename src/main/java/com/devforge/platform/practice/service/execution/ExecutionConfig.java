@@ -0,0 +1,35 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.runner.BenchmarkSpec;
+import com.devforge.platform.practice.runner.ExecutionLimits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Time and output limits applied to every submission, in-process and in forked runners alike,
+ * and the iteration counts of performance checks.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Bean
+    public ExecutionLimits executionLimits(@Value("${practice.limits.test-wall-ms:5000}") long testWallMillis,
+                                           @Value("${practice.limits.test-cpu-ms:2000}") long testCpuMillis,
+                                           @Value("${practice.limits.submission-wall-ms:10000}") long submissionWallMillis,
+                                           @Value("${practice.limits.max-output-bytes:1048576}") long maxOutputBytes,
+                                           @Value("${practice.limits.log-head-bytes:16384}") int logHeadBytes,
+                                           @Value("${practice.limits.log-tail-bytes:16384}") int logTailBytes) {
+        return new ExecutionLimits(testWallMillis, testCpuMillis, submissionWallMillis,
+                maxOutputBytes, logHeadBytes, logTailBytes);
+    }
+
+    /**
+     * Iteration counts shared by all performance-graded problems; each problem sets its own slowdown.
+     */
+    @Bean
+    public BenchmarkSpec benchmarkSpec(@Value("${practice.benchmark.warmup-iterations:5}") int warmupIterations,
+                                       @Value("${practice.benchmark.measured-iterations:10}") int measuredIterations) {
+        return new BenchmarkSpec(warmupIterations, measuredIterations, 2.0);
+    }
+}
@@ -0,0 +1,299 @@
+package com.devforge.platform.practice.service.execution;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Bounded worker pool that runs student submissions concurrently.
+ * The number of workers defaults to the number of available cores and can be
+ * capped with {@code practice.execution.parallelism}.
+ * <p>
+ * Submissions wait in one lane per {@link ExecutionPriority}. A free worker picks the next lane by
+ * smooth weighted round-robin over the non-empty lanes ({@code practice.execution.weights.*}), so
+ * every lane progresses but an interactive Run overtakes a backlog of regrades: with the default
+ * weights, at most one background task starts for every eight interactive ones. Background tasks
+ * never occupy the last worker (if there is more than one) and run at minimum thread priority, so an
+ * interactive Run waits at most for the Runs queued ahead of it in its lane plus one execution
+ * (bounded by the submission time limit).
+ * <p>
+ * At most {@code practice.execution.queue-capacity} interactive and preview submissions wait for a
+ * worker. Beyond that they are rejected right away with an {@link ExecutionRejectedException}, whose
+ * retry-after is estimated from the queue length and the recent execution time, rather than making
+ * every Run slower. The background lane is not bounded: its producers submit in pages and wait.
+ * Queue depth and rejections are published as {@code practice.execution.*} metrics.
+ */
+@Component
+@Slf4j
+public class ExecutionEngine {
+
+    // Weight of the latest execution in the moving average of execution times
+    private static final double DURATION_SMOOTHING = 0.1;
+
+    private final int workers;
+    private final int queueCapacity;
+    private final int backgroundWorkers;
+    private final Map<ExecutionPriority, Lane> lanes = new EnumMap<>(ExecutionPriority.class);
+    private final List<Thread> threads = new ArrayList<>();
+    private final Counter rejections;
+    private volatile double averageMillis = 500;
+
+    // Guarded by this
+    private int foregroundQueued;
+    private int active;
+    private int activeBackground;
+    private boolean shutdown;
+
+    public ExecutionEngine(@Value("${practice.execution.parallelism:0}") int parallelism,
+                           @Value("${practice.execution.queue-capacity:100}") int queueCapacity,
+                           @Value("${practice.execution.weights.interactive:8}") int interactiveWeight,
+                           @Value("${practice.execution.weights.preview:3}") int previewWeight,
+                           @Value("${practice.execution.weights.background:1}") int backgroundWeight,
+                           MeterRegistry meterRegistry) {
+        this.workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.backgroundWorkers = Math.max(1, workers - 1);
+        lanes.put(ExecutionPriority.INTERACTIVE, new Lane(interactiveWeight));
+        lanes.put(ExecutionPriority.PREVIEW, new Lane(previewWeight));
+        lanes.put(ExecutionPriority.BACKGROUND, new Lane(backgroundWeight));
+
+        this.rejections = Counter.builder("practice.execution.rejected")
+                .tag("reason", "queue_full")
+                .description("Runs rejected before reaching the execution queue")
+                .register(meterRegistry);
+        lanes.forEach((priority, lane) -> Gauge.builder("practice.execution.queue", this, engine -> engine.queued(lane))
+                .tag("lane", priority.name().toLowerCase())
+                .description("Submissions waiting for a free worker")
+                .register(meterRegistry));
+        Gauge.builder("practice.execution.active", this, ExecutionEngine::active)
+                .description("Submissions being executed")
+                .register(meterRegistry);
+
+        for (int i = 1; i <= workers; i++) {
+            Thread thread = new Thread(this::work, "code-exec-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        log.info("Code execution engine started with {} workers and a queue of {}", workers, queueCapacity);
+    }
+
+    /**
+     * Queues the task without blocking the caller.
+     *
+     * @param priority Lane to queue the task in.
+     * @param task     Work to execute (compile + run tests).
+     * @return Future completed with the task result.
+     * @throws ExecutionRejectedException if the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(ExecutionPriority priority, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Callable<T> timed = timed(task);
+        enqueue(priority, () -> {
+            try {
+                future.complete(timed.call());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs the task on the pool and blocks the caller until it completes.
+     *
+     * @param priority Lane to queue the task in.
+     * @param task     Work to execute (compile + run tests).
+     * @return The task result.
+     * @throws ExecutionRejectedException if the queue is full.
+     */
+    public <T> T execute(ExecutionPriority priority, Callable<T> task) {
+        FutureTask<T> future = new FutureTask<>(timed(task));
+        enqueue(priority, future);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for code execution", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Code execution failed", e.getCause());
+        }
+    }
+
+    public int getParallelism() {
+        return workers;
+    }
+
+    /**
+     * Number of submissions waiting for a free worker, in all lanes.
+     */
+    public synchronized int getQueueSize() {
+        return lanes.values().stream().mapToInt(lane -> lane.tasks.size()).sum();
+    }
+
+    private synchronized void enqueue(ExecutionPriority priority, Runnable task) {
+        if (shutdown) {
+            throw new IllegalStateException("Execution engine is shut down");
+        }
+        if (priority != ExecutionPriority.BACKGROUND) {
+            if (foregroundQueued >= queueCapacity) {
+                throw rejected();
+            }
+            foregroundQueued++;
+        }
+        lanes.get(priority).tasks.add(new Task(priority, task));
+        notifyAll();
+    }
+
+    private void work() {
+        Thread thread = Thread.currentThread();
+        while (true) {
+            Task task;
+            try {
+                task = take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (task == null) {
+                return;
+            }
+
+            boolean background = task.priority == ExecutionPriority.BACKGROUND;
+            if (background) {
+                // Inherited by the threads that run the student code
+                thread.setPriority(Thread.MIN_PRIORITY);
+            }
+            try {
+                task.runnable.run();
+            } catch (Throwable e) {
+                log.error("Execution task failed", e);
+            } finally {
+                thread.setPriority(Thread.NORM_PRIORITY);
+                // Clear an interrupt meant for the task (a cancelled execute()), not for this worker
+                Thread.interrupted();
+                finished(task);
+            }
+        }
+    }
+
+    private synchronized Task take() throws InterruptedException {
+        while (!shutdown) {
+            Task task = next();
+            if (task != null) {
+                active++;
+                if (task.priority == ExecutionPriority.BACKGROUND) {
+                    activeBackground++;
+                } else {
+                    foregroundQueued--;
+                }
+                return task;
+            }
+            wait();
+        }
+        return null;
+    }
+
+    /**
+     * Smooth weighted round-robin: every eligible lane earns its weight, the richest one is served
+     * and pays the total. Ties go to the higher priority.
+     */
+    private Task next() {
+        Lane chosen = null;
+        int totalWeight = 0;
+        for (Map.Entry<ExecutionPriority, Lane> entry : lanes.entrySet()) {
+            Lane lane = entry.getValue();
+            boolean eligible = !lane.tasks.isEmpty()
+                    && (entry.getKey() != ExecutionPriority.BACKGROUND || activeBackground < backgroundWorkers);
+            if (!eligible) {
+                continue;
+            }
+            lane.credit += lane.weight;
+            totalWeight += lane.weight;
+            if (chosen == null || lane.credit > chosen.credit) {
+                chosen = lane;
+            }
+        }
+        if (chosen == null) {
+            return null;
+        }
+        chosen.credit -= totalWeight;
+        return chosen.tasks.poll();
+    }
+
+    private synchronized void finished(Task task) {
+        active--;
+        if (task.priority == ExecutionPriority.BACKGROUND) {
+            activeBackground--;
+        }
+        // A background task may have become eligible
+        notifyAll();
+    }
+
+    private synchronized int queued(Lane lane) {
+        return lane.tasks.size();
+    }
+
+    private synchronized int active() {
+        return active;
+    }
+
+    private <T> Callable<T> timed(Callable<T> task) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                return task.call();
+            } finally {
+                double millis = (System.nanoTime() - start) / 1_000_000.0;
+                averageMillis += DURATION_SMOOTHING * (millis - averageMillis);
+            }
+        };
+    }
+
+    private ExecutionRejectedException rejected() {
+        rejections.increment();
+        // Time for the workers to get through the queue
+        double drainMillis = (foregroundQueued + 1) * averageMillis / workers;
+        return new ExecutionRejectedException("Execution queue is full", (long) Math.ceil(drainMillis / 1000));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+            notifyAll();
+        }
+        threads.forEach(Thread::interrupt);
+    }
+
+    private record Task(ExecutionPriority priority, Runnable runnable) {}
+
+    private static final class Lane {
+
+        private final int weight;
+        private final ArrayDeque<Task> tasks = new ArrayDeque<>();
+        private int credit;
+
+        private Lane(int weight) {
+            this.weight = Math.max(1, weight);
+        }
+    }
+}
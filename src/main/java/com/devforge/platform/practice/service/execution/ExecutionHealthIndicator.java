@@ -0,0 +1,50 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.runner.ResourceUsage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the student threads that in-process executions have abandoned in this JVM.
+ * <p>
+ * Past {@code practice.execution.max-abandoned-threads} the node turns OUT_OF_SERVICE: the indicator
+ * belongs to the readiness group only, so the node stops receiving new Runs while the ones in flight
+ * finish, and turns ready again as the threads die. Metaspace, which only a restart frees, is left
+ * to {@link MetaspaceHealthIndicator} in the liveness group. With {@code practice.runner.mode: forked}
+ * student threads never run in this JVM; forked runners recycle their JVMs themselves (see
+ * {@link ForkedRunnerPool}).
+ */
+@Component
+@Slf4j
+public class ExecutionHealthIndicator implements HealthIndicator {
+
+    private final int maxAbandonedThreads;
+
+    private volatile Status reported = Status.UP;
+
+    public ExecutionHealthIndicator(@Value("${practice.execution.max-abandoned-threads:4}") int maxAbandonedThreads) {
+        this.maxAbandonedThreads = maxAbandonedThreads;
+    }
+
+    @Override
+    public Health health() {
+        ResourceUsage usage = ResourceUsage.current();
+        Status status = usage.abandonedThreads() > maxAbandonedThreads ? Status.OUT_OF_SERVICE : Status.UP;
+        if (!status.equals(reported)) {
+            if (status.equals(Status.OUT_OF_SERVICE)) {
+                log.warn("Too many abandoned student threads, refusing new traffic until they end: {}", usage);
+            } else {
+                log.info("Abandoned student threads ended, reporting UP: {}", usage);
+            }
+        }
+        reported = status;
+        return Health.status(status)
+                .withDetail("abandonedThreads", usage.abandonedThreads())
+                .withDetail("maxAbandonedThreads", maxAbandonedThreads)
+                .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.devforge.platform.practice.service.execution;
+
+/**
+ * Lanes of the {@link ExecutionEngine}, highest priority first.
+ */
+public enum ExecutionPriority {
+
+    /** A user waiting for the result of a Run. */
+    INTERACTIVE,
+
+    /** The author of a course trying out one of its problems. */
+    PREVIEW,
+
+    /** Work nobody is waiting on: regrades, benchmarks. */
+    BACKGROUND
+}
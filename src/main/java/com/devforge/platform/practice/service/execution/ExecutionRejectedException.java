@@ -0,0 +1,21 @@
+package com.devforge.platform.practice.service.execution;
+
+import lombok.Getter;
+
+/**
+ * Thrown instead of queueing a Run when the user exceeds the rate limit or the execution queue is full.
+ * Answered with HTTP 429.
+ */
+@Getter
+public class ExecutionRejectedException extends RuntimeException {
+
+    /**
+     * Seconds after which the same request is likely to be accepted.
+     */
+    private final long retryAfterSeconds;
+
+    public ExecutionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+    }
+}
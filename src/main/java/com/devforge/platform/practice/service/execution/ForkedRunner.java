@@ -0,0 +1,108 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.runner.ResourceUsage;
+import com.devforge.platform.practice.runner.RunRequest;
+import com.devforge.platform.practice.runner.RunnerProtocol;
+import com.devforge.platform.practice.runner.SuiteResult;
+import com.devforge.platform.practice.runner.TestListener;
+import com.devforge.platform.practice.runner.Verdict;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Handle to one child JVM running {@code RunnerMain}. Used by one execution at a time.
+ * <p>
+ * A runner that timed out or crashed is {@link #isBroken() broken} and must be replaced.
+ * This includes a child that reported {@link Verdict#TIME_LIMIT_EXCEEDED} itself, since the
+ * abandoned student thread keeps running inside it.
+ */
+class ForkedRunner {
+
+    private final Process process;
+    private final DataOutputStream toChild;
+    private final DataInputStream fromChild;
+    private int runs;
+    private boolean broken;
+    private ResourceUsage usage;
+
+    ForkedRunner(Process process) {
+        this.process = process;
+        this.toChild = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.fromChild = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+    }
+
+    /**
+     * Sends the submission to the child and waits for its verdict, forwarding per-test
+     * reports as they arrive. The child is killed if it does not answer within the timeout.
+     */
+    SuiteResult run(RunRequest request, long timeoutMs, ScheduledExecutorService watchdog, TestListener listener) {
+        runs++;
+        AtomicBoolean timedOut = new AtomicBoolean();
+        ScheduledFuture<?> kill = watchdog.schedule(() -> {
+            timedOut.set(true);
+            process.destroyForcibly();
+        }, timeoutMs, TimeUnit.MILLISECONDS);
+
+        try {
+            RunnerProtocol.writeRequest(toChild, request);
+            SuiteResult result = RunnerProtocol.readResult(fromChild, listener, reported -> usage = reported);
+            if (result.verdict() == Verdict.TIME_LIMIT_EXCEEDED) {
+                // The child abandoned a thread that may still be spinning
+                broken = true;
+            }
+            return result;
+        } catch (IOException e) {
+            broken = true;
+            process.destroyForcibly();
+            if (timedOut.get()) {
+                return new SuiteResult(Verdict.TIME_LIMIT_EXCEEDED, "\n⏱ Time limit exceeded: no result within " + timeoutMs + " ms.");
+            }
+            return new SuiteResult(Verdict.RUNTIME_ERROR, "\n🔥 Runtime Error: runner process terminated" + exitCodeSuffix());
+        } finally {
+            kill.cancel(false);
+        }
+    }
+
+    int getRuns() {
+        return runs;
+    }
+
+    /**
+     * Metaspace and classes of the child as of its last answer, or null before the first one.
+     */
+    ResourceUsage getUsage() {
+        return usage;
+    }
+
+    boolean isBroken() {
+        return broken || !process.isAlive();
+    }
+
+    void destroy() {
+        try {
+            toChild.close();
+        } catch (IOException ignored) {
+            // The process is being discarded anyway
+        }
+        process.destroyForcibly();
+    }
+
+    private String exitCodeSuffix() {
+        try {
+            if (process.waitFor(1, TimeUnit.SECONDS)) {
+                return " (exit code " + process.exitValue() + ")";
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "";
+    }
+}
@@ -0,0 +1,314 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.runner.Benchmark;
+import com.devforge.platform.practice.runner.BenchmarkSpec;
+import com.devforge.platform.practice.runner.BytecodeClassLoader;
+import com.devforge.platform.practice.runner.ExecutionLimits;
+import com.devforge.platform.practice.runner.InputGenerator;
+import com.devforge.platform.practice.runner.LogCapture;
+import com.devforge.platform.practice.runner.OutputRouter;
+import com.devforge.platform.practice.runner.ProblemHarness;
+import com.devforge.platform.practice.runner.ResourceUsage;
+import com.devforge.platform.practice.runner.RunRequest;
+import com.devforge.platform.practice.runner.RunnerMain;
+import com.devforge.platform.practice.runner.RunnerProtocol;
+import com.devforge.platform.practice.runner.SuiteResult;
+import com.devforge.platform.practice.runner.SuiteRunner;
+import com.devforge.platform.practice.runner.TestDataCodec;
+import com.devforge.platform.practice.runner.TestDataFiles;
+import com.devforge.platform.practice.runner.TestInput;
+import com.devforge.platform.practice.runner.TestListener;
+import com.devforge.platform.practice.runner.TestReport;
+import com.devforge.platform.practice.runner.Verdict;
+import com.devforge.platform.practice.runner.Watchdog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Pool of pre-started child JVMs for out-of-process execution ({@code practice.runner.mode: forked}).
+ * <p>
+ * Student code runs in a separate process, so an infinite loop or a huge allocation cannot stall
+ * or crash the web server. Runners are started and warmed up ahead of time, recycled after
+ * {@code practice.runner.max-runs} submissions or once the Metaspace or class count they report
+ * passes {@code practice.runner.max-metaspace-mb} / {@code max-loaded-classes} (loaders of earlier
+ * submissions that were not unloaded), and killed when they exceed the timeout, which is a
+ * backstop on top of the per-test limits the child enforces itself.
+ * Replacements are started in the background, off the request path.
+ */
+@Component
+@Slf4j
+public class ForkedRunnerPool {
+
+    // Classes shipped to the child JVM, together with their nested classes
+    private static final List<Class<?>> RUNNER_CLASSES = List.of(
+            RunnerMain.class, RunnerProtocol.class, SuiteRunner.class, BytecodeClassLoader.class,
+            RunRequest.class, SuiteResult.class, TestInput.class, TestListener.class, TestReport.class, Verdict.class,
+            ExecutionLimits.class, Watchdog.class, OutputRouter.class, ProblemHarness.class,
+            TestDataCodec.class, LogCapture.class, Benchmark.class, BenchmarkSpec.class,
+            InputGenerator.class, TestDataFiles.class, ResourceUsage.class);
+
+    private static final long SPAWN_RETRY_DELAY_SECONDS = 5;
+    private static final long BORROW_TIMEOUT_SECONDS = 60;
+
+    private static final String WARM_UP_SOURCE = """
+            public class Solution {
+                public int solve(int a, int b) {
+                    System.out.println("warm-up");
+                    return a + b;
+                }
+            }
+            """;
+
+    private final boolean enabled;
+    private final int size;
+    private final int maxRuns;
+    private final long maxMetaspaceBytes;
+    private final int maxLoadedClasses;
+    private final long timeoutMs;
+    private final List<String> jvmOptions;
+    private final InMemoryCompiler inMemoryCompiler;
+    private final ExecutionLimits executionLimits;
+    private final MeterRegistry meterRegistry;
+    // Last usage reported by any runner
+    private volatile ResourceUsage lastUsage = new ResourceUsage(0, 0, 0);
+
+    private final BlockingQueue<ForkedRunner> idle = new LinkedBlockingQueue<>();
+    private final ExecutorService spawner = Executors.newSingleThreadExecutor(daemon("runner-spawner"));
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(daemon("runner-watchdog"));
+
+    private Path classesDir;
+    private RunRequest warmUpRequest;
+
+    public ForkedRunnerPool(@Value("${practice.runner.mode:in-process}") String mode,
+                            @Value("${practice.runner.max-runs:200}") int maxRuns,
+                            @Value("${practice.runner.max-metaspace-mb:64}") long maxMetaspaceMb,
+                            @Value("${practice.runner.max-loaded-classes:20000}") int maxLoadedClasses,
+                            @Value("${practice.runner.timeout-ms:15000}") long timeoutMs,
+                            @Value("${practice.runner.jvm-options:-Xmx256m -XX:+UseSerialGC -Xshare:auto}") String jvmOptions,
+                            ExecutionEngine executionEngine,
+                            InMemoryCompiler inMemoryCompiler,
+                            ExecutionLimits executionLimits,
+                            MeterRegistry meterRegistry) {
+        this.enabled = "forked".equalsIgnoreCase(mode.trim());
+        this.size = executionEngine.getParallelism();
+        this.maxRuns = maxRuns;
+        this.maxMetaspaceBytes = maxMetaspaceMb * 1024 * 1024;
+        this.maxLoadedClasses = maxLoadedClasses;
+        this.timeoutMs = timeoutMs;
+        this.jvmOptions = Arrays.stream(jvmOptions.trim().split("\\s+")).filter(s -> !s.isEmpty()).toList();
+        this.inMemoryCompiler = inMemoryCompiler;
+        this.executionLimits = executionLimits;
+        this.meterRegistry = meterRegistry;
+        if (enabled) {
+            Gauge.builder("practice.runner.metaspace", this, pool -> pool.lastUsage.metaspaceBytes())
+                    .description("Metaspace used by a forked runner, as last reported")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("practice.runner.classes.loaded", this, pool -> pool.lastUsage.loadedClasses())
+                    .description("Classes loaded in a forked runner, as last reported")
+                    .register(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        classesDir = extractRunnerClasses();
+        warmUpRequest = new RunRequest(inMemoryCompiler.compile("Solution", WARM_UP_SOURCE, HelperLibrary.NONE),
+                "Solution", "solve", "int, int", List.of(new TestInput("1, 2", "3")), executionLimits, false);
+
+        for (int i = 0; i < size; i++) {
+            spawner.execute(this::spawn);
+        }
+        log.info("Starting {} forked runners (recycled after {} runs or {} MB of Metaspace, timeout {} ms)",
+                size, maxRuns, maxMetaspaceBytes / (1024 * 1024), timeoutMs);
+    }
+
+    /**
+     * Runs the submission on an idle runner, waiting for one if all are busy.
+     */
+    public SuiteResult run(RunRequest request, TestListener listener) {
+        ForkedRunner runner = borrow();
+        if (runner == null) {
+            return new SuiteResult(Verdict.RUNTIME_ERROR, "\n🔥 Execution service unavailable: no runner is ready. Try again later.");
+        }
+        try {
+            // The performance check gets a submission budget of its own
+            long timeout = request.benchmarked() ? timeoutMs + request.limits().submissionWallMillis() : timeoutMs;
+            return runner.run(request, timeout, watchdog, listener);
+        } finally {
+            release(runner);
+        }
+    }
+
+    private ForkedRunner borrow() {
+        try {
+            return idle.poll(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a runner", e);
+        }
+    }
+
+    private void release(ForkedRunner runner) {
+        ResourceUsage usage = runner.getUsage();
+        if (usage != null) {
+            lastUsage = usage;
+        }
+        String recycleReason = recycleReason(runner, usage);
+        if (recycleReason != null) {
+            Counter.builder("practice.runner.recycled")
+                    .description("Forked runners replaced, by reason")
+                    .tag("reason", recycleReason)
+                    .register(meterRegistry)
+                    .increment();
+            if (!"max-runs".equals(recycleReason) && !"broken".equals(recycleReason)) {
+                log.info("Recycling forked runner after {} runs: {} over the limit ({})", runner.getRuns(), recycleReason, usage);
+            }
+            runner.destroy();
+            if (!spawner.isShutdown()) {
+                spawner.execute(this::spawn);
+            }
+        } else {
+            idle.add(runner);
+        }
+    }
+
+    /**
+     * Why the runner must be replaced instead of going back to the pool, or null if it may be reused.
+     */
+    private String recycleReason(ForkedRunner runner, ResourceUsage usage) {
+        if (runner.isBroken()) {
+            return "broken";
+        }
+        if (usage != null && usage.metaspaceBytes() > maxMetaspaceBytes) {
+            return "metaspace";
+        }
+        if (usage != null && usage.loadedClasses() > maxLoadedClasses) {
+            return "loaded-classes";
+        }
+        return runner.getRuns() >= maxRuns ? "max-runs" : null;
+    }
+
+    /**
+     * Starts a child JVM and pushes a warm-up submission through it before it takes real work.
+     */
+    private void spawn() {
+        if (spawner.isShutdown()) {
+            return;
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(classesDir.toString());
+        command.add(RunnerMain.class.getName());
+
+        try {
+            Process process = new ProcessBuilder(command)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            ForkedRunner runner = new ForkedRunner(process);
+            SuiteResult warmUp = runner.run(warmUpRequest, Math.max(timeoutMs, 30_000), watchdog, TestListener.NONE);
+            if (!warmUp.success() || runner.isBroken()) {
+                runner.destroy();
+                log.error("Forked runner failed to warm up: {}", warmUp.logs());
+                retrySpawn();
+                return;
+            }
+            idle.add(runner);
+        } catch (IOException e) {
+            log.error("Cannot start forked runner", e);
+            retrySpawn();
+        }
+    }
+
+    private void retrySpawn() {
+        if (!watchdog.isShutdown()) {
+            watchdog.schedule(() -> spawner.execute(this::spawn), SPAWN_RETRY_DELAY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Copies the runner classes out of the application (possibly packaged as a fat jar)
+     * into a plain directory the child JVM can use as its classpath.
+     */
+    private Path extractRunnerClasses() {
+        try {
+            Path dir = Files.createTempDirectory("devforge-runner");
+            for (Class<?> topLevel : RUNNER_CLASSES) {
+                for (Class<?> type : topLevel.getNestMembers()) {
+                    String resource = type.getName().replace('.', '/') + ".class";
+                    Path target = dir.resolve(resource);
+                    Files.createDirectories(target.getParent());
+                    try (InputStream in = type.getClassLoader().getResourceAsStream(resource)) {
+                        if (in == null) {
+                            throw new IllegalStateException("Runner class not found: " + resource);
+                        }
+                        Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+            }
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot extract runner classes", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        spawner.shutdownNow();
+        watchdog.shutdownNow();
+        ForkedRunner runner;
+        while ((runner = idle.poll()) != null) {
+            runner.destroy();
+        }
+        if (classesDir != null) {
+            try (Stream<Path> files = Files.walk(classesDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            } catch (IOException e) {
+                log.debug("Cannot delete runner classes", e);
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.devforge.platform.practice.service.execution;
+
+import java.util.Map;
+
+/**
+ * Compiled helper types of a problem ({@code ListNode}, {@code TreeNode}, ...), written by the teacher.
+ * They are on the classpath when student code is compiled, and defined by every class loader that
+ * runs it. Instances are immutable and shared through {@link HelperLibraryCache}.
+ *
+ * @param hash    Hash of the helper source; part of the cache keys of code compiled against it.
+ * @param classes Class name -> bytecode.
+ */
+public record HelperLibrary(String hash, Map<String, byte[]> classes) {
+
+    /**
+     * No helpers.
+     */
+    public static final HelperLibrary NONE = new HelperLibrary("", Map.of());
+
+    public HelperLibrary {
+        classes = Map.copyOf(classes);
+    }
+
+    public boolean isEmpty() {
+        return classes.isEmpty();
+    }
+
+    public long sizeInBytes() {
+        long size = 0;
+        for (byte[] bytes : classes.values()) {
+            size += bytes.length;
+        }
+        return size;
+    }
+}
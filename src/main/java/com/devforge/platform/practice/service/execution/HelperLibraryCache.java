@@ -0,0 +1,60 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.domain.Problem;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiled {@link HelperLibrary} per helper source, keyed by its hash: problems that share the same
+ * helpers (every linked-list problem of a course, say) share one compilation.
+ * <p>
+ * Libraries are compiled when the teacher saves the problem. Helpers saved on another node, or
+ * before a restart, are compiled on their first run. Published as {@code practice.helpers.cache.*} metrics.
+ */
+@Component
+@Slf4j
+public class HelperLibraryCache {
+
+    private final InMemoryCompiler inMemoryCompiler;
+    private final BoundedCache<HelperLibrary> cache;
+
+    public HelperLibraryCache(InMemoryCompiler inMemoryCompiler,
+                              @Value("${practice.helpers.cache.max-entries:500}") int maxEntries,
+                              @Value("${practice.helpers.cache.max-bytes:16777216}") long maxBytes,
+                              MeterRegistry meterRegistry) {
+        this.inMemoryCompiler = inMemoryCompiler;
+        this.cache = new BoundedCache<>("practice.helpers.cache", "Helper libraries", maxEntries, maxBytes,
+                HelperLibrary::sizeInBytes, meterRegistry);
+    }
+
+    /**
+     * The helpers of a problem, compiled if they are not cached.
+     *
+     * @throws IllegalArgumentException if the helpers do not compile (checked when they are saved).
+     */
+    public HelperLibrary get(Problem problem) {
+        return get(problem.getHelperCode());
+    }
+
+    /**
+     * @param helperCode Source of the helper types; null or blank for none.
+     * @throws IllegalArgumentException with the first error, if the helpers do not compile.
+     */
+    public HelperLibrary get(String helperCode) {
+        if (helperCode == null || helperCode.isBlank()) {
+            return HelperLibrary.NONE;
+        }
+        String key = CompiledClassCache.key("", helperCode);
+        HelperLibrary library = cache.get(key);
+        if (library == null) {
+            long start = System.nanoTime();
+            library = new HelperLibrary(key, inMemoryCompiler.compileLibrary(helperCode));
+            cache.put(key, library);
+            log.debug("Compiled helper library {} ({} classes) in {} ms", key.substring(0, 12), library.classes().size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        return library;
+    }
+}
@@ -0,0 +1,366 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.sun.source.util.JavacTask;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles student sources to bytecode entirely in memory.
+ * <p>
+ * Keeps a pool of compiler contexts, one per execution worker. Each context owns a
+ * {@link StandardJavaFileManager}, which is expensive to create (it opens the platform
+ * image and indexes its packages) but can be reused across compilations by one thread at a time.
+ * Contexts are warmed up with a trivial compilation once the application has started.
+ * Editor diagnostics have a small pool of their own ({@code practice.diagnostics.compilers}), so a
+ * lab full of typing students never takes the contexts that Runs compile with; a check waits at
+ * most {@code practice.diagnostics.max-wait-ms} for one, then is rejected as busy.
+ * <p>
+ * A problem's {@link HelperLibrary} is put on the classpath of the compilation as in-memory class
+ * files, so the helpers are compiled once, when the teacher saves them, not with every Run.
+ */
+@Component
+@Slf4j
+public class InMemoryCompiler {
+
+    // Annotation processor discovery scans the classpath and is never needed for student code
+    private static final List<String> OPTIONS = List.of("-proc:none");
+
+    // The public top-level type of the helper source names its file, as javac requires
+    private static final Pattern PUBLIC_TYPE = Pattern.compile(
+            "^\\s*public\\s+(?:(?:final|abstract|sealed|non-sealed|strictfp)\\s+)*(?:class|interface|enum|record|@interface)\\s+(\\w+)",
+            Pattern.MULTILINE);
+    private static final String DEFAULT_LIBRARY_NAME = "Helpers";
+
+    private static final String WARM_UP_SOURCE = """
+            import java.util.*;
+
+            public class WarmUp {
+                public int solve(int[] values) {
+                    List<Integer> list = new ArrayList<>();
+                    for (int v : values) list.add(v);
+                    return list.stream().mapToInt(Integer::intValue).sum() + String.valueOf(values.length).length();
+                }
+            }
+            """;
+
+    private static final long BUSY_RETRY_SECONDS = 1;
+
+    private final JavaCompiler compiler;
+    private final BlockingQueue<CompilerContext> contexts;
+    private final BlockingQueue<CompilerContext> diagnosticContexts;
+    private final long diagnosticsMaxWaitMillis;
+
+    public InMemoryCompiler(ExecutionEngine executionEngine,
+                            @Value("${practice.diagnostics.compilers:2}") int diagnosticCompilers,
+                            @Value("${practice.diagnostics.max-wait-ms:2000}") long diagnosticsMaxWaitMillis) {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No system Java compiler available. Run the platform on a JDK, not a JRE.");
+        }
+
+        this.contexts = newPool(executionEngine.getParallelism());
+        this.diagnosticContexts = newPool(Math.max(1, diagnosticCompilers));
+        this.diagnosticsMaxWaitMillis = diagnosticsMaxWaitMillis;
+    }
+
+    private BlockingQueue<CompilerContext> newPool(int size) {
+        BlockingQueue<CompilerContext> pool = new ArrayBlockingQueue<>(size);
+        for (int i = 0; i < size; i++) {
+            pool.add(new CompilerContext(compiler.getStandardFileManager(null, null, null)));
+        }
+        return pool;
+    }
+
+    /**
+     * Pre-warms every pooled context off the startup path.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread warmUp = new Thread(() -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < contexts.size(); i++) {
+                try {
+                    compile("WarmUp", WARM_UP_SOURCE, HelperLibrary.NONE);
+                } catch (RuntimeException e) {
+                    log.warn("Compiler warm-up failed", e);
+                    return;
+                }
+            }
+            log.info("Warmed up {} compiler contexts in {} ms", contexts.size(), (System.nanoTime() - start) / 1_000_000);
+        }, "compiler-warm-up");
+        warmUp.setDaemon(true);
+        warmUp.start();
+    }
+
+    /**
+     * Compiles a single source file.
+     *
+     * @param className  Name of the class (e.g. "Solution").
+     * @param sourceCode Content of the java file.
+     * @param library    Helper types the source may use.
+     * @return Class name -> bytecode for every generated class; the helpers are not included.
+     * @throws RuntimeException if compilation fails.
+     */
+    public Map<String, byte[]> compile(String className, String sourceCode, HelperLibrary library) {
+        CompilerContext context = borrow();
+        try {
+            return context.compile(className, sourceCode, library);
+        } finally {
+            // Round-robin: put the context at the tail, so warm-up touches every one of them
+            contexts.add(context);
+        }
+    }
+
+    /**
+     * Checks a single source file without generating bytecode: javac parses and attributes it
+     * (resolving names and types, checking flow) and stops there.
+     *
+     * @param className  Name of the class (e.g. "Solution").
+     * @param sourceCode Content of the java file.
+     * @param library    Helper types the source may use.
+     * @return Errors and warnings in source order; empty if the code compiles cleanly.
+     * @throws ExecutionRejectedException if no diagnostics compiler became free in time.
+     */
+    public List<CompileDiagnostic> diagnose(String className, String sourceCode, HelperLibrary library) {
+        CompilerContext context;
+        try {
+            context = diagnosticContexts.poll(diagnosticsMaxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a compiler", e);
+        }
+        if (context == null) {
+            throw new ExecutionRejectedException("Compiler busy", BUSY_RETRY_SECONDS);
+        }
+        try {
+            return context.diagnose(className, sourceCode, library);
+        } finally {
+            diagnosticContexts.add(context);
+        }
+    }
+
+    /**
+     * Compiles the helper types of a problem. The file is named after the public type, if there is
+     * one; any number of package-private types may follow it.
+     *
+     * @return Class name -> bytecode.
+     * @throws IllegalArgumentException with the first error, if the helpers do not compile.
+     */
+    public Map<String, byte[]> compileLibrary(String sourceCode) {
+        Matcher matcher = PUBLIC_TYPE.matcher(sourceCode);
+        String fileName = matcher.find() ? matcher.group(1) : DEFAULT_LIBRARY_NAME;
+        CompilerContext context = borrow();
+        try {
+            List<CompileDiagnostic> errors = context.diagnose(fileName, sourceCode, HelperLibrary.NONE).stream()
+                    .filter(diagnostic -> diagnostic.severity().equals("ERROR"))
+                    .toList();
+            if (!errors.isEmpty()) {
+                CompileDiagnostic first = errors.getFirst();
+                throw new IllegalArgumentException("line " + first.line() + ": " + first.message());
+            }
+            return context.compile(fileName, sourceCode, HelperLibrary.NONE);
+        } finally {
+            contexts.add(context);
+        }
+    }
+
+    private CompilerContext borrow() {
+        try {
+            return contexts.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a compiler", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (CompilerContext context : contexts) {
+            context.close();
+        }
+        for (CompilerContext context : diagnosticContexts) {
+            context.close();
+        }
+    }
+
+    /**
+     * A reusable file manager. Only one compilation may use a context at a time.
+     */
+    private class CompilerContext {
+
+        private final StandardJavaFileManager fileManager;
+
+        CompilerContext(StandardJavaFileManager fileManager) {
+            this.fileManager = fileManager;
+            try {
+                // Student code may only use the JDK; skip scanning the application classpath
+                fileManager.setLocation(StandardLocation.CLASS_PATH, List.of());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot configure compiler classpath", e);
+            }
+        }
+
+        Map<String, byte[]> compile(String className, String sourceCode, HelperLibrary library) {
+            // Map to hold the bytecode in memory instead of writing to disk
+            Map<String, ByteArrayOutputStream> byteCodes = new HashMap<>();
+
+            JavaFileManager inMemoryFileManager = new LibraryFileManager(fileManager, library) {
+                @Override
+                public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+                    return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + kind.extension), kind) {
+                        @Override
+                        public OutputStream openOutputStream() {
+                            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                            byteCodes.put(className, baos);
+                            return baos;
+                        }
+                    };
+                }
+            };
+
+            // Run compilation task
+            boolean success = compiler.getTask(null, inMemoryFileManager, null, OPTIONS, null,
+                    List.of(source(className, sourceCode))).call();
+            if (!success) {
+                throw new RuntimeException("Compilation failed. Check syntax.");
+            }
+
+            Map<String, byte[]> classes = new HashMap<>();
+            byteCodes.forEach((name, baos) -> classes.put(name, baos.toByteArray()));
+            return classes;
+        }
+
+        List<CompileDiagnostic> diagnose(String className, String sourceCode, HelperLibrary library) {
+            DiagnosticCollector<JavaFileObject> collector = new DiagnosticCollector<>();
+            JavaFileManager sharedFileManager = new LibraryFileManager(fileManager, library);
+            JavacTask task = (JavacTask) compiler.getTask(null, sharedFileManager, collector, OPTIONS, null,
+                    List.of(source(className, sourceCode)));
+            try {
+                // Parse, enter and attribute; generate() is never called, so no bytecode is produced
+                task.analyze();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot analyze source", e);
+            }
+
+            List<CompileDiagnostic> diagnostics = new ArrayList<>();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : collector.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR || diagnostic.getKind() == Diagnostic.Kind.WARNING
+                        || diagnostic.getKind() == Diagnostic.Kind.MANDATORY_WARNING) {
+                    diagnostics.add(new CompileDiagnostic(
+                            diagnostic.getKind() == Diagnostic.Kind.ERROR ? "ERROR" : "WARNING",
+                            diagnostic.getLineNumber(), diagnostic.getColumnNumber(),
+                            diagnostic.getStartPosition(), diagnostic.getEndPosition(),
+                            diagnostic.getMessage(Locale.ENGLISH)));
+                }
+            }
+            // Syntax errors come first otherwise, wherever they are
+            diagnostics.sort(Comparator.comparingLong(CompileDiagnostic::line).thenComparingLong(CompileDiagnostic::column));
+            return diagnostics;
+        }
+
+        private JavaFileObject source(String className, String sourceCode) {
+            return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                    return sourceCode;
+                }
+            };
+        }
+
+        void close() {
+            try {
+                fileManager.close();
+            } catch (IOException e) {
+                log.debug("Failed to close compiler file manager", e);
+            }
+        }
+    }
+
+    /**
+     * Adds the helper classes to the (otherwise empty) classpath of one compilation.
+     * The underlying file manager outlives the compilation, so closing this one does nothing.
+     */
+    private static class LibraryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+        private final HelperLibrary library;
+
+        LibraryFileManager(JavaFileManager fileManager, HelperLibrary library) {
+            super(fileManager);
+            this.library = library;
+        }
+
+        @Override
+        public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds,
+                                             boolean recurse) throws IOException {
+            Iterable<JavaFileObject> files = super.list(location, packageName, kinds, recurse);
+            if (library.isEmpty() || location != StandardLocation.CLASS_PATH || !kinds.contains(JavaFileObject.Kind.CLASS)) {
+                return files;
+            }
+            List<JavaFileObject> all = new ArrayList<>();
+            files.forEach(all::add);
+            library.classes().forEach((name, bytes) -> {
+                int dot = name.lastIndexOf('.');
+                String classPackage = dot < 0 ? "" : name.substring(0, dot);
+                if (classPackage.equals(packageName) || (recurse && classPackage.startsWith(packageName + "."))) {
+                    all.add(new LibraryClass(name, bytes));
+                }
+            });
+            return all;
+        }
+
+        @Override
+        public String inferBinaryName(Location location, JavaFileObject file) {
+            if (file instanceof LibraryClass libraryClass) {
+                return libraryClass.binaryName;
+            }
+            return super.inferBinaryName(location, file);
+        }
+
+        @Override
+        public void close() {
+            // The underlying file manager outlives this compilation
+        }
+    }
+
+    private static class LibraryClass extends SimpleJavaFileObject {
+
+        private final String binaryName;
+        private final byte[] bytes;
+
+        LibraryClass(String binaryName, byte[] bytes) {
+            super(URI.create("library:///" + binaryName.replace('.', '/') + JavaFileObject.Kind.CLASS.extension),
+                    JavaFileObject.Kind.CLASS);
+            this.binaryName = binaryName;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public InputStream openInputStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+    }
+}
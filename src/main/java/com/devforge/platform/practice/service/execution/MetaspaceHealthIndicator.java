@@ -0,0 +1,53 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.runner.ResourceUsage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the Metaspace left behind by in-process executions.
+ * <p>
+ * Classes kept loaded by abandoned executions stay in Metaspace, so past
+ * {@code practice.execution.max-metaspace-mb} the only remedy is a restart: the indicator turns DOWN.
+ * It belongs to the liveness group, so the orchestrator restarts the node rather than only taking it
+ * out of rotation. Abandoned threads are reported separately by {@link ExecutionHealthIndicator}.
+ */
+@Component
+@Slf4j
+public class MetaspaceHealthIndicator implements HealthIndicator {
+
+    private final long maxMetaspaceBytes;
+    private final ClassLoaderMonitor classLoaderMonitor;
+
+    private volatile Status reported = Status.UP;
+
+    public MetaspaceHealthIndicator(@Value("${practice.execution.max-metaspace-mb:512}") long maxMetaspaceMb,
+                                    ClassLoaderMonitor classLoaderMonitor) {
+        this.maxMetaspaceBytes = maxMetaspaceMb * 1024 * 1024;
+        this.classLoaderMonitor = classLoaderMonitor;
+    }
+
+    @Override
+    public Health health() {
+        ResourceUsage usage = ResourceUsage.current();
+        Status status = usage.metaspaceBytes() > maxMetaspaceBytes ? Status.DOWN : Status.UP;
+        if (!status.equals(reported)) {
+            if (status.equals(Status.DOWN)) {
+                log.warn("Metaspace exhausted, reporting DOWN so that the node gets restarted: {}", usage);
+            } else {
+                log.info("Metaspace recovered, reporting UP: {}", usage);
+            }
+        }
+        reported = status;
+        return Health.status(status)
+                .withDetail("metaspaceBytes", usage.metaspaceBytes())
+                .withDetail("maxMetaspaceBytes", maxMetaspaceBytes)
+                .withDetail("loadedClasses", usage.loadedClasses())
+                .withDetail("liveClassLoaders", classLoaderMonitor.live())
+                .build();
+    }
+}
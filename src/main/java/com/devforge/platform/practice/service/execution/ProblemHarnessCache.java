@@ -0,0 +1,92 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.runner.ProblemHarness;
+import com.devforge.platform.practice.runner.TestInput;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * LRU cache of prepared {@link ProblemHarness harnesses}, keyed by problem id and tests version.
+ * <p>
+ * Harnesses are built when the teacher saves the problem and cached once the save commits. A problem saved on another node,
+ * before a restart, or evicted since, is prepared again on its next run. Published as
+ * {@code practice.harness.cache.*} metrics.
+ */
+@Component
+@Slf4j
+public class ProblemHarnessCache {
+
+    private final TestDataStore testDataStore;
+    private final BoundedCache<ProblemHarness> cache;
+
+    public ProblemHarnessCache(TestDataStore testDataStore,
+                               @Value("${practice.harness-cache.max-entries:1000}") int maxEntries,
+                               @Value("${practice.harness-cache.max-bytes:67108864}") long maxBytes,
+                               MeterRegistry meterRegistry) {
+        this.testDataStore = testDataStore;
+        this.cache = new BoundedCache<>("practice.harness.cache", "Problem harnesses", maxEntries, maxBytes,
+                ProblemHarness::sizeInBytes, meterRegistry);
+    }
+
+    /**
+     * Builds the harness for the version of the problem being saved, and caches it once the current
+     * transaction commits (or now, outside of one): a rolled back save must not leave a harness for
+     * a version that another save may then commit with different tests.
+     * Test cases are lazy, so call this while the persistence context is open.
+     */
+    public void prepare(Problem problem) {
+        String key = key(problem);
+        ProblemHarness harness = build(problem);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(problem.getId(), key, harness);
+                }
+            });
+        } else {
+            put(problem.getId(), key, harness);
+        }
+    }
+
+    /**
+     * Returns the cached harness, preparing it if the problem changed since or it was evicted.
+     */
+    public ProblemHarness get(Problem problem) {
+        String key = key(problem);
+        ProblemHarness harness = cache.get(key);
+        if (harness == null) {
+            harness = build(problem);
+            put(problem.getId(), key, harness);
+        }
+        return harness;
+    }
+
+    private ProblemHarness build(Problem problem) {
+        List<TestInput> tests = problem.getTestCases().stream()
+                .map(testDataStore::toTestInput)
+                .toList();
+        log.debug("Preparing harness for problem {} (version {}, {} tests)", problem.getId(), problem.getTestsVersion(), tests.size());
+        return ProblemHarness.build(problem.getMethodName(), problem.getMethodSignature(), tests);
+    }
+
+    /**
+     * Caches the harness, dropping older versions of the problem.
+     */
+    private void put(Long problemId, String key, ProblemHarness harness) {
+        String prefix = problemId + ":";
+        cache.removeIf(cached -> cached.startsWith(prefix) && !cached.equals(key));
+        cache.put(key, harness);
+    }
+
+    private static String key(Problem problem) {
+        return problem.getId() + ":" + problem.getTestsVersion();
+    }
+}
@@ -0,0 +1,111 @@
+package com.devforge.platform.practice.service.execution;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user token bucket for Runs: up to {@code practice.rate-limit.burst} Runs at once, refilled at
+ * {@code practice.rate-limit.runs-per-minute}. Keeps a few users (or a script) from filling the
+ * execution queue for everyone. Buckets of idle users are dropped once they are full again.
+ * A rate of 0 disables the limit. Other per-user limits (editor diagnostics) create their own instance.
+ */
+@Component
+public class RunRateLimiter {
+
+    private static final int SWEEP_THRESHOLD = 10_000;
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final int burst;
+    private final double tokensPerNano;
+    private final Counter rejections;
+    private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private volatile long lastSweep = System.nanoTime();
+
+    @Autowired
+    public RunRateLimiter(@Value("${practice.rate-limit.burst:5}") int burst,
+                          @Value("${practice.rate-limit.runs-per-minute:20}") int runsPerMinute,
+                          MeterRegistry meterRegistry) {
+        this(burst, runsPerMinute, Counter.builder("practice.execution.rejected")
+                .tag("reason", "rate_limit")
+                .description("Runs rejected before reaching the execution queue")
+                .register(meterRegistry));
+    }
+
+    /**
+     * @param rejections Counts the requests rejected by this limit.
+     */
+    public RunRateLimiter(int burst, int perMinute, Counter rejections) {
+        this.enabled = perMinute > 0;
+        this.burst = Math.max(1, burst);
+        this.tokensPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.rejections = rejections;
+    }
+
+    /**
+     * Takes a token for one Run of the user.
+     *
+     * @throws ExecutionRejectedException if the user has none left.
+     */
+    public void acquire(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        sweepIdle(now);
+
+        long waitNanos = buckets.computeIfAbsent(userId, id -> new TokenBucket(burst, now)).take(now);
+        if (waitNanos > 0) {
+            rejections.increment();
+            throw new ExecutionRejectedException("Too many runs",
+                    (long) Math.ceil(waitNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    private void sweepIdle(long now) {
+        if (buckets.size() > SWEEP_THRESHOLD && now - lastSweep > SWEEP_INTERVAL_NANOS) {
+            lastSweep = now;
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+
+    private final class TokenBucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the nanos until one is available.
+         */
+        synchronized long take(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens--;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= burst;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
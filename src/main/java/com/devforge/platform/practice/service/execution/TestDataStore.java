@@ -0,0 +1,155 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.domain.TestCase;
+import com.devforge.platform.practice.runner.TestDataFiles;
+import com.devforge.platform.practice.runner.TestInput;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content-addressed file store for large test data.
+ * <p>
+ * Test inputs and expected outputs above {@code practice.test-data.inline-max-bytes} are written
+ * to a file named by their SHA-256 hash when the problem is saved; the {@code test_case} row keeps
+ * the hash and a short preview instead of the data. Runs read the files through
+ * {@link TestDataFiles}, memory-mapped and shared by all executions, forked runners included.
+ * Files are immutable, so writing the same data twice is a no-op.
+ * <p>
+ * The files are the only copy of the data, so {@code practice.test-data.dir} has no default: it
+ * must be a persistent volume shared by all nodes that save problems or run code, like the database.
+ */
+@Component
+@Slf4j
+public class TestDataStore {
+
+    private static final int PREVIEW_CHARS = 200;
+
+    private final Path directory;
+    private final int inlineMaxBytes;
+
+    public TestDataStore(@Value("${practice.test-data.dir:}") String directory,
+                         @Value("${practice.test-data.inline-max-bytes:65536}") int inlineMaxBytes) {
+        if (directory.isBlank()) {
+            throw new IllegalStateException("practice.test-data.dir (PRACTICE_TEST_DATA_DIR) must be set to a persistent "
+                    + "directory shared by all nodes: large test data is stored only there");
+        }
+        this.directory = Path.of(directory).toAbsolutePath();
+        if (this.directory.startsWith(Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath())) {
+            log.warn("Test data is stored in {}, under the temporary directory; it is lost if that is cleaned up", this.directory);
+        }
+        this.inlineMaxBytes = inlineMaxBytes;
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create test data directory " + this.directory, e);
+        }
+        log.info("Test data larger than {} bytes is stored in {}", inlineMaxBytes, this.directory);
+    }
+
+    /**
+     * Moves the large fields of a test case into the store, leaving hashes and previews in the row.
+     */
+    public void externalize(TestCase test) {
+        if (test.getEncodedInput() != null && test.getEncodedInput().length > inlineMaxBytes) {
+            test.setEncodedInputHash(put(test.getEncodedInput()));
+            test.setEncodedInput(null);
+        }
+        byte[] input = bytes(test.getInputData());
+        if (input != null && input.length > inlineMaxBytes) {
+            test.setInputHash(put(input));
+            test.setInputData(preview(test.getInputData(), input.length));
+        }
+        byte[] expected = bytes(test.getExpectedOutput());
+        if (expected != null && expected.length > inlineMaxBytes) {
+            test.setExpectedOutputHash(put(expected));
+            test.setExpectedOutput(preview(test.getExpectedOutput(), expected.length));
+        }
+    }
+
+    /**
+     * The test as the harness sees it: stored data is passed as files to map, not loaded.
+     */
+    public TestInput toTestInput(TestCase test) {
+        return new TestInput(test.getInputData(), test.getExpectedOutput(), test.getEncodedInput(), test.getGenerator(),
+                file(test.getEncodedInputHash()), file(test.getExpectedOutputHash()));
+    }
+
+    /**
+     * The full input as the teacher wrote it, for editing.
+     */
+    public String inputText(TestCase test) {
+        return test.getInputHash() != null ? readText(test.getInputHash()) : test.getInputData();
+    }
+
+    /**
+     * The full expected output, for editing.
+     */
+    public String expectedText(TestCase test) {
+        return test.getExpectedOutputHash() != null ? readText(test.getExpectedOutputHash()) : test.getExpectedOutput();
+    }
+
+    /**
+     * Stores the data unless a file with the same content exists.
+     *
+     * @return The hash that names the file.
+     */
+    String put(byte[] data) {
+        String hash = hash(data);
+        Path target = path(hash);
+        if (Files.exists(target)) {
+            return hash;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            // Written aside and moved into place, so a reader never maps a partial file
+            Path temp = Files.createTempFile(target.getParent(), hash, ".tmp");
+            Files.write(temp, data);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot store test data " + hash, e);
+        }
+        log.debug("Stored {} bytes of test data as {}", data.length, hash);
+        return hash;
+    }
+
+    private String readText(String hash) {
+        ByteBuffer buffer = TestDataFiles.map(file(hash));
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+    private String file(String hash) {
+        return hash == null ? null : path(hash).toString();
+    }
+
+    private Path path(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static String preview(String text, int bytes) {
+        return text.substring(0, Math.min(text.length(), PREVIEW_CHARS)) + "… (" + bytes + " bytes)";
+    }
+
+    private static byte[] bytes(String text) {
+        return text == null ? null : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String hash(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
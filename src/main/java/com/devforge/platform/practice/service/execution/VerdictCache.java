@@ -0,0 +1,95 @@
+package com.devforge.platform.practice.service.execution;
+
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.runner.TestReport;
+import com.devforge.platform.practice.runner.Verdict;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * LRU cache of verdicts, keyed by the problem, the version of its tests and a hash of the
+ * normalized source. Re-running unchanged code returns the previous result without compiling
+ * or running anything.
+ * <p>
+ * Editing the tests bumps {@link Problem#getTestsVersion()}, so older verdicts are never
+ * served again. Published as {@code practice.verdict.cache.*} metrics.
+ */
+@Component
+public class VerdictCache {
+
+    /**
+     * A stored result, with the per-test reports to replay to a listener.
+     */
+    public record Entry(Verdict verdict, String logs, List<TestReport> tests) {
+
+        long sizeInBytes() {
+            long size = 2L * logs.length();
+            for (TestReport test : tests) {
+                size += 64 + 2L * (length(test.input()) + length(test.actual()) + length(test.expected()));
+            }
+            return size;
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+
+    private final BoundedCache<Entry> cache;
+
+    public VerdictCache(@Value("${practice.verdict-cache.max-entries:10000}") int maxEntries,
+                        @Value("${practice.verdict-cache.max-bytes:33554432}") long maxBytes,
+                        MeterRegistry meterRegistry) {
+        this.cache = new BoundedCache<>("practice.verdict.cache", "Submissions", maxEntries, maxBytes,
+                Entry::sizeInBytes, meterRegistry);
+    }
+
+    /**
+     * Builds the cache key of a submission. Line endings and trailing whitespace do not change
+     * what the code does, so they do not change the key either.
+     */
+    public static String key(Problem problem, String sourceCode) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(problem.getClassName().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalize(sourceCode).getBytes(StandardCharsets.UTF_8));
+            return problem.getId() + ":" + problem.getTestsVersion() + ":" + HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String normalize(String sourceCode) {
+        StringBuilder normalized = new StringBuilder(sourceCode.length());
+        sourceCode.lines().forEach(line -> normalized.append(line.stripTrailing()).append('\n'));
+        return normalized.toString().strip();
+    }
+
+    /**
+     * @return The cached result, or null if this code has not been judged against the current tests.
+     */
+    public Entry get(String key) {
+        return cache.get(key);
+    }
+
+    public void put(String key, Entry entry) {
+        cache.put(key, entry);
+    }
+
+    /**
+     * Frees the verdicts of a problem whose tests changed. They are unreachable anyway,
+     * as their keys carry the old tests version.
+     */
+    public void evict(Long problemId) {
+        String prefix = problemId + ":";
+        cache.removeIf(key -> key.startsWith(prefix));
+    }
+}
@@ -1,20 +1,35 @@
 package com.devforge.platform.practice.web;
 
-import com.devforge.platform.enrollment.service.EnrollmentService;
 import com.devforge.platform.practice.domain.Problem;
 import com.devforge.platform.practice.repository.ProblemRepository;
-import com.devforge.platform.practice.service.CodeExecutionService;
+import com.devforge.platform.practice.service.DiagnosticsService;
+import com.devforge.platform.practice.service.RegradeService;
+import com.devforge.platform.practice.service.SubmissionJob;
+import com.devforge.platform.practice.service.SubmissionJobService;
+import com.devforge.platform.practice.service.execution.CompileDiagnostic;
+import com.devforge.platform.practice.service.execution.ExecutionPriority;
+import com.devforge.platform.practice.service.execution.ExecutionRejectedException;
+import com.devforge.platform.practice.service.execution.RunRateLimiter;
+import com.devforge.platform.practice.web.dto.DiagnosticsResponse;
+import com.devforge.platform.practice.web.dto.RegradeStatusResponse;
 import com.devforge.platform.practice.web.dto.RunCodeRequest;
 import com.devforge.platform.practice.web.dto.RunCodeResponse;
+import com.devforge.platform.practice.web.dto.SubmissionAcceptedResponse;
+import com.devforge.platform.practice.web.dto.SubmissionStatusResponse;
 import com.devforge.platform.user.domain.User;
 import com.devforge.platform.user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.security.Principal;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/practice")
@@ -22,10 +37,12 @@ import java.security.Principal;
 @Slf4j
 public class PracticeApiController {
 
-    private final CodeExecutionService executionService;
     private final ProblemRepository problemRepository;
-    private final EnrollmentService enrollmentService;
     private final UserService userService;
+    private final SubmissionJobService submissionJobService;
+    private final RegradeService regradeService;
+    private final RunRateLimiter runRateLimiter;
+    private final DiagnosticsService diagnosticsService;
 
     @PostMapping("/{lessonId}/run")
     @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
@@ -34,19 +51,102 @@ public class PracticeApiController {
                                                    Principal principal) {
         
         User user = userService.getByEmail(principal.getName());
+        runRateLimiter.acquire(user.getId());
         
         Problem problem = problemRepository.findByLessonId(lessonId)
                 .orElseThrow(() -> new IllegalArgumentException("No problem found"));
 
-        var result = executionService.executeWithLogs(request.code(), problem);
+        return ResponseEntity.ok(submissionJobService.run(user, problem, problem.getLesson().getCourse().getId(),
+                lessonId, request.code(), priorityOf(user, problem)));
+    }
+
+    /**
+     * Asynchronous Run: queues the code and returns a submission id right away.
+     * Progress is available from {@code /submissions/{id}/events} (SSE) or {@code /submissions/{id}}.
+     */
+    @PostMapping("/{lessonId}/submissions")
+    @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
+    public ResponseEntity<SubmissionAcceptedResponse> submitCode(@PathVariable Long lessonId,
+                                                                 @RequestBody RunCodeRequest request,
+                                                                 Principal principal) {
+        User user = userService.getByEmail(principal.getName());
+        runRateLimiter.acquire(user.getId());
+
+        Problem problem = problemRepository.findByLessonId(lessonId)
+                .orElseThrow(() -> new IllegalArgumentException("No problem found"));
+
+        // Resolved here: the lazy association is not available on the execution thread
+        Long courseId = problem.getLesson().getCourse().getId();
 
-        if (result.success()) {
-            if (user.getRole() == com.devforge.platform.user.domain.Role.STUDENT) {
-                enrollmentService.markLessonAsComplete(user, problem.getLesson().getCourse().getId(), lessonId);
-            }
-            return ResponseEntity.ok(new RunCodeResponse(true, "All tests passed! 🏆", result.logs()));
-        } else {
-            return ResponseEntity.ok(new RunCodeResponse(false, "Tests failed. Check logs below. ❌", result.logs()));
+        SubmissionJob job = submissionJobService.submit(user, problem, courseId, lessonId, request.code(),
+                priorityOf(user, problem));
+
+        return ResponseEntity.accepted().body(new SubmissionAcceptedResponse(job.getId()));
+    }
+
+    /**
+     * Compiler errors and warnings for the editor, without compiling to bytecode or running anything.
+     * Answers 204 when a newer check of the same user made this one obsolete, and 429 when the user
+     * checks too often or the compilers for diagnostics are busy.
+     */
+    @PostMapping("/{lessonId}/diagnostics")
+    @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
+    public ResponseEntity<DiagnosticsResponse> diagnose(@PathVariable Long lessonId,
+                                                        @RequestBody RunCodeRequest request,
+                                                        Principal principal) {
+        User user = userService.getByEmail(principal.getName());
+
+        Problem problem = problemRepository.findByLessonId(lessonId)
+                .orElseThrow(() -> new IllegalArgumentException("No problem found"));
+
+        List<CompileDiagnostic> diagnostics = diagnosticsService.diagnose(user.getId(), problem, request.code());
+        if (diagnostics == null) {
+            return ResponseEntity.noContent().build();
         }
+        return ResponseEntity.ok(new DiagnosticsResponse(diagnostics));
+    }
+
+    @GetMapping("/submissions/{submissionId}")
+    @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
+    public ResponseEntity<SubmissionStatusResponse> getSubmission(@PathVariable String submissionId,
+                                                                  Principal principal) {
+        User user = userService.getByEmail(principal.getName());
+        SubmissionJob job = submissionJobService.getJob(submissionId, user);
+        return ResponseEntity.ok(new SubmissionStatusResponse(job.getId(), job.getStatus().name(),
+                job.getTests(), job.getResult()));
+    }
+
+    @GetMapping(value = "/submissions/{submissionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('STUDENT', 'TEACHER')")
+    public SseEmitter streamSubmission(@PathVariable String submissionId, Principal principal) {
+        User user = userService.getByEmail(principal.getName());
+        return submissionJobService.subscribe(submissionId, user);
+    }
+
+    /**
+     * Progress of the regrade of the accepted solutions, started when the teacher edits the tests.
+     */
+    @GetMapping("/{lessonId}/regrade")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<RegradeStatusResponse> getRegradeStatus(@PathVariable Long lessonId, Principal principal) {
+        User teacher = userService.getByEmail(principal.getName());
+        return ResponseEntity.ok(regradeService.getStatus(lessonId, teacher));
+    }
+
+    // Only the course's author is previewing the problem; anyone else, teacher or not, is waiting for a Run
+    private static ExecutionPriority priorityOf(User user, Problem problem) {
+        return user.getId().equals(problem.getLesson().getCourse().getAuthor().getId())
+                ? ExecutionPriority.PREVIEW : ExecutionPriority.INTERACTIVE;
+    }
+
+    /**
+     * Rate limit or full execution queue: fail fast and tell the client when to retry.
+     */
+    @ExceptionHandler(ExecutionRejectedException.class)
+    public ResponseEntity<RunCodeResponse> handleRejected(ExecutionRejectedException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new RunCodeResponse(false,
+                        "Too many runs right now. Try again in " + e.getRetryAfterSeconds() + " s. ⏳", ""));
     }
-}
\ No newline at end of file
+}
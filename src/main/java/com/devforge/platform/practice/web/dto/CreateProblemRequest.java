@@ -16,6 +16,15 @@ public class CreateProblemRequest {
     private String className = "Solution";
     private String methodName = "solve";
     private String methodSignature = "int, int";
+    private boolean parallelTests;
+
+    // --- Helper types shared by the student's and the reference solution ---
+    private String helperCode;
+
+    // --- Reference solution: performance check and generated tests ---
+    private boolean performanceGraded;
+    private String referenceSolution;
+    private double maxSlowdown = 2.0;
     
     private String starterCode = """
         public class Solution {
@@ -28,4 +37,7 @@ public class CreateProblemRequest {
 
     // --- Test-cases ---
     private List<CreateTestCaseRequest> testCases = new ArrayList<>();
+
+    // --- Generated test-cases: one generator line each, expected outputs come from the reference solution ---
+    private String generators;
 }
\ No newline at end of file
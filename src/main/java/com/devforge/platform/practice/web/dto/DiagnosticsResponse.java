@@ -0,0 +1,12 @@
+package com.devforge.platform.practice.web.dto;
+
+import com.devforge.platform.practice.service.execution.CompileDiagnostic;
+
+import java.util.List;
+
+/**
+ * Compiler messages for the code in the editor; empty if it compiles cleanly.
+ */
+public record DiagnosticsResponse(
+    List<CompileDiagnostic> diagnostics
+) {}
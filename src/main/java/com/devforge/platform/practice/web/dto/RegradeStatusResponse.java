@@ -0,0 +1,19 @@
+package com.devforge.platform.practice.web.dto;
+
+/**
+ * Progress of the regrade of a practice lesson's accepted solutions.
+ *
+ * @param state     IDLE, QUEUED, RUNNING or FINISHED.
+ * @param total     Completions to regrade in the current pass.
+ * @param processed Completions regraded so far.
+ * @param revoked   Completions whose code no longer passes.
+ * @param deferred  Completions left for a later pass (time limit, runner unavailable).
+ */
+public record RegradeStatusResponse(
+    String state,
+    int testsVersion,
+    long total,
+    long processed,
+    long revoked,
+    long deferred
+) {}
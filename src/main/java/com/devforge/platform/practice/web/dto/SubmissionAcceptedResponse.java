@@ -0,0 +1,8 @@
+package com.devforge.platform.practice.web.dto;
+
+/**
+ * Returned immediately when an asynchronous Run is queued.
+ */
+public record SubmissionAcceptedResponse(
+    String submissionId
+) {}
@@ -0,0 +1,15 @@
+package com.devforge.platform.practice.web.dto;
+
+import com.devforge.platform.practice.runner.TestReport;
+
+import java.util.List;
+
+/**
+ * Polling view of an asynchronous Run. {@code result} is null until it finishes.
+ */
+public record SubmissionStatusResponse(
+    String submissionId,
+    String status,
+    List<TestReport> tests,
+    RunCodeResponse result
+) {}
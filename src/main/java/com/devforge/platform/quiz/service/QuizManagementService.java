@@ -5,6 +5,7 @@ import com.devforge.platform.course.domain.Lesson;
 import com.devforge.platform.course.domain.LessonType;
 import com.devforge.platform.course.repository.CourseRepository;
 import com.devforge.platform.course.repository.LessonRepository;
+import com.devforge.platform.course.service.CourseSearchIndex;
 import com.devforge.platform.quiz.domain.QuizOption;
 import com.devforge.platform.quiz.domain.QuizQuestion;
 import com.devforge.platform.quiz.repository.QuizQuestionRepository;
@@ -27,6 +28,7 @@ public class QuizManagementService {
     private final CourseRepository courseRepository;
     private final LessonRepository lessonRepository;
     private final QuizQuestionRepository quizQuestionRepository;
+    private final CourseSearchIndex courseSearchIndex;
 
     @Transactional
     public void createQuiz(Long courseId, CreateQuizRequest request, User teacher) {
@@ -47,6 +49,8 @@ public class QuizManagementService {
                 .build();
         
         lessonRepository.save(lesson);
+        course.touch();
+        courseSearchIndex.reindex(courseId);
 
         // Save questions with answers
         for (var qDto : request.getQuestions()) {
@@ -88,6 +92,8 @@ public class QuizManagementService {
         lesson.setTitle(request.getTitle());
         lesson.setOrderIndex(request.getOrderIndex());
         lessonRepository.save(lesson);
+        lesson.getCourse().touch();
+        courseSearchIndex.reindex(lesson.getCourse().getId());
 
         // Update questions
         List<QuizQuestion> oldQuestions = quizQuestionRepository.findAllByLessonId(lessonId);
@@ -39,6 +39,9 @@ public class SecurityConfig {
                 .requestMatchers("/css/**", "/js/**", "/images/**").permitAll()
                 // Public endpoints (Pages)
                 .requestMatchers("/", "/register", "/login", "/error").permitAll()
+                // Actuator: health is public, metrics are for admins
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 // H2 Console (Dev only)
                 .requestMatchers("/h2-console/**").permitAll()
                 // All other requests require authentication
@@ -3,7 +3,7 @@ package com.devforge.platform;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "practice.test-data.dir=${java.io.tmpdir}/devforge-test-data")
 class PlatformApplicationTests {
 
 	@Test
@@ -0,0 +1,133 @@
+package com.devforge.platform.course.service.impl;
+
+import com.devforge.platform.course.domain.Course;
+import com.devforge.platform.course.domain.CourseLevel;
+import com.devforge.platform.course.domain.CourseStatus;
+import com.devforge.platform.course.repository.CourseRepository;
+import com.devforge.platform.course.service.CourseSearchIndex;
+import com.devforge.platform.course.service.CourseService.CoursePage;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CourseServiceImplTests {
+
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final CourseSearchIndex courseSearchIndex = mock(CourseSearchIndex.class);
+    private final CourseServiceImpl courseService = new CourseServiceImpl(courseRepository, courseSearchIndex, 2, 3);
+
+    @Test
+    void catalogPageHasCursorOfLastCourseWhenMoreFollow() {
+        when(courseRepository.findByStatusAndIdLessThanOrderByIdDesc(eq(CourseStatus.PUBLISHED), eq(Long.MAX_VALUE), limit(3)))
+                .thenReturn(courses(9, 8, 7));
+
+        CoursePage page = courseService.searchCourses(null, null, null, null);
+
+        assertThat(page.courses()).extracting(Course::getId).containsExactly(9L, 8L);
+        assertThat(page.nextCursor()).isEqualTo("8");
+        assertThat(page.size()).isEqualTo(2);
+    }
+
+    @Test
+    void lastCatalogPageHasNoCursor() {
+        when(courseRepository.findByStatusAndIdLessThanOrderByIdDesc(eq(CourseStatus.PUBLISHED), eq(8L), limit(3)))
+                .thenReturn(courses(7));
+
+        CoursePage page = courseService.searchCourses(" ", null, "8", null);
+
+        assertThat(page.courses()).extracting(Course::getId).containsExactly(7L);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void catalogFiltersByLevelAndClampsPageSize() {
+        when(courseRepository.findByStatusAndLevelAndIdLessThanOrderByIdDesc(eq(CourseStatus.PUBLISHED), eq(CourseLevel.BEGINNER), eq(5L), limit(4)))
+                .thenReturn(courses(4, 3, 2, 1));
+
+        CoursePage page = courseService.searchCourses(null, CourseLevel.BEGINNER, "5", 100);
+
+        assertThat(page.courses()).extracting(Course::getId).containsExactly(4L, 3L, 2L);
+        assertThat(page.nextCursor()).isEqualTo("2");
+        assertThat(page.size()).isEqualTo(3);
+    }
+
+    @Test
+    void malformedCatalogCursorRestartsAtFirstPage() {
+        when(courseRepository.findByStatusAndIdLessThanOrderByIdDesc(eq(CourseStatus.PUBLISHED), eq(Long.MAX_VALUE), any()))
+                .thenReturn(courses(9));
+
+        CoursePage page = courseService.searchCourses(null, null, "abc", 0);
+
+        assertThat(page.courses()).extracting(Course::getId).containsExactly(9L);
+        verify(courseRepository).findByStatusAndIdLessThanOrderByIdDesc(eq(CourseStatus.PUBLISHED), eq(Long.MAX_VALUE), limit(2));
+    }
+
+    @Test
+    void searchPageKeepsRankOrderAndContinuesAfterLastHit() {
+        List<CourseSearchIndex.Hit> hits = List.of(new CourseSearchIndex.Hit(5, 2.5f), new CourseSearchIndex.Hit(3, 1.25f),
+                new CourseSearchIndex.Hit(8, 0.5f));
+        when(courseSearchIndex.search("java", null, null, 3)).thenReturn(hits);
+        when(courseRepository.findAllByIdIn(List.of(5L, 3L))).thenReturn(courses(3, 5));
+
+        CoursePage page = courseService.searchCourses("java", null, null, null);
+
+        assertThat(page.courses()).extracting(Course::getId).containsExactly(5L, 3L);
+        assertThat(page.nextCursor()).isEqualTo("1.25:3");
+
+        when(courseSearchIndex.search("java", null, new CourseSearchIndex.Hit(3, 1.25f), 3)).thenReturn(List.of(hits.get(2)));
+        when(courseRepository.findAllByIdIn(List.of(8L))).thenReturn(courses(8));
+
+        CoursePage next = courseService.searchCourses("java", null, page.nextCursor(), null);
+
+        assertThat(next.courses()).extracting(Course::getId).containsExactly(8L);
+        assertThat(next.nextCursor()).isNull();
+    }
+
+    @Test
+    void searchSkipsCoursesNoLongerPublished() {
+        when(courseSearchIndex.search("java", null, null, 3))
+                .thenReturn(List.of(new CourseSearchIndex.Hit(5, 2f), new CourseSearchIndex.Hit(3, 1f)));
+        Course draft = course(3);
+        draft.setStatus(CourseStatus.DRAFT);
+        when(courseRepository.findAllByIdIn(anyList())).thenReturn(List.of(course(5), draft));
+
+        CoursePage page = courseService.searchCourses("java", null, null, null);
+
+        assertThat(page.courses()).extracting(Course::getId).containsExactly(5L);
+    }
+
+    @Test
+    void malformedSearchCursorRestartsAtFirstPage() {
+        when(courseSearchIndex.search(eq("java"), eq(null), eq(null), anyInt())).thenReturn(List.of());
+
+        for (String cursor : new String[]{"42", "x:1", "1.5:y"}) {
+            assertThat(courseService.searchCourses("java", null, cursor, null).courses()).isEmpty();
+        }
+        verify(courseSearchIndex, times(3)).search("java", null, null, 3);
+    }
+
+    private static Limit limit(int max) {
+        return argThat(limit -> limit.isLimited() && limit.max() == max);
+    }
+
+    private static List<Course> courses(long... ids) {
+        return LongStream.of(ids).mapToObj(CourseServiceImplTests::course).toList();
+    }
+
+    private static Course course(long id) {
+        return Course.builder().id(id).title("Course " + id).status(CourseStatus.PUBLISHED).build();
+    }
+}
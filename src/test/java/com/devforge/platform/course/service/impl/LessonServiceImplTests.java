@@ -0,0 +1,56 @@
+package com.devforge.platform.course.service.impl;
+
+import com.devforge.platform.course.domain.Course;
+import com.devforge.platform.course.domain.Lesson;
+import com.devforge.platform.course.repository.CourseRepository;
+import com.devforge.platform.course.repository.LessonRepository;
+import com.devforge.platform.course.service.CourseSearchIndex;
+import com.devforge.platform.course.web.dto.CreateLessonRequest;
+import com.devforge.platform.user.domain.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LessonServiceImplTests {
+
+    private static final LocalDateTime LONG_AGO = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private final LessonRepository lessonRepository = mock(LessonRepository.class);
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final CourseSearchIndex courseSearchIndex = mock(CourseSearchIndex.class);
+    private final LessonServiceImpl lessonService = new LessonServiceImpl(lessonRepository, courseRepository, courseSearchIndex);
+
+    private final User author = User.builder().id(1L).build();
+    private final Course course = Course.builder().id(5L).author(author).updatedAt(LONG_AGO).build();
+    private final CreateLessonRequest request = new CreateLessonRequest("Streams", "content", null, 1);
+
+    @Test
+    void addingLessonMarksCourseChanged() {
+        when(courseRepository.findById(5L)).thenReturn(Optional.of(course));
+        when(lessonRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        lessonService.createLesson(5L, request, author);
+
+        assertThat(course.getUpdatedAt()).isAfter(LONG_AGO);
+        verify(courseSearchIndex).reindex(5L);
+    }
+
+    @Test
+    void renamingLessonMarksCourseChanged() {
+        Lesson lesson = Lesson.builder().id(8L).title("Old title").course(course).build();
+        when(lessonRepository.findById(8L)).thenReturn(Optional.of(lesson));
+
+        lessonService.updateLecture(8L, request, author);
+
+        assertThat(lesson.getTitle()).isEqualTo("Streams");
+        assertThat(course.getUpdatedAt()).isAfter(LONG_AGO);
+        verify(courseSearchIndex).reindex(5L);
+    }
+}
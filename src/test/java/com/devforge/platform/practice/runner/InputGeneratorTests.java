@@ -0,0 +1,84 @@
+package com.devforge.platform.practice.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.devforge.platform.practice.runner.TestDataCodec.Type.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class InputGeneratorTests {
+
+    private static final List<TestDataCodec.Type> ALL_TYPES = TestDataCodec.parseSignature(
+            "int, long, double, boolean, String, int[], long[], double[], String[], int[][], List<Integer>");
+
+    @Test
+    void sameGeneratorProducesSameInput() {
+        String generator = "seed=42 size=50 min=-100 max=100";
+
+        assertThat(InputGenerator.generate(ALL_TYPES, generator))
+                .isEqualTo(InputGenerator.generate(ALL_TYPES, generator));
+    }
+
+    @Test
+    void otherSeedProducesOtherInput() {
+        assertThat(InputGenerator.generate(ALL_TYPES, "seed=1 size=50"))
+                .isNotEqualTo(InputGenerator.generate(ALL_TYPES, "seed=2 size=50"));
+    }
+
+    @Test
+    void generatedInputDecodesWithinBounds() {
+        List<TestDataCodec.Type> types = List.of(INT_ARRAY, STRING, INT_MATRIX);
+
+        Object[] args = TestDataCodec.decode(types,
+                InputGenerator.generate(types, "seed=3 size=100 cols=4 length=12 min=-5 max=5 alphabet=xy"));
+
+        assertThat((int[]) args[0]).hasSize(100);
+        assertThat(IntStream.of((int[]) args[0])).allMatch(value -> value >= -5 && value <= 5);
+        assertThat((String) args[1]).hasSize(12).matches("[xy]+");
+        assertThat((int[][]) args[2]).hasDimensions(100, 4);
+    }
+
+    @Test
+    void defaultsDependOnType() {
+        InputGenerator.Spec spec = InputGenerator.parse(List.of(STRING), "size=20");
+
+        assertThat(spec.seed()).isEqualTo(1);
+        assertThat(spec.cols()).isEqualTo(20);
+        assertThat(spec.length()).isEqualTo(-1);
+        assertThat((String) TestDataCodec.decode(List.of(STRING), InputGenerator.generate(List.of(STRING), "size=20"))[0])
+                .hasSize(20);
+    }
+
+    @Test
+    void rejectsInvalidGenerators() {
+        List<TestDataCodec.Type> ints = List.of(INT_ARRAY);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> InputGenerator.parse(ints, "seed"))
+                .withMessageContaining("expected key=value");
+        assertThatIllegalArgumentException().isThrownBy(() -> InputGenerator.parse(ints, "rows=3"))
+                .withMessageContaining("unknown key 'rows'");
+        assertThatIllegalArgumentException().isThrownBy(() -> InputGenerator.parse(ints, "size=ten"))
+                .withMessage("size 'ten' is not a number");
+        assertThatIllegalArgumentException().isThrownBy(() -> InputGenerator.parse(ints, "min=5 max=1"))
+                .withMessage("min must not be greater than max");
+        assertThatIllegalArgumentException().isThrownBy(() -> InputGenerator.parse(ints, "max=3000000000"))
+                .withMessage("min and max must fit in an int");
+        assertThatIllegalArgumentException().isThrownBy(() -> InputGenerator.parse(ints, "size=-1"))
+                .withMessageContaining("size must be between 0");
+        assertThatIllegalArgumentException().isThrownBy(() -> InputGenerator.parse(ints, "size=10000000"))
+                .withMessageContaining("more than 5000000 values");
+    }
+
+    @Test
+    void acceptsFullLongRange() {
+        List<TestDataCodec.Type> longs = List.of(LONG_ARRAY);
+
+        Object[] args = TestDataCodec.decode(longs,
+                InputGenerator.generate(longs, "size=10 min=" + Long.MIN_VALUE + " max=" + Long.MAX_VALUE));
+
+        assertThat((long[]) args[0]).hasSize(10);
+    }
+}
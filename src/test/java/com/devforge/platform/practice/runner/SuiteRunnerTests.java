@@ -0,0 +1,90 @@
+package com.devforge.platform.practice.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class SuiteRunnerTests {
+
+    private static final ExecutionLimits LIMITS = new ExecutionLimits(200, 200, 5_000, 1 << 16, 1 << 12, 1 << 12);
+
+    private static final ProblemHarness SUM = ProblemHarness.build("sum", "int, int", List.of(
+            test("5, 10", "15"), test("-5, 5", "0"), test("100, 200", "300")));
+
+    public static class Correct {
+        public int sum(int a, int b) {
+            return a + b;
+        }
+    }
+
+    public static class OffByOne {
+        public int sum(int a, int b) {
+            return a + b + (a < 0 ? 1 : 0);
+        }
+    }
+
+    public static class Throws {
+        public int sum(int a, int b) {
+            throw new ArithmeticException("no sums today");
+        }
+    }
+
+    public static class LocksItsThread {
+        public int sum(int a, int b) {
+            synchronized (Thread.currentThread()) {
+                return (int) WatchdogTests.spin();
+            }
+        }
+    }
+
+    @Test
+    void passesCorrectSolutionAndReportsEveryTest() {
+        for (boolean parallel : new boolean[]{false, true}) {
+            List<TestReport> reports = new ArrayList<>();
+
+            Verdict verdict = SuiteRunner.run(Correct.class, SUM, LIMITS, parallel, new LogCapture(LIMITS), reports::add);
+
+            assertThat(verdict).isEqualTo(Verdict.PASSED);
+            assertThat(reports).extracting(TestReport::verdict).containsOnly(Verdict.PASSED).hasSize(3);
+        }
+    }
+
+    @Test
+    void stopsAtFirstWrongAnswer() {
+        for (boolean parallel : new boolean[]{false, true}) {
+            List<TestReport> reports = new ArrayList<>();
+
+            Verdict verdict = SuiteRunner.run(OffByOne.class, SUM, LIMITS, parallel, new LogCapture(LIMITS), reports::add);
+
+            assertThat(verdict).isEqualTo(Verdict.WRONG_ANSWER);
+            assertThat(reports).extracting(TestReport::verdict).containsExactly(Verdict.PASSED, Verdict.WRONG_ANSWER);
+        }
+    }
+
+    @Test
+    void reportsRuntimeError() {
+        LogCapture log = new LogCapture(LIMITS);
+
+        assertThat(SuiteRunner.run(Throws.class, SUM, LIMITS, false, log, TestListener.NONE)).isEqualTo(Verdict.RUNTIME_ERROR);
+        assertThat(log.contents()).contains("no sums today");
+    }
+
+    @Test
+    void timesOutSubmissionThatLocksItsThread() {
+        for (boolean parallel : new boolean[]{false, true}) {
+            Verdict verdict = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> SuiteRunner.run(LocksItsThread.class, SUM, LIMITS, parallel, new LogCapture(LIMITS), TestListener.NONE));
+
+            assertThat(verdict).isEqualTo(Verdict.TIME_LIMIT_EXCEEDED);
+        }
+    }
+
+    private static TestInput test(String input, String expected) {
+        return new TestInput(input, expected);
+    }
+}
@@ -0,0 +1,138 @@
+package com.devforge.platform.practice.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static com.devforge.platform.practice.runner.TestDataCodec.Type.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class TestDataCodecTests {
+
+    @Test
+    void parsesSignatureWithGenericTypes() {
+        assertThat(TestDataCodec.parseSignature("int[], List<Integer>, String"))
+                .containsExactly(INT_ARRAY, INT_LIST, STRING);
+        assertThat(TestDataCodec.parseSignature("  ")).isEmpty();
+    }
+
+    @Test
+    void rejectsUnsupportedType() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TestDataCodec.parseSignature("int, char"))
+                .withMessageContaining("Unsupported type 'char'");
+    }
+
+    @Test
+    void roundTripsEveryType() {
+        List<TestDataCodec.Type> types = TestDataCodec.parseSignature(
+                "int, long, double, boolean, String, int[], long[], double[], String[], int[][], List<Integer>");
+        String input = "-7, 9000000000, 2.5, true, hello, [1, 2, 3], [4], [0.5, -1], [\"a, b\", c], [[1, 2], [], [3]], [5, 6]";
+
+        Object[] args = TestDataCodec.decode(types, TestDataCodec.encode(types, input));
+
+        assertThat(args[0]).isEqualTo(-7);
+        assertThat(args[1]).isEqualTo(9_000_000_000L);
+        assertThat(args[2]).isEqualTo(2.5);
+        assertThat(args[3]).isEqualTo(true);
+        assertThat(args[4]).isEqualTo("hello");
+        assertThat((int[]) args[5]).containsExactly(1, 2, 3);
+        assertThat((long[]) args[6]).containsExactly(4L);
+        assertThat((double[]) args[7]).containsExactly(0.5, -1.0);
+        assertThat((String[]) args[8]).containsExactly("a, b", "c");
+        assertThat((int[][]) args[9]).isDeepEqualTo(new int[][]{{1, 2}, {}, {3}});
+        assertThat(args[10]).isEqualTo(List.of(5, 6));
+    }
+
+    @Test
+    void decodesQuotedStringEscapes() {
+        List<TestDataCodec.Type> types = List.of(STRING);
+
+        Object[] args = TestDataCodec.decode(types, TestDataCodec.encode(types, "\"say \\\"hi\\\"\\n\\tand \\\\ bye\""));
+
+        assertThat(args[0]).isEqualTo("say \"hi\"\n\tand \\ bye");
+    }
+
+    @Test
+    void trimsUnquotedStrings() {
+        List<TestDataCodec.Type> types = List.of(STRING, STRING);
+
+        Object[] args = TestDataCodec.decode(types, TestDataCodec.encode(types, "  Alice  ,Bob "));
+
+        assertThat(args).containsExactly("Alice", "Bob");
+    }
+
+    @Test
+    void decodesFromReadOnlyBuffer() {
+        List<TestDataCodec.Type> types = List.of(STRING, INT_ARRAY);
+        ByteBuffer buffer = ByteBuffer.wrap(TestDataCodec.encode(types, "héllo, [1, 2]")).asReadOnlyBuffer();
+
+        Object[] args = TestDataCodec.decode(types, buffer);
+
+        assertThat(args[0]).isEqualTo("héllo");
+        assertThat((int[]) args[1]).containsExactly(1, 2);
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void reportsArgumentAndPositionOfBadValue() {
+        List<TestDataCodec.Type> types = List.of(INT, INT);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TestDataCodec.encode(types, "1, x"))
+                .withMessage("Argument 2, position 5: 'x' is not an int");
+    }
+
+    @Test
+    void rejectsMissingAndExtraArguments() {
+        List<TestDataCodec.Type> types = List.of(INT, INT);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TestDataCodec.encode(types, "1"))
+                .withMessageContaining("expected ',' before argument 2 (int)");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TestDataCodec.encode(types, "1, 2, 3"))
+                .withMessageContaining("Expected 2 argument(s), found more");
+    }
+
+    @Test
+    void rejectsMalformedLists() {
+        List<TestDataCodec.Type> types = List.of(INT_ARRAY);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TestDataCodec.encode(types, "1, 2"))
+                .withMessageContaining("expected '['");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TestDataCodec.encode(types, "[1 2]"))
+                .withMessageContaining("expected ',' or ']'");
+    }
+
+    @Test
+    void rejectsUnterminatedStringAndUnknownEscape() {
+        List<TestDataCodec.Type> types = List.of(STRING);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TestDataCodec.encode(types, "\"open"))
+                .withMessageContaining("unterminated string");
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TestDataCodec.encode(types, "\"\\x\""))
+                .withMessageContaining("unknown escape \\x");
+    }
+
+    @Test
+    void rejectsUnknownFormatVersion() {
+        assertThatIllegalStateException()
+                .isThrownBy(() -> TestDataCodec.decode(List.of(INT), new byte[]{99, 0, 0, 0, 1}))
+                .withMessage("Unknown test data format: 99");
+    }
+
+    @Test
+    void formatsArraysLikeExpectedOutputs() {
+        assertThat(TestDataCodec.format(new int[]{1, 2})).isEqualTo("[1, 2]");
+        assertThat(TestDataCodec.format(new int[][]{{1}, {2, 3}})).isEqualTo("[[1], [2, 3]]");
+        assertThat(TestDataCodec.format(null)).isEqualTo("null");
+    }
+}
@@ -0,0 +1,91 @@
+package com.devforge.platform.practice.runner;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class WatchdogTests {
+
+    private static final ExecutionLimits LIMITS = new ExecutionLimits(200, 200, 5_000, 1 << 16, 1 << 12, 1 << 12);
+    private static final Duration HANG = Duration.ofSeconds(5);
+
+    @Test
+    void returnsValueAndReusesWorker() {
+        try (Watchdog watchdog = newWatchdog()) {
+            Watchdog.Outcome first = watchdog.call(() -> Thread.currentThread());
+            Watchdog.Outcome second = watchdog.call(() -> Thread.currentThread());
+
+            assertThat(first.timedOut()).isFalse();
+            assertThat(first.value()).isSameAs(second.value()).isNotSameAs(Thread.currentThread());
+        }
+    }
+
+    @Test
+    void reportsExceptionOfTask() {
+        try (Watchdog watchdog = newWatchdog()) {
+            Watchdog.Outcome outcome = watchdog.call(() -> {
+                throw new IllegalStateException("boom");
+            });
+
+            assertThat(outcome.timedOut()).isFalse();
+            assertThat(outcome.error()).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+        }
+    }
+
+    @Test
+    void abandonsBusyLoopAndStartsFreshWorker() {
+        assertTimeoutPreemptively(HANG, () -> {
+            try (Watchdog watchdog = newWatchdog()) {
+                Watchdog.Outcome outcome = watchdog.call(WatchdogTests::spin);
+                Watchdog.Outcome next = watchdog.call(() -> 42);
+
+                assertThat(outcome.timedOut()).isTrue();
+                assertThat(next.timedOut()).isFalse();
+                assertThat(next.value()).isEqualTo(42);
+            }
+        });
+    }
+
+    @Test
+    void timesOutWhenStudentCodeHoldsItsThreadsMonitor() {
+        assertTimeoutPreemptively(HANG, () -> {
+            try (Watchdog watchdog = newWatchdog()) {
+                Watchdog.Outcome outcome = watchdog.call(() -> {
+                    synchronized (Thread.currentThread()) {
+                        return spin();
+                    }
+                });
+
+                assertThat(outcome.timedOut()).isTrue();
+                assertThat(outcome.wallMillis()).isLessThan(1_000);
+            }
+        });
+    }
+
+    @Test
+    void submissionDeadlineCapsTestLimit() {
+        assertTimeoutPreemptively(HANG, () -> {
+            try (Watchdog watchdog = new Watchdog(new ExecutionLimits(60_000, 60_000, 60_000, 1 << 16, 1 << 12, 1 << 12),
+                    System.nanoTime() + Duration.ofMillis(100).toNanos())) {
+                assertThat(watchdog.call(WatchdogTests::spin).timedOut()).isTrue();
+            }
+        });
+    }
+
+    private static Watchdog newWatchdog() {
+        return new Watchdog(LIMITS, System.nanoTime() + Duration.ofMillis(LIMITS.submissionWallMillis()).toNanos());
+    }
+
+    // Ignores interrupts, like student code that never checks them, but ends so as not to burn the test JVM
+    static long spin() {
+        long end = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        long counter = 0;
+        while (System.nanoTime() < end) {
+            counter++;
+        }
+        return counter;
+    }
+}
@@ -0,0 +1,213 @@
+package com.devforge.platform.practice.service;
+
+import com.devforge.platform.enrollment.service.EnrollmentService;
+import com.devforge.platform.practice.domain.ExecutionJob;
+import com.devforge.platform.practice.domain.Problem;
+import com.devforge.platform.practice.repository.ExecutionJobRepository;
+import com.devforge.platform.practice.repository.ProblemRepository;
+import com.devforge.platform.practice.runner.TestReport;
+import com.devforge.platform.practice.runner.Verdict;
+import com.devforge.platform.practice.service.execution.ExecutionEngine;
+import com.devforge.platform.practice.service.execution.ExecutionPriority;
+import com.devforge.platform.user.domain.Role;
+import com.devforge.platform.user.domain.User;
+import com.devforge.platform.user.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The durable job queue against an embedded database: claims, leases, takeovers and completion.
+ * Runners are driven one poll at a time instead of by their poller threads.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExecutionJobWorkerTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Autowired
+    private ExecutionJobRepository jobs;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ProblemRepository problems = mock(ProblemRepository.class);
+    private final CodeExecutionService codeExecutionService = mock(CodeExecutionService.class);
+    private final SubmissionRecorder submissionRecorder = mock(SubmissionRecorder.class);
+    private final EnrollmentService enrollmentService = mock(EnrollmentService.class);
+    private final UserService userService = mock(UserService.class);
+    private final List<ExecutionJobWorker> workers = new ArrayList<>();
+    private RunCompletionService runCompletionService;
+
+    @BeforeEach
+    void setUp() {
+        when(problems.findById(1L)).thenReturn(Optional.of(Problem.builder().id(1L).testCases(new ArrayList<>()).build()));
+        when(userService.getById(7L)).thenReturn(User.builder().id(7L).role(Role.STUDENT).build());
+        runCompletionService = new RunCompletionService(submissionRecorder, enrollmentService, userService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workers.forEach(ExecutionJobWorker::shutdown);
+        runCompletionService.shutdown();
+        jobs.deleteAll();
+    }
+
+    @Test
+    void claimsRunsAndFinishesJob() {
+        CompletableFuture<CodeExecutionService.ExecutionResult> execution = new CompletableFuture<>();
+        when(codeExecutionService.submit(anyString(), any(), any(), any())).thenReturn(execution);
+        String id = queue(0);
+
+        runner("a").poll();
+
+        ExecutionJob claimed = jobs.findById(id).orElseThrow();
+        assertThat(claimed.getStatus()).isEqualTo(ExecutionJob.Status.RUNNING);
+        assertThat(claimed.getLockedBy()).isEqualTo("a");
+        assertThat(claimed.getAttempts()).isEqualTo(1);
+
+        execution.complete(new CodeExecutionService.ExecutionResult(Verdict.PASSED, "logs", List.of()));
+
+        await().atMost(TIMEOUT).until(() -> jobs.findById(id).orElseThrow().getStatus() == ExecutionJob.Status.FINISHED);
+        ExecutionJob finished = jobs.findById(id).orElseThrow();
+        assertThat(finished.getResultSuccess()).isTrue();
+        assertThat(finished.getLockedBy()).isNull();
+        verify(submissionRecorder).record(any(), any(), anyString(), any());
+        verify(enrollmentService).markLessonAsComplete(any(), anyLong(), anyLong(), anyString(), anyInt());
+    }
+
+    @Test
+    void runnerThatLostItsLeaseDropsResult() {
+        CompletableFuture<CodeExecutionService.ExecutionResult> first = new CompletableFuture<>();
+        CompletableFuture<CodeExecutionService.ExecutionResult> second = new CompletableFuture<>();
+        when(codeExecutionService.submit(anyString(), any(), any(), any())).thenReturn(first, second);
+        String id = queue(0);
+
+        runner("a").poll();
+        expireLease(id);
+        runner("b").poll();
+
+        ExecutionJob reclaimed = jobs.findById(id).orElseThrow();
+        assertThat(reclaimed.getLockedBy()).isEqualTo("b");
+        assertThat(reclaimed.getAttempts()).isEqualTo(2);
+
+        first.complete(new CodeExecutionService.ExecutionResult(Verdict.PASSED, "", List.of()));
+
+        verify(submissionRecorder, after(500).never()).record(any(), any(), anyString(), any());
+        assertThat(jobs.findById(id).orElseThrow().getStatus()).isEqualTo(ExecutionJob.Status.RUNNING);
+
+        second.complete(new CodeExecutionService.ExecutionResult(Verdict.WRONG_ANSWER, "", List.of()));
+
+        await().atMost(TIMEOUT).until(() -> jobs.findById(id).orElseThrow().getStatus() == ExecutionJob.Status.FINISHED);
+        assertThat(jobs.findById(id).orElseThrow().getResultSuccess()).isFalse();
+        verify(submissionRecorder, times(1)).record(any(), any(), anyString(), any());
+    }
+
+    @Test
+    void givesUpJobAfterMaxAttempts() {
+        String id = queue(3);
+
+        runner("a").poll();
+
+        ExecutionJob job = jobs.findById(id).orElseThrow();
+        assertThat(job.getStatus()).isEqualTo(ExecutionJob.Status.FINISHED);
+        assertThat(job.getResultSuccess()).isFalse();
+        assertThat(job.getResultMessage()).contains("3 times");
+        verify(codeExecutionService, never()).submit(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void progressIsWrittenOnlyUnderTheLease() {
+        String id = queue(0);
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+        List<TestReport> tests = List.of(new TestReport(0, "1, 2", Verdict.PASSED, "3", "3", 1, 1));
+        transactions.executeWithoutResult(status -> {
+            ExecutionJob job = jobs.findById(id).orElseThrow();
+            job.setStatus(ExecutionJob.Status.RUNNING);
+            job.setLockedBy("a");
+            jobs.save(job);
+        });
+
+        assertThat(updateTests(id, "b", tests)).isZero();
+        assertThat(updateTests(id, "a", tests)).isOne();
+        assertThat(jobs.findById(id).orElseThrow().getTests()).containsExactlyElementsOf(tests);
+
+        transactions.executeWithoutResult(status -> {
+            ExecutionJob job = jobs.findById(id).orElseThrow();
+            job.setStatus(ExecutionJob.Status.FINISHED);
+            job.setResultSuccess(true);
+            jobs.save(job);
+        });
+
+        assertThat(updateTests(id, "a", List.of())).isZero();
+        ExecutionJob finished = jobs.findById(id).orElseThrow();
+        assertThat(finished.getStatus()).isEqualTo(ExecutionJob.Status.FINISHED);
+        assertThat(finished.getTests()).containsExactlyElementsOf(tests);
+    }
+
+    private ExecutionJobWorker runner(String node) {
+        ExecutionJobWorker worker = new ExecutionJobWorker(jobs, problems, codeExecutionService, runCompletionService,
+                new TransactionTemplate(transactionManager), mock(ExecutionEngine.class), new SimpleMeterRegistry(),
+                node, 4, 30_000, 3, 200, 15);
+        workers.add(worker);
+        return worker;
+    }
+
+    private String queue(int attempts) {
+        return jobs.save(ExecutionJob.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(7L)
+                .problemId(1L)
+                .courseId(2L)
+                .lessonId(3L)
+                .sourceCode("public class Solution {}")
+                .priority(ExecutionPriority.INTERACTIVE)
+                .status(ExecutionJob.Status.QUEUED)
+                .attempts(attempts)
+                .createdAt(LocalDateTime.now())
+                .build()).getId();
+    }
+
+    private int updateTests(String id, String node, List<TestReport> tests) {
+        Integer updated = new TransactionTemplate(transactionManager).execute(status ->
+                jobs.updateTests(id, node, tests, ExecutionJob.Status.RUNNING));
+        return updated != null ? updated : 0;
+    }
+
+    private void expireLease(String id) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ExecutionJob job = jobs.findById(id).orElseThrow();
+            job.setLeaseExpiresAt(LocalDateTime.now().minusSeconds(1));
+            jobs.save(job);
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package com.devforge.platform.practice.service.execution;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutionEngineTests {
+
+    private final ExecutionEngine engine = new ExecutionEngine(1, 2, 8, 3, 1, new SimpleMeterRegistry());
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutDown() {
+        release.countDown();
+        engine.shutdown();
+    }
+
+    @Test
+    void executesTasksAndPropagatesExceptions() {
+        assertThat(engine.execute(ExecutionPriority.INTERACTIVE, () -> 42)).isEqualTo(42);
+        assertThatThrownBy(() -> engine.execute(ExecutionPriority.INTERACTIVE, () -> {
+            throw new IllegalArgumentException("bad");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("bad");
+    }
+
+    @Test
+    void rejectsForegroundTasksBeyondQueueCapacity() throws Exception {
+        occupyWorker();
+        CompletableFuture<Integer> first = engine.submit(ExecutionPriority.INTERACTIVE, () -> 1);
+        CompletableFuture<Integer> second = engine.submit(ExecutionPriority.PREVIEW, () -> 2);
+
+        assertThatThrownBy(() -> engine.submit(ExecutionPriority.INTERACTIVE, () -> 3))
+                .isInstanceOf(ExecutionRejectedException.class);
+        // The background lane is not bounded
+        CompletableFuture<Integer> background = engine.submit(ExecutionPriority.BACKGROUND, () -> 4);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+        assertThat(background.get(5, TimeUnit.SECONDS)).isEqualTo(4);
+    }
+
+    @Test
+    void interactiveTaskOvertakesBackgroundBacklog() throws Exception {
+        occupyWorker();
+        List<String> order = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int task = i;
+            engine.submit(ExecutionPriority.BACKGROUND, () -> order.add("background-" + task));
+        }
+        CompletableFuture<Boolean> interactive = engine.submit(ExecutionPriority.INTERACTIVE, () -> order.add("interactive"));
+        CompletableFuture<Boolean> last = engine.submit(ExecutionPriority.BACKGROUND, () -> order.add("background-3"));
+
+        release.countDown();
+        interactive.get(5, TimeUnit.SECONDS);
+        last.get(5, TimeUnit.SECONDS);
+
+        assertThat(order).containsExactly("interactive", "background-0", "background-1", "background-2", "background-3");
+    }
+
+    private void occupyWorker() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        engine.submit(ExecutionPriority.INTERACTIVE, () -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,24 @@
+package com.devforge.platform.practice.service.execution;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExecutionHealthIndicatorTests {
+
+    private final ClassLoaderMonitor classLoaderMonitor = new ClassLoaderMonitor(500, 60_000, new SimpleMeterRegistry());
+
+    @Test
+    void metaspaceAboveLimitIsDown() {
+        assertThat(new MetaspaceHealthIndicator(0, classLoaderMonitor).health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(new MetaspaceHealthIndicator(1 << 20, classLoaderMonitor).health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void abandonedThreadsAboveLimitAreOutOfServiceOnly() {
+        assertThat(new ExecutionHealthIndicator(-1).health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        assertThat(new ExecutionHealthIndicator(4).health().getStatus()).isEqualTo(Status.UP);
+    }
+}
@@ -0,0 +1,69 @@
+package com.devforge.platform.practice.service.execution;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+class RunRateLimiterTests {
+
+    private final Counter rejections = new SimpleMeterRegistry().counter("rejected");
+
+    @Test
+    void allowsBurstThenRejectsWithRetryAfter() {
+        RunRateLimiter limiter = new RunRateLimiter(3, 1, rejections);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(1L);
+        }
+        ExecutionRejectedException rejected = catchThrowableOfType(ExecutionRejectedException.class, () -> limiter.acquire(1L));
+
+        assertThat(rejected).isNotNull();
+        assertThat(rejected.getRetryAfterSeconds()).isEqualTo(60);
+        assertThat(rejections.count()).isEqualTo(1);
+    }
+
+    @Test
+    void retryAfterFollowsTheRate() {
+        RunRateLimiter limiter = new RunRateLimiter(1, 2, rejections);
+
+        limiter.acquire(1L);
+        ExecutionRejectedException rejected = catchThrowableOfType(ExecutionRejectedException.class, () -> limiter.acquire(1L));
+
+        assertThat(rejected.getRetryAfterSeconds()).isEqualTo(30);
+    }
+
+    @Test
+    void usersHaveSeparateBuckets() {
+        RunRateLimiter limiter = new RunRateLimiter(1, 1, rejections);
+
+        limiter.acquire(1L);
+
+        assertThatNoException().isThrownBy(() -> limiter.acquire(2L));
+        assertThat(rejections.count()).isZero();
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // One token per millisecond
+        RunRateLimiter limiter = new RunRateLimiter(1, 60_000, rejections);
+
+        limiter.acquire(1L);
+        Thread.sleep(20);
+
+        assertThatNoException().isThrownBy(() -> limiter.acquire(1L));
+    }
+
+    @Test
+    void zeroRateDisablesTheLimit() {
+        RunRateLimiter limiter = new RunRateLimiter(1, 0, rejections);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.acquire(1L);
+        }
+        assertThat(rejections.count()).isZero();
+    }
+}